@@ -2,11 +2,15 @@ package de.aschwartz.camunda8demo.realestatefinancing;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Spring Boot entry point for the real estate financing demo application.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class RealEstateFinancingApplication {
 	/**
 	 * Starts the Spring Boot application.
@@ -2,32 +2,154 @@ package de.aschwartz.camunda8demo.realestatefinancing.camunda.store;
 
 import de.aschwartz.camunda8demo.realestatefinancing.model.Offer;
 import de.aschwartz.camunda8demo.realestatefinancing.model.ReviewResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
-import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Simple in-memory store for demo process results that are needed by the UI.
+ * <p>
+ * Results are kept in a completion registry keyed by correlation id: every key maps to a
+ * {@link CompletableFuture} that is completed by the job worker storing the result, so waiting
+ * callers are woken up immediately instead of polling.
+ * <p>
+ * The store is bounded: offers and review result of a journey share one entry, entries expire
+ * after a configurable TTL (after write or after access) and the least recently used entry is
+ * evicted once {@code max-entries} is reached.
+ * <p>
+ * Waiters for the same correlation id are deduplicated: a browser retry or a duplicate form post
+ * attaches to the already pending future instead of starting its own wait, and a waiter arriving
+ * after completion gets the cached value immediately. Active and duplicate waiters are counted so
+ * retry storms become visible.
  */
 @Component
 public class ProcessStateStore {
 
-	private final Map<String, List<Offer>> offersByCorrelationId = new ConcurrentHashMap<>();
-	private final Map<String, ReviewResult> reviewByCorrelationId = new ConcurrentHashMap<>();
+	/**
+	 * Expiry policy for store entries.
+	 */
+	public enum ExpireAfter {
+		/**
+		 * TTL starts with the last store of a result.
+		 */
+		WRITE,
+		/**
+		 * TTL starts with the last read or store of a result.
+		 */
+		ACCESS
+	}
+
+	/**
+	 * Point-in-time view of the store counters.
+	 *
+	 * @param entries        current number of entries
+	 * @param hits           lookups that found a stored result
+	 * @param misses         lookups that found no stored result
+	 * @param evictions      entries removed by size or TTL
+	 * @param retainedBytes  estimated heap retained by all entries
+	 * @param waiters        callers currently waiting for a pending result
+	 * @param duplicateWaits waits that joined an already waited-for correlation id
+	 */
+	public record Stats(
+			int entries,
+			long hits,
+			long misses,
+			long evictions,
+			long retainedBytes,
+			int waiters,
+			long duplicateWaits
+	) {
+	}
+
+	// Rough shallow sizes for a 64-bit JVM with compressed oops.
+	private static final long ENTRY_OVERHEAD_BYTES = 200;
+	private static final long STRING_OVERHEAD_BYTES = 40;
+	private static final long OFFER_BYTES = 24 + 40;
+	private static final long REVIEW_RESULT_BYTES = 24;
+	private static final long LIST_SLOT_BYTES = 4;
+
+	private final int maxEntries;
+	private final long ttlNanos;
+	private final ExpireAfter expireAfter;
+
+	private final LinkedHashMap<String, Entry> entries;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final AtomicLong retainedBytes = new AtomicLong();
+	private final AtomicInteger waiters = new AtomicInteger();
+	private final LongAdder duplicateWaits = new LongAdder();
 
 	/**
-	 * Stores offers for a process instance.
+	 * Creates the store.
+	 *
+	 * @param maxEntries    maximum number of tracked correlation ids
+	 * @param ttl           time to live of an entry
+	 * @param expireAfter   whether the TTL restarts on write only or on every access
+	 * @param meterRegistry registry for store metrics
+	 */
+	public ProcessStateStore(
+			@Value("${camunda8demo.process-state-store.max-entries:10000}") int maxEntries,
+			@Value("${camunda8demo.process-state-store.ttl:10m}") Duration ttl,
+			@Value("${camunda8demo.process-state-store.expire-after:write}") ExpireAfter expireAfter,
+			MeterRegistry meterRegistry
+	) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("camunda8demo.process-state-store.max-entries must be > 0");
+		}
+		this.maxEntries = maxEntries;
+		this.ttlNanos = ttl.toNanos();
+		this.expireAfter = expireAfter;
+		this.entries = new LinkedHashMap<>(16, 0.75f, expireAfter == ExpireAfter.ACCESS);
+
+		Gauge.builder("process.state.store.entries", this, store -> store.stats().entries())
+				.register(meterRegistry);
+		Gauge.builder("process.state.store.retained", retainedBytes, AtomicLong::get)
+				.baseUnit("bytes")
+				.description("Estimated heap retained by stored offers and review results")
+				.register(meterRegistry);
+		FunctionCounter.builder("process.state.store.lookups", hits, LongAdder::sum)
+				.tag("result", "hit")
+				.register(meterRegistry);
+		FunctionCounter.builder("process.state.store.lookups", misses, LongAdder::sum)
+				.tag("result", "miss")
+				.register(meterRegistry);
+		FunctionCounter.builder("process.state.store.evictions", evictions, LongAdder::sum)
+				.register(meterRegistry);
+		Gauge.builder("process.state.store.waiters", waiters, AtomicInteger::get)
+				.description("Callers currently waiting for a pending result")
+				.register(meterRegistry);
+		FunctionCounter.builder("process.state.store.waiters.duplicate", duplicateWaits, LongAdder::sum)
+				.description("Waits that joined an already waited-for correlation id")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Stores offers for a process instance and wakes up all waiters.
 	 *
 	 * @param correlationId correlation id
 	 * @param offers        offers list
 	 */
 	public void storeOffers(String correlationId, List<Offer> offers) {
-		offersByCorrelationId.put(correlationId, offers);
+		complete(correlationId, offers, entry -> entry.offers, (entry, future) -> entry.offers = future);
 	}
 
 	/**
@@ -37,17 +159,27 @@ public class ProcessStateStore {
 	 * @return offers list
 	 */
 	public Optional<List<Offer>> getOffers(String correlationId) {
-		return Optional.ofNullable(offersByCorrelationId.get(correlationId));
+		return getNow(correlationId, entry -> entry.offers);
 	}
 
 	/**
-	 * Stores review result for a process instance.
+	 * Returns a future that completes once offers are stored for a process instance.
+	 *
+	 * @param correlationId correlation id
+	 * @return future completed with the offers list
+	 */
+	public CompletableFuture<List<Offer>> offersFuture(String correlationId) {
+		return future(correlationId, entry -> entry.offers);
+	}
+
+	/**
+	 * Stores review result for a process instance and wakes up all waiters.
 	 *
 	 * @param correlationId correlation id
 	 * @param result        review result
 	 */
 	public void storeReviewResult(String correlationId, ReviewResult result) {
-		reviewByCorrelationId.put(correlationId, result);
+		complete(correlationId, result, entry -> entry.review, (entry, future) -> entry.review = future);
 	}
 
 	/**
@@ -57,7 +189,17 @@ public class ProcessStateStore {
 	 * @return review result
 	 */
 	public Optional<ReviewResult> getReviewResult(String correlationId) {
-		return Optional.ofNullable(reviewByCorrelationId.get(correlationId));
+		return getNow(correlationId, entry -> entry.review);
+	}
+
+	/**
+	 * Returns a future that completes once a review result is stored for a process instance.
+	 *
+	 * @param correlationId correlation id
+	 * @return future completed with the review result
+	 */
+	public CompletableFuture<ReviewResult> reviewResultFuture(String correlationId) {
+		return future(correlationId, entry -> entry.review);
 	}
 
 	/**
@@ -68,15 +210,7 @@ public class ProcessStateStore {
 	 * @return offers list if available
 	 */
 	public Optional<List<Offer>> awaitOffers(String correlationId, Duration timeout) {
-		Instant deadline = Instant.now().plus(timeout);
-		while (Instant.now().isBefore(deadline)) {
-			Optional<List<Offer>> offers = getOffers(correlationId);
-			if (offers.isPresent()) {
-				return offers;
-			}
-			sleep();
-		}
-		return Optional.empty();
+		return await(register(correlationId, entry -> entry.offers), timeout);
 	}
 
 	/**
@@ -87,22 +221,299 @@ public class ProcessStateStore {
 	 * @return review result if available
 	 */
 	public Optional<ReviewResult> awaitReviewResult(String correlationId, Duration timeout) {
-		Instant deadline = Instant.now().plus(timeout);
-		while (Instant.now().isBefore(deadline)) {
-			Optional<ReviewResult> result = getReviewResult(correlationId);
-			if (result.isPresent()) {
-				return result;
+		return await(register(correlationId, entry -> entry.review), timeout);
+	}
+
+	/**
+	 * Waits for offers without blocking the caller.
+	 *
+	 * @param correlationId correlation id
+	 * @param timeout       timeout duration
+	 * @return future completed with the offers list, or empty once the timeout elapsed
+	 */
+	public CompletableFuture<Optional<List<Offer>>> awaitOffersAsync(String correlationId, Duration timeout) {
+		return awaitAsync(register(correlationId, entry -> entry.offers), timeout);
+	}
+
+	/**
+	 * Waits for a review result without blocking the caller.
+	 *
+	 * @param correlationId correlation id
+	 * @param timeout       timeout duration
+	 * @return future completed with the review result, or empty once the timeout elapsed
+	 */
+	public CompletableFuture<Optional<ReviewResult>> awaitReviewResultAsync(String correlationId, Duration timeout) {
+		return awaitAsync(register(correlationId, entry -> entry.review), timeout);
+	}
+
+	/**
+	 * Returns the current store counters.
+	 *
+	 * @return counters snapshot
+	 */
+	public Stats stats() {
+		int size;
+		synchronized (entries) {
+			size = entries.size();
+		}
+		return new Stats(size, hits.sum(), misses.sum(), evictions.sum(), retainedBytes.get(),
+				waiters.get(), duplicateWaits.sum());
+	}
+
+	private <T> void complete(
+			String correlationId,
+			T value,
+			Function<Entry, CompletableFuture<T>> getter,
+			BiConsumer<Entry, CompletableFuture<T>> setter
+	) {
+		CompletableFuture<T> future;
+		synchronized (entries) {
+			long now = System.nanoTime();
+			Entry entry = liveEntry(correlationId, now);
+			if (entry == null) {
+				entry = new Entry(correlationId);
+				retainedBytes.addAndGet(entry.estimatedBytes);
+			} else {
+				// Re-insert so that the write order of the map matches the TTL order.
+				entries.remove(correlationId);
+			}
+			entry.touch(now);
+			entries.put(correlationId, entry);
+
+			future = getter.apply(entry);
+			if (future.isDone()) {
+				// A result was stored before (e.g. a retried job); the latest value wins for later readers.
+				future = new CompletableFuture<>();
+				setter.accept(entry, future);
+			}
+			long before = entry.estimatedBytes;
+			entry.account(value);
+			retainedBytes.addAndGet(entry.estimatedBytes - before);
+
+			evictOverflow(now);
+		}
+		future.complete(value);
+	}
+
+	private <T> Optional<T> getNow(String correlationId, Function<Entry, CompletableFuture<T>> getter) {
+		CompletableFuture<T> future;
+		synchronized (entries) {
+			long now = System.nanoTime();
+			Entry entry = liveEntry(correlationId, now);
+			future = entry != null ? getter.apply(entry) : null;
+			if (entry != null && expireAfter == ExpireAfter.ACCESS) {
+				entry.touch(now);
+			}
+		}
+		if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+			misses.increment();
+			return Optional.empty();
+		}
+		hits.increment();
+		return Optional.ofNullable(future.join());
+	}
+
+	private <T> CompletableFuture<T> future(String correlationId, Function<Entry, CompletableFuture<T>> getter) {
+		return lookup(correlationId, getter, false).future();
+	}
+
+	/**
+	 * Looks up the shared future for the key and, if it is still pending, registers the caller as waiter.
+	 */
+	private <T> Registration<T> register(String correlationId, Function<Entry, CompletableFuture<T>> getter) {
+		return lookup(correlationId, getter, true);
+	}
+
+	private <T> Registration<T> lookup(String correlationId, Function<Entry, CompletableFuture<T>> getter, boolean wait) {
+		CompletableFuture<T> future;
+		Entry waitingOn = null;
+		synchronized (entries) {
+			long now = System.nanoTime();
+			Entry entry = liveEntry(correlationId, now);
+			if (entry == null) {
+				entry = new Entry(correlationId);
+				entry.touch(now);
+				entries.put(correlationId, entry);
+				retainedBytes.addAndGet(entry.estimatedBytes);
+				evictOverflow(now);
+			} else if (expireAfter == ExpireAfter.ACCESS) {
+				entry.touch(now);
 			}
-			sleep();
+			future = getter.apply(entry);
+			if (wait && !future.isDone()) {
+				if (entry.waiters > 0) {
+					duplicateWaits.increment();
+				}
+				entry.waiters++;
+				waiters.incrementAndGet();
+				waitingOn = entry;
+			}
+		}
+		if (future.isDone()) {
+			hits.increment();
+		} else {
+			misses.increment();
 		}
-		return Optional.empty();
+		return new Registration<>(future, waitingOn);
 	}
 
-	private void sleep() {
+	private void release(Registration<?> registration) {
+		if (registration.waitingOn() == null) {
+			return;
+		}
+		synchronized (entries) {
+			registration.waitingOn().waiters--;
+		}
+		waiters.decrementAndGet();
+	}
+
+	/**
+	 * Returns the entry for the key unless it has expired; expired entries are removed.
+	 * Must be called while holding the lock on {@link #entries}.
+	 */
+	private Entry liveEntry(String correlationId, long now) {
+		Entry entry = entries.get(correlationId);
+		if (entry != null && entry.isExpired(now, ttlNanos)) {
+			entries.remove(correlationId);
+			evicted(entry);
+			return null;
+		}
+		return entry;
+	}
+
+	/**
+	 * Removes expired entries from the head of the map and the eldest entries beyond the size bound.
+	 * The map is ordered by write (or access) time, so expired entries are always at the head.
+	 * Entries that callers are still waiting on are not evicted for size: a later store would create
+	 * a fresh entry and the waiters would only see their timeout. They stay until their result is
+	 * stored or they expire, so the map may exceed {@code max-entries} by the number of waited-for
+	 * journeys. Must be called while holding the lock on {@link #entries}.
+	 */
+	private void evictOverflow(long now) {
+		Iterator<Entry> it = entries.values().iterator();
+		while (it.hasNext()) {
+			Entry eldest = it.next();
+			if (!eldest.isExpired(now, ttlNanos)) {
+				if (entries.size() <= maxEntries) {
+					break;
+				}
+				if (eldest.hasWaiters()) {
+					continue;
+				}
+			}
+			it.remove();
+			evicted(eldest);
+		}
+	}
+
+	/**
+	 * Accounts for a removed entry. Callers still waiting on an expired entry are completed
+	 * exceptionally, so they see an empty result right away.
+	 */
+	private void evicted(Entry entry) {
+		evictions.increment();
+		retainedBytes.addAndGet(-entry.estimatedBytes);
+		entry.abandon();
+	}
+
+	private <T> Optional<T> await(Registration<T> registration, Duration timeout) {
 		try {
-			Thread.sleep(150);
+			return Optional.ofNullable(registration.future().get(timeout.toMillis(), TimeUnit.MILLISECONDS));
 		} catch (InterruptedException ie) {
 			Thread.currentThread().interrupt();
+			return Optional.empty();
+		} catch (TimeoutException | ExecutionException e) {
+			return Optional.empty();
+		} finally {
+			release(registration);
+		}
+	}
+
+	private <T> CompletableFuture<Optional<T>> awaitAsync(Registration<T> registration, Duration timeout) {
+		// Work on a dependent stage so the timeout never completes the shared registry future.
+		return registration.future()
+				.thenApply(Optional::ofNullable)
+				.completeOnTimeout(Optional.empty(), timeout.toMillis(), TimeUnit.MILLISECONDS)
+				.exceptionally(e -> Optional.empty())
+				.whenComplete((result, e) -> release(registration));
+	}
+
+	/**
+	 * Shared future of a correlation id plus the entry the caller waits on, if it had to wait.
+	 */
+	private record Registration<T>(CompletableFuture<T> future, Entry waitingOn) {
+	}
+
+	/**
+	 * Offers and review result of one credit journey. Guarded by the lock on {@link #entries}.
+	 */
+	private static final class Entry {
+		private CompletableFuture<List<Offer>> offers = new CompletableFuture<>();
+		private CompletableFuture<ReviewResult> review = new CompletableFuture<>();
+		private long touchedAt;
+		private long estimatedBytes;
+		private long offersBytes;
+		private long reviewBytes;
+		private int waiters;
+
+		private Entry(String correlationId) {
+			this.estimatedBytes = ENTRY_OVERHEAD_BYTES + stringBytes(correlationId);
+		}
+
+		private void touch(long now) {
+			this.touchedAt = now;
+		}
+
+		private boolean isExpired(long now, long ttlNanos) {
+			return now - touchedAt > ttlNanos;
+		}
+
+		/**
+		 * Whether a caller waits on a result that is not stored yet.
+		 */
+		private boolean hasWaiters() {
+			return isPending(offers) || isPending(review);
+		}
+
+		/**
+		 * Fails pending results outside the caller's lock, so waiter callbacks never run under it.
+		 */
+		private void abandon() {
+			if (offers.isDone() && review.isDone()) {
+				return;
+			}
+			CompletableFuture<List<Offer>> pendingOffers = offers;
+			CompletableFuture<ReviewResult> pendingReview = review;
+			CompletableFuture.runAsync(() -> {
+				pendingOffers.completeExceptionally(new IllegalStateException("Entry evicted before offers were stored"));
+				pendingReview.completeExceptionally(new IllegalStateException("Entry evicted before a review result was stored"));
+			});
+		}
+
+		private static boolean isPending(CompletableFuture<?> future) {
+			return !future.isDone() && future.getNumberOfDependents() > 0;
+		}
+
+		private void account(Object value) {
+			if (value instanceof List<?> list) {
+				long bytes = 0;
+				for (Object o : list) {
+					bytes += LIST_SLOT_BYTES + OFFER_BYTES
+							+ (o instanceof Offer offer ? stringBytes(offer.getBankName()) : 0);
+				}
+				estimatedBytes += bytes - offersBytes;
+				offersBytes = bytes;
+			} else if (value instanceof ReviewResult result) {
+				long bytes = REVIEW_RESULT_BYTES
+						+ stringBytes(result.getContractNumber())
+						+ stringBytes(result.getRejectionReason());
+				estimatedBytes += bytes - reviewBytes;
+				reviewBytes = bytes;
+			}
+		}
+
+		private static long stringBytes(String s) {
+			return s == null ? 0 : STRING_OVERHEAD_BYTES + s.length();
 		}
 	}
 }
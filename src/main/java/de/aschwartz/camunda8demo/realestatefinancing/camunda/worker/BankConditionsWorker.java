@@ -1,65 +1,52 @@
 package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
 
+import de.aschwartz.camunda8demo.realestatefinancing.config.ComparisonProperties;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.credit.BankRateEngine;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.credit.BankRegistry;
 import io.camunda.zeebe.client.api.response.ActivatedJob;
 import io.camunda.zeebe.spring.client.annotation.JobWorker;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.Map;
 
 /**
- * Job workers that calculate interest rates for the demo banks.
+ * Job worker that calculates the interest rate of one bank.
+ * <p>
+ * The comparison process runs this task as parallel multi-instance over {@code bankIds}; the bank
+ * definitions are configured under {@code camunda8demo.comparison.banks}.
  */
 @Component
-@Slf4j
 public class BankConditionsWorker {
 
-	@JobWorker(type = "request-conditions-bank-a")
-	public Map<String, Object> handleBankA(final ActivatedJob job) {
-		Map<String, Object> variables = job.getVariablesAsMap();
-		BigDecimal interestRate = calculateInterestRate(variables, new BigDecimal("3.10"));
-		return Map.of("interestRateA", interestRate);
-	}
+	private final BankRegistry bankRegistry;
+	private final BankRateEngine bankRateEngine;
 
-	@JobWorker(type = "request-conditions-bank-b")
-	public Map<String, Object> handleBankB(final ActivatedJob job) {
-		Map<String, Object> variables = job.getVariablesAsMap();
-		BigDecimal interestRate = calculateInterestRate(variables, new BigDecimal("3.40"));
-		return Map.of("interestRateB", interestRate);
+	public BankConditionsWorker(BankRegistry bankRegistry, BankRateEngine bankRateEngine) {
+		this.bankRegistry = bankRegistry;
+		this.bankRateEngine = bankRateEngine;
 	}
 
-	@JobWorker(type = "request-conditions-bank-c")
-	public Map<String, Object> handleBankC(final ActivatedJob job) {
-		Map<String, Object> variables = job.getVariablesAsMap();
-		BigDecimal interestRate = calculateInterestRate(variables, new BigDecimal("3.25"));
-		return Map.of("interestRateC", interestRate);
+	@JobWorker(type = "request-bank-conditions", streamEnabled = true,
+			fetchVariables = {"bankId", "monthlyNetIncome", "propertyValue", "equity"})
+	public Map<String, Object> handle(final ActivatedJob job) {
+		JobVariables variables = JobVariables.read(job, "bankId", "monthlyNetIncome", "propertyValue", "equity");
+		String bankId = variables.getString("bankId");
+		ComparisonProperties.Bank bank = bankRegistry.get(bankId);
+
+		BigDecimal interestRate = calculateInterestRate(variables, bankId);
+		return Map.of("bankCondition", Map.of(
+				"bankId", bankId,
+				"bankName", bank.getName(),
+				"interestRate", interestRate
+		));
 	}
 
-	private BigDecimal calculateInterestRate(Map<String, Object> variables, BigDecimal baseRate) {
-		BigDecimal monthlyNetIncome = de.aschwartz.camunda8demo.realestatefinancing.camunda.worker.VariableMapper.getBigDecimal(variables, "monthlyNetIncome");
-		BigDecimal propertyValue = de.aschwartz.camunda8demo.realestatefinancing.camunda.worker.VariableMapper.getBigDecimal(variables, "propertyValue");
-		BigDecimal equity = de.aschwartz.camunda8demo.realestatefinancing.camunda.worker.VariableMapper.getBigDecimal(variables, "equity");
-
-		BigDecimal equityRatio =
-				(propertyValue != null && propertyValue.signum() > 0 && equity != null)
-						? equity.divide(propertyValue, 6, RoundingMode.HALF_UP)
-						: BigDecimal.ZERO;
-
-		BigDecimal equityDiscount = equityRatio.multiply(new BigDecimal("1.20"));
-		BigDecimal incomeBonus =
-				(monthlyNetIncome != null && monthlyNetIncome.compareTo(new BigDecimal("4000")) >= 0)
-						? new BigDecimal("0.20")
-						: BigDecimal.ZERO;
-
-		BigDecimal rate = baseRate
-				.subtract(equityDiscount)
-				.subtract(incomeBonus)
-				.max(new BigDecimal("1.10"))
-				.setScale(2, RoundingMode.HALF_UP);
+	private BigDecimal calculateInterestRate(JobVariables variables, String bankId) {
+		BigDecimal monthlyNetIncome = variables.getBigDecimal("monthlyNetIncome");
+		BigDecimal propertyValue = variables.getBigDecimal("propertyValue");
+		BigDecimal equity = variables.getBigDecimal("equity");
 
-		log.info("Calculated interest rate {} for base {}", rate, baseRate);
-		return rate;
+		return bankRateEngine.interestRate(bankId, bankRateEngine.input(monthlyNetIncome, propertyValue, equity));
 	}
 }
@@ -7,12 +7,12 @@ import io.camunda.zeebe.spring.client.annotation.JobWorker;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Aggregates interest rates into a list of offers.
+ * Aggregates the interest rates of all banks into a list of offers.
  */
 @Component
 @Slf4j
@@ -24,21 +24,13 @@ public class CollectResultsWorker {
 		this.processStateStore = processStateStore;
 	}
 
-	@JobWorker(type = "collect-results")
+	@JobWorker(type = "collect-results", fetchVariables = {"bankConditions", "correlationId"})
 	public Map<String, Object> handle(final ActivatedJob job) {
-		Map<String, Object> variables = job.getVariablesAsMap();
+		JobVariables variables = JobVariables.read(job, "bankConditions", "correlationId");
 
-		BigDecimal interestRateA = VariableMapper.getBigDecimal(variables, "interestRateA");
-		BigDecimal interestRateB = VariableMapper.getBigDecimal(variables, "interestRateB");
-		BigDecimal interestRateC = VariableMapper.getBigDecimal(variables, "interestRateC");
+		List<Offer> offers = toOffers(variables.get("bankConditions"));
 
-		List<Offer> offers = List.of(
-				new Offer("Hyperbank", interestRateA),
-				new Offer("Bank of Scottsdale", interestRateB),
-				new Offer("Equity Bank", interestRateC)
-		);
-
-		String correlationId = VariableMapper.getString(variables, "correlationId");
+		String correlationId = variables.getString("correlationId");
 		if (correlationId != null) {
 			processStateStore.storeOffers(correlationId, offers);
 		} else {
@@ -47,4 +39,25 @@ public class CollectResultsWorker {
 
 		return Map.of("creditOffers", offers);
 	}
+
+	/**
+	 * Maps the multi-instance output collection ({@code bankId}, {@code bankName},
+	 * {@code interestRate} per bank) to offers, keeping the bank order.
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<Offer> toOffers(Object bankConditions) {
+		if (!(bankConditions instanceof List<?> conditions)) {
+			throw new IllegalStateException("Process variable 'bankConditions' must be a list");
+		}
+		List<Offer> offers = new ArrayList<>(conditions.size());
+		for (Object condition : conditions) {
+			if (condition instanceof Map<?, ?> map) {
+				Map<String, Object> values = (Map<String, Object>) map;
+				offers.add(new Offer(
+						VariableMapper.getString(values, "bankName"),
+						VariableMapper.getBigDecimal(values, "interestRate")));
+			}
+		}
+		return offers;
+	}
 }
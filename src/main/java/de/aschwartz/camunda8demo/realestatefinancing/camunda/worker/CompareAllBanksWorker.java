@@ -0,0 +1,79 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
+
+import de.aschwartz.camunda8demo.realestatefinancing.camunda.store.ProcessStateStore;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.credit.BankRateEngine;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.credit.BankRegistry;
+import de.aschwartz.camunda8demo.realestatefinancing.model.Offer;
+import io.camunda.zeebe.client.api.response.ActivatedJob;
+import io.camunda.zeebe.spring.client.annotation.JobWorker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calculates the conditions of all banks and builds the offers in a single job
+ * ({@code camunda8demo.comparison.mode: fast}).
+ * <p>
+ * Replaces the per-bank jobs and {@code collect-results} of the multi-instance comparison: the offers
+ * are stored in the {@link ProcessStateStore} as soon as this one job is handled, before it is even
+ * completed.
+ */
+@Component
+@Slf4j
+public class CompareAllBanksWorker {
+
+	private final BankRegistry bankRegistry;
+	private final BankRateEngine bankRateEngine;
+	private final ProcessStateStore processStateStore;
+
+	public CompareAllBanksWorker(
+			BankRegistry bankRegistry,
+			BankRateEngine bankRateEngine,
+			ProcessStateStore processStateStore
+	) {
+		this.bankRegistry = bankRegistry;
+		this.bankRateEngine = bankRateEngine;
+		this.processStateStore = processStateStore;
+	}
+
+	@JobWorker(type = "compare-all-banks",
+			fetchVariables = {"monthlyNetIncome", "propertyValue", "equity", "bankIds", "correlationId"})
+	public Map<String, Object> handle(final ActivatedJob job) {
+		JobVariables variables = JobVariables.read(job,
+				"monthlyNetIncome", "propertyValue", "equity", "bankIds", "correlationId");
+		BigDecimal monthlyNetIncome = variables.getBigDecimal("monthlyNetIncome");
+		BigDecimal propertyValue = variables.getBigDecimal("propertyValue");
+		BigDecimal equity = variables.getBigDecimal("equity");
+
+		BankRateEngine.RateInput input = bankRateEngine.input(monthlyNetIncome, propertyValue, equity);
+		List<String> bankIds = bankIds(variables.get("bankIds"));
+
+		List<Offer> offers = new ArrayList<>(bankIds.size());
+		for (String bankId : bankIds) {
+			offers.add(new Offer(bankRegistry.get(bankId).getName(), bankRateEngine.interestRate(bankId, input)));
+		}
+
+		String correlationId = variables.getString("correlationId");
+		if (correlationId != null) {
+			processStateStore.storeOffers(correlationId, offers);
+		} else {
+			log.warn("No correlationId available for offer caching.");
+		}
+
+		return Map.of("creditOffers", offers);
+	}
+
+	/**
+	 * Uses the bank ids passed by the application, falling back to all registered banks.
+	 */
+	private List<String> bankIds(Object rawBankIds) {
+		if (rawBankIds instanceof List<?> ids) {
+			return ids.stream().map(String::valueOf).toList();
+		}
+		return bankRegistry.bankIds();
+	}
+}
@@ -0,0 +1,86 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
+
+import de.aschwartz.camunda8demo.realestatefinancing.logic.contract.ContractBatchService;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.offer.OfferStore;
+import de.aschwartz.camunda8demo.realestatefinancing.model.ContractOffer;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.response.ActivatedJob;
+import io.camunda.zeebe.spring.client.annotation.JobWorker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates PDF contracts for a list of offers in one job, e.g. for month-end re-issues.
+ * <p>
+ * Expects the offers in the variable {@code offers} ({@link ContractOffer} projections or bare
+ * references, resolved through the {@link OfferStore} like in {@link CreateContractPdfWorker}) and
+ * returns the content-addressed ids as {@code contractIds} (same order). While running,
+ * {@code contractBatchProgress} is updated with the number of stored contracts; it is set on the
+ * element instance of the job, because the job client can only complete, fail or throw.
+ */
+@Component
+@Slf4j
+public class CreateContractPdfBatchWorker {
+
+	private final OfferStore offerStore;
+	private final ContractBatchService contractBatchService;
+	private final ZeebeClient zeebeClient;
+
+	public CreateContractPdfBatchWorker(
+			OfferStore offerStore,
+			ContractBatchService contractBatchService,
+			ZeebeClient zeebeClient
+	) {
+		this.offerStore = offerStore;
+		this.contractBatchService = contractBatchService;
+		this.zeebeClient = zeebeClient;
+	}
+
+	@JobWorker(type = "create-contract-pdf-batch", timeout = 1_800_000, fetchVariables = "offers")
+	public Map<String, Object> handle(final ActivatedJob job) {
+		if (!(JobVariables.read(job, "offers").get("offers") instanceof List<?> rawOffers)) {
+			throw new IllegalStateException("Process variable 'offers' must be a list");
+		}
+
+		List<OffersResponse.Angebot> offers = new ArrayList<>(rawOffers.size());
+		try {
+			for (Object rawOffer : rawOffers) {
+				offers.add(offerStore.resolve(rawOffer));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to load offers for job " + job.getKey(), e);
+		}
+		log.info("Creating {} contract PDFs for job {}", offers.size(), job.getKey());
+
+		List<String> contractIds;
+		try {
+			contractIds = contractBatchService.createContracts(
+					offers,
+					LocalDate.now(),
+					done -> reportProgress(job, done, offers.size()));
+		} catch (IOException e) {
+			throw new RuntimeException("Failed to generate contract PDFs for job " + job.getKey(), e);
+		}
+
+		log.info("Created {} contract PDFs for job {}", contractIds.size(), job.getKey());
+		return Map.of("contractIds", contractIds);
+	}
+
+	private void reportProgress(ActivatedJob job, int done, int total) {
+		zeebeClient.newSetVariablesCommand(job.getElementInstanceKey())
+				.variables(Map.of("contractBatchProgress", Map.of("done", done, "total", total)))
+				.send()
+				.exceptionally(e -> {
+					log.warn("Could not report progress for job {}: {}", job.getKey(), e.getMessage());
+					return null;
+				});
+	}
+}
@@ -1,18 +1,21 @@
 package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
 
+import de.aschwartz.camunda8demo.realestatefinancing.logic.offer.CheapestOfferService;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.offer.OfferStore;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.offer.OffersUnavailableException;
+import de.aschwartz.camunda8demo.realestatefinancing.model.ContractOffer;
 import de.aschwartz.camunda8demo.realestatefinancing.model.OffersRequest;
-import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
 import io.camunda.zeebe.client.api.response.ActivatedJob;
+import io.camunda.zeebe.client.api.worker.JobClient;
 import io.camunda.zeebe.spring.client.annotation.JobWorker;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.Comparator;
 import java.util.Map;
 
 /**
@@ -22,24 +25,32 @@ import java.util.Map;
 @Slf4j
 public class GetCheapestOfferWorker {
 
-	private final WebClient webClient;
-	private final String baseUrl;
-	private final String apiPath;
+	/**
+	 * Lower bound for the backoff of jobs failed without decrementing their retries.
+	 */
+	private static final Duration MIN_UNAVAILABLE_BACKOFF = Duration.ofSeconds(1);
 
-	public GetCheapestOfferWorker(
-			WebClient.Builder webClientBuilder,
-			@Value("${camunda8demo.auto-credit.base-url}") String baseUrl,
-			@Value("${camunda8demo.auto-credit.api-path}") String apiPath) {
-		this.webClient = webClientBuilder.baseUrl(baseUrl).build();
-		this.baseUrl = baseUrl;
-		this.apiPath = apiPath;
+	private final CheapestOfferService cheapestOfferService;
+	private final OfferStore offerStore;
+
+	public GetCheapestOfferWorker(CheapestOfferService cheapestOfferService, OfferStore offerStore) {
+		this.cheapestOfferService = cheapestOfferService;
+		this.offerStore = offerStore;
 	}
 
-	@JobWorker(type = "get-cheapest-offer", timeout = 120_000)
-	public Map<String, Object> handle(final ActivatedJob job) {
-		Map<String, Object> variables = job.getVariablesAsMap();
-		BigDecimal propertyValue = de.aschwartz.camunda8demo.realestatefinancing.camunda.worker.VariableMapper.getBigDecimal(variables, "propertyValue");
-		BigDecimal equity = de.aschwartz.camunda8demo.realestatefinancing.camunda.worker.VariableMapper.getBigDecimal(variables, "equity");
+	/**
+	 * Looks up the cheapest offer without blocking the job worker thread: the job is completed
+	 * (or failed) from the response callback once the offers API answered.
+	 *
+	 * @param client job client used to complete or fail the job
+	 * @param job    activated job
+	 */
+	@JobWorker(type = "get-cheapest-offer", timeout = 120_000, autoComplete = false,
+			fetchVariables = {"propertyValue", "equity"})
+	public void handle(final JobClient client, final ActivatedJob job) {
+		JobVariables variables = JobVariables.read(job, "propertyValue", "equity");
+		BigDecimal propertyValue = variables.getBigDecimal("propertyValue");
+		BigDecimal equity = variables.getBigDecimal("equity");
 
 		BigDecimal kreditbetrag = propertyValue.subtract(equity);
 
@@ -60,37 +71,51 @@ public class GetCheapestOfferWorker {
 						.build())
 				.build();
 
-		OffersResponse response;
-		try {
-			response = webClient
-					.post()
-					.uri(apiPath)
-					.contentType(MediaType.APPLICATION_JSON)
-					.accept(MediaType.APPLICATION_JSON)
-					.bodyValue(request)
-					.retrieve()
-					.bodyToMono(OffersResponse.class)
-					.block();
-		} catch (Exception e) {
-			throw new RuntimeException("API not available: %s".formatted(baseUrl), e);
-		}
-
-		if (response == null || response.getAngebote() == null || response.getAngebote().isEmpty()) {
-			throw new IllegalStateException("No offers returned from %s".formatted(baseUrl));
-		}
-
-		OffersResponse.Angebot cheapestOffer =
-				response.getAngebote().stream()
-						.filter(a -> a.getKondition() != null && a.getKondition().getMonatlicheRate() != null)
-						.min(Comparator.comparing(a -> a.getKondition().getMonatlicheRate()))
-						.orElseThrow();
+		cheapestOfferService.findCheapestOffer(request)
+				// The full offer goes to the offer store, the process only gets the contract projection.
+				.flatMap(offer -> Mono.fromCallable(() -> offerStore.store(offer))
+						.subscribeOn(Schedulers.boundedElastic()))
+				.subscribe(
+						cheapestOffer -> complete(client, job, cheapestOffer),
+						e -> fail(client, job, e));
+	}
 
-		log.info(
-				"Cheapest offer: vermittler={}, anbieter={}, rate={}",
-				cheapestOffer.getVermittler(),
-				cheapestOffer.getAnbieter() != null ? cheapestOffer.getAnbieter().getName() : "n/a",
-				cheapestOffer.getKondition().getMonatlicheRate());
+	private void complete(JobClient client, ActivatedJob job, ContractOffer cheapestOffer) {
+		client.newCompleteCommand(job.getKey())
+				.variables(Map.of("cheapestOffer", cheapestOffer))
+				.send()
+				.exceptionally(e -> {
+					log.error("Could not complete job {}", job.getKey(), e);
+					return null;
+				});
+	}
 
-		return Map.of("cheapestOffer", cheapestOffer);
+	private void fail(JobClient client, ActivatedJob job, Throwable error) {
+		log.warn("Offer lookup for job {} failed: {}", job.getKey(), error.getMessage());
+		if (error instanceof OffersUnavailableException unavailable) {
+			// Providers are shedding load: back off without burning a retry. The backoff must not be
+			// zero, otherwise the job is re-activated immediately and never runs out of retries.
+			Duration backoff = unavailable.getRetryBackoff();
+			client.newFailCommand(job.getKey())
+					.retries(job.getRetries())
+					.retryBackoff(backoff != null && backoff.compareTo(MIN_UNAVAILABLE_BACKOFF) > 0
+							? backoff
+							: MIN_UNAVAILABLE_BACKOFF)
+					.errorMessage(error.getMessage())
+					.send()
+					.exceptionally(e -> {
+						log.error("Could not fail job {}", job.getKey(), e);
+						return null;
+					});
+			return;
+		}
+		client.newFailCommand(job.getKey())
+				.retries(Math.max(job.getRetries() - 1, 0))
+				.errorMessage(error.getMessage())
+				.send()
+				.exceptionally(e -> {
+					log.error("Could not fail job {}", job.getKey(), e);
+					return null;
+				});
 	}
 }
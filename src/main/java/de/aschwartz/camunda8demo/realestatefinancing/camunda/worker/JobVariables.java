@@ -0,0 +1,166 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.camunda.zeebe.client.api.response.ActivatedJob;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Typed access to selected variables of a job.
+ * <p>
+ * Reads the job's variable document with a streaming parser and keeps only the requested top-level
+ * keys; all other values are skipped without being materialized, and parsing stops once every
+ * requested key was found. Numbers are read from their JSON text straight into {@link BigDecimal}.
+ * Objects and lists are returned as maps and lists, as from {@link ActivatedJob#getVariablesAsMap()}.
+ * <p>
+ * The size of each job's variable document is recorded per job type as
+ * {@code zeebe.job.variables.size}; it shrinks with the {@code fetchVariables} of the workers.
+ */
+public final class JobVariables {
+
+	private static final ObjectMapper MAPPER = JsonMapper.builder()
+			.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+			.build();
+
+	private static final ConcurrentMap<String, DistributionSummary> PAYLOAD_SIZES = new ConcurrentHashMap<>();
+
+	private final String[] keys;
+	private final Object[] values;
+
+	private JobVariables(String[] keys, Object[] values) {
+		this.keys = keys;
+		this.values = values;
+	}
+
+	/**
+	 * Reads the given variables of a job.
+	 *
+	 * @param job  activated job
+	 * @param keys variable names
+	 * @return variables
+	 */
+	public static JobVariables read(ActivatedJob job, String... keys) {
+		String json = job.getVariables();
+		PAYLOAD_SIZES.computeIfAbsent(job.getType(), type -> DistributionSummary.builder("zeebe.job.variables.size")
+						.description("Size of the variables activated with a job")
+						.baseUnit("bytes")
+						.tag("type", type)
+						.register(Metrics.globalRegistry))
+				.record(utf8Length(json));
+		return read(json, keys);
+	}
+
+	/**
+	 * Reads the given variables from a JSON variable document.
+	 *
+	 * @param json variables as JSON object
+	 * @param keys variable names
+	 * @return variables
+	 */
+	public static JobVariables read(String json, String... keys) {
+		Object[] values = new Object[keys.length];
+		try (JsonParser parser = MAPPER.createParser(json)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new IllegalArgumentException("Job variables are not a JSON object");
+			}
+			int found = 0;
+			while (found < keys.length && parser.nextToken() == JsonToken.FIELD_NAME) {
+				int index = indexOf(keys, parser.currentName());
+				JsonToken token = parser.nextToken();
+				if (index < 0) {
+					parser.skipChildren();
+				} else {
+					values[index] = value(parser, token);
+					found++;
+				}
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Job variables could not be parsed: " + e.getMessage(), e);
+		}
+		return new JobVariables(keys, values);
+	}
+
+	/**
+	 * Returns a variable as {@link BigDecimal}.
+	 *
+	 * @param key variable name
+	 * @return value or {@code null}
+	 */
+	public BigDecimal getBigDecimal(String key) {
+		Object value = get(key);
+		if (value == null || value instanceof BigDecimal) return (BigDecimal) value;
+		if (value instanceof Number n) return VariableMapper.toBigDecimal(n);
+		if (value instanceof String s) return VariableMapper.parseBigDecimal(s);
+
+		throw new IllegalArgumentException("Variable '" + key + "' has unsupported type: " + value.getClass());
+	}
+
+	/**
+	 * Returns a variable as string.
+	 *
+	 * @param key variable name
+	 * @return value or {@code null}
+	 */
+	public String getString(String key) {
+		Object value = get(key);
+		return value != null ? value.toString() : null;
+	}
+
+	/**
+	 * Returns a variable as read: {@link BigDecimal}, {@link String}, {@link Boolean}, map or list.
+	 *
+	 * @param key variable name
+	 * @return value or {@code null} if the variable is missing or {@code null}
+	 * @throws IllegalArgumentException if the variable was not requested
+	 */
+	public Object get(String key) {
+		int index = indexOf(keys, key);
+		if (index < 0) {
+			throw new IllegalArgumentException("Variable '" + key + "' was not read");
+		}
+		return values[index];
+	}
+
+	private static Object value(JsonParser parser, JsonToken token) throws IOException {
+		return switch (token) {
+			case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDecimalValue();
+			case VALUE_STRING -> parser.getText();
+			case VALUE_TRUE -> Boolean.TRUE;
+			case VALUE_FALSE -> Boolean.FALSE;
+			case VALUE_NULL -> null;
+			default -> MAPPER.readValue(parser, Object.class);
+		};
+	}
+
+	private static long utf8Length(String s) {
+		long length = s.length();
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c >= 0x800) {
+				// 3 bytes, or 4 bytes per surrogate pair (2 chars)
+				length += Character.isSurrogate(c) ? 1 : 2;
+			} else if (c >= 0x80) {
+				length++;
+			}
+		}
+		return length;
+	}
+
+	private static int indexOf(String[] keys, String key) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i].equals(key)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
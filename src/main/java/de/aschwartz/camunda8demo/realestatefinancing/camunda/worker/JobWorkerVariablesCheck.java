@@ -0,0 +1,203 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
+
+import io.camunda.zeebe.spring.client.annotation.JobWorker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Checks at startup that the job workers only fetch the variables they read.
+ * <p>
+ * Every job type of the BPMN models under {@code processes/} must have a worker that declares
+ * {@code fetchVariables}; without it the broker sends the whole process payload (offers, the
+ * {@code cheapestOffer} object graph, ...) with each job. A worker that fetches a local variable
+ * another task sets to {@code null} ({@code bankCondition}) or misses a multi-instance input element
+ * it depends on is reported as well. Fails startup if {@code camunda8demo.job-workers.check-variables}
+ * is {@code fail}, only logs if it is {@code warn}.
+ */
+@Component
+@Slf4j
+public class JobWorkerVariablesCheck implements SmartInitializingSingleton {
+
+	private static final String BPMN_LOCATION = "classpath*:processes/**/*.bpmn";
+
+	private final ApplicationContext applicationContext;
+	private final String mode;
+
+	public JobWorkerVariablesCheck(
+			ApplicationContext applicationContext,
+			@Value("${camunda8demo.job-workers.check-variables:fail}") String mode
+	) {
+		this.applicationContext = applicationContext;
+		this.mode = mode;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		if ("off".equals(mode)) {
+			return;
+		}
+
+		List<Class<?>> beanClasses = applicationContext.getBeansWithAnnotation(Component.class).values().stream()
+				.<Class<?>>map(AopUtils::getTargetClass)
+				.toList();
+		Map<String, List<String>> workers = declaredWorkers(beanClasses);
+		Map<String, BpmnTask> tasks = bpmnTasks(BPMN_LOCATION);
+		List<String> problems = problems(workers, tasks);
+
+		workers.keySet().stream()
+				.filter(type -> !tasks.containsKey(type))
+				.forEach(type -> log.info("Worker '{}' is not used by the bundled process models", type));
+		workers.forEach((type, variables) -> log.debug("Worker '{}' fetches {}", type, variables));
+
+		if (problems.isEmpty()) {
+			log.info("fetchVariables of {} job workers match the process models", workers.size());
+		} else if ("warn".equals(mode)) {
+			problems.forEach(problem -> log.warn("Job worker variables: {}", problem));
+		} else {
+			throw new IllegalStateException("Job worker variables do not match the process models:\n - "
+					+ String.join("\n - ", problems));
+		}
+	}
+
+	/**
+	 * Compares the fetched variables of the workers with the task definitions.
+	 *
+	 * @param workers fetched variables by job type
+	 * @param tasks   tasks by job type
+	 * @return problems, empty if the workers match the tasks
+	 */
+	static List<String> problems(Map<String, List<String>> workers, Map<String, BpmnTask> tasks) {
+		List<String> problems = new ArrayList<>();
+
+		workers.forEach((type, variables) -> {
+			if (variables.isEmpty()) {
+				problems.add("Worker '%s' declares no fetchVariables and receives all process variables".formatted(type));
+			}
+		});
+
+		tasks.forEach((type, task) -> {
+			List<String> variables = workers.get(type);
+			if (variables == null) {
+				problems.add("Job type '%s' of %s has no worker".formatted(type, task.source()));
+				return;
+			}
+			for (String inputElement : task.inputElements()) {
+				if (!variables.contains(inputElement)) {
+					problems.add("Worker '%s' does not fetch the multi-instance input element '%s' of %s"
+							.formatted(type, inputElement, task.source()));
+				}
+			}
+			for (String nulledVariable : task.nulledVariables()) {
+				if (variables.contains(nulledVariable)) {
+					problems.add("Worker '%s' fetches '%s', which %s maps to null"
+							.formatted(type, nulledVariable, task.source()));
+				}
+			}
+		});
+		return problems;
+	}
+
+	/**
+	 * Collects job type and fetched variables of all {@link JobWorker} methods of the given classes.
+	 *
+	 * @param classes worker classes
+	 * @return fetched variables by job type
+	 */
+	static Map<String, List<String>> declaredWorkers(Collection<Class<?>> classes) {
+		Map<String, List<String>> workers = new TreeMap<>();
+		for (Class<?> type : classes) {
+			ReflectionUtils.doWithMethods(type, method -> {
+				JobWorker jobWorker = method.getAnnotation(JobWorker.class);
+				if (jobWorker != null) {
+					workers.put(jobWorker.type(), Arrays.asList(jobWorker.fetchVariables()));
+				}
+			});
+		}
+		return workers;
+	}
+
+	/**
+	 * Reads the service tasks of the BPMN models.
+	 *
+	 * @param location resource pattern of the BPMN models
+	 * @return tasks by job type
+	 */
+	static Map<String, BpmnTask> bpmnTasks(String location) {
+		Map<String, BpmnTask> tasks = new TreeMap<>();
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+			factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+
+			for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location)) {
+				Element root;
+				try (InputStream in = resource.getInputStream()) {
+					root = factory.newDocumentBuilder().parse(in).getDocumentElement();
+				}
+				NodeList definitions = root.getElementsByTagNameNS("*", "taskDefinition");
+				for (int i = 0; i < definitions.getLength(); i++) {
+					Element definition = (Element) definitions.item(i);
+					Element task = (Element) definition.getParentNode().getParentNode();
+					String type = definition.getAttribute("type");
+					BpmnTask bpmnTask = tasks.computeIfAbsent(type, t -> new BpmnTask(
+							"%s#%s".formatted(resource.getFilename(), task.getAttribute("id")),
+							new LinkedHashSet<>(), new LinkedHashSet<>()));
+					collect(task, bpmnTask);
+				}
+			}
+		} catch (Exception e) {
+			throw new IllegalStateException("Process models could not be read from " + location, e);
+		}
+		return tasks;
+	}
+
+	private static void collect(Element task, BpmnTask bpmnTask) {
+		NodeList inputs = task.getElementsByTagNameNS("*", "input");
+		for (int i = 0; i < inputs.getLength(); i++) {
+			Element input = (Element) inputs.item(i);
+			if ("=null".equals(input.getAttribute("source").replace(" ", ""))) {
+				bpmnTask.nulledVariables().add(input.getAttribute("target"));
+			}
+		}
+		NodeList loops = task.getElementsByTagNameNS("*", "loopCharacteristics");
+		for (int i = 0; i < loops.getLength(); i++) {
+			Node loop = loops.item(i);
+			if (loop instanceof Element element && !element.getAttribute("inputElement").isEmpty()) {
+				bpmnTask.inputElements().add(element.getAttribute("inputElement"));
+			}
+		}
+	}
+
+	/**
+	 * Service tasks of one job type.
+	 *
+	 * @param source          first task with this job type, as {@code file#id}
+	 * @param inputElements   multi-instance input elements of the tasks
+	 * @param nulledVariables variables the input mappings of the tasks set to {@code null}
+	 */
+	record BpmnTask(String source, Set<String> inputElements, Set<String> nulledVariables) {
+	}
+}
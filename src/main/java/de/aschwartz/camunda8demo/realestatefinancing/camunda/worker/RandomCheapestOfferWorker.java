@@ -1,9 +1,11 @@
 package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
 
+import de.aschwartz.camunda8demo.realestatefinancing.logic.offer.OfferStore;
 import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
 import io.camunda.zeebe.spring.client.annotation.JobWorker;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
@@ -13,13 +15,23 @@ import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Generates a randomized cheapest offer for the DMN credit flow.
+ * <p>
+ * Like the real lookup, it stores the full offer in the {@link OfferStore} and returns the contract
+ * projection as {@code cheapestOffer}.
  */
 @Component
 public class RandomCheapestOfferWorker {
 
-	@JobWorker(type = "generate-cheapest-offer")
-	public Map<String, Object> handle() {
-		return Map.of("cheapestOffer", createRandomOffer());
+	private final OfferStore offerStore;
+
+	public RandomCheapestOfferWorker(OfferStore offerStore) {
+		this.offerStore = offerStore;
+	}
+
+	// Reads no variables; an empty fetchVariables list would fetch all of them.
+	@JobWorker(type = "generate-cheapest-offer", fetchVariables = "correlationId")
+	public Map<String, Object> handle() throws IOException {
+		return Map.of("cheapestOffer", offerStore.store(createRandomOffer()));
 	}
 
 	private OffersResponse.Angebot createRandomOffer() {
@@ -2,6 +2,8 @@ package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.aschwartz.camunda8demo.realestatefinancing.camunda.store.ProcessStateStore;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.credit.AnnuityCalculator;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.credit.CreditReviewRules;
 import de.aschwartz.camunda8demo.realestatefinancing.model.Offer;
 import de.aschwartz.camunda8demo.realestatefinancing.model.ReviewResult;
 import io.camunda.zeebe.client.api.response.ActivatedJob;
@@ -18,27 +20,43 @@ import java.util.UUID;
 
 /**
  * Reviews a selected offer and sets acceptance decision variables.
+ * <p>
+ * Input plausibility is checked here; knockout criteria, score and approval come from the
+ * {@link CreditReviewRules}.
  */
 @Component
 @Slf4j
 public class ReviewCreditApplicationWorker {
 
+	private static final int CREDIT_TERM_MONTHS = 30 * 12;
+
 	private final ProcessStateStore processStateStore;
 	private final ObjectMapper objectMapper;
-
-	public ReviewCreditApplicationWorker(ProcessStateStore processStateStore, ObjectMapper objectMapper) {
+	private final AnnuityCalculator annuityCalculator;
+	private final CreditReviewRules creditReviewRules;
+
+	public ReviewCreditApplicationWorker(
+			ProcessStateStore processStateStore,
+			ObjectMapper objectMapper,
+			AnnuityCalculator annuityCalculator,
+			CreditReviewRules creditReviewRules
+	) {
 		this.processStateStore = processStateStore;
 		this.objectMapper = objectMapper;
+		this.annuityCalculator = annuityCalculator;
+		this.creditReviewRules = creditReviewRules;
 	}
 
-	@JobWorker(type = "review-credit-application")
+	@JobWorker(type = "review-credit-application", fetchVariables = {
+			"creditOffers", "bankName", "monthlyNetIncome", "propertyValue", "equity", "correlationId"})
 	public Map<String, Object> handle(final ActivatedJob job) {
-		Map<String, Object> variables = job.getVariablesAsMap();
+		JobVariables variables = JobVariables.read(job,
+				"creditOffers", "bankName", "monthlyNetIncome", "propertyValue", "equity", "correlationId");
 		List<Offer> offers = readOffers(variables.get("creditOffers"));
-		String bankName = de.aschwartz.camunda8demo.realestatefinancing.camunda.worker.VariableMapper.getString(variables, "bankName");
-		BigDecimal monthlyNetIncome = de.aschwartz.camunda8demo.realestatefinancing.camunda.worker.VariableMapper.getBigDecimal(variables, "monthlyNetIncome");
-		BigDecimal propertyValue = de.aschwartz.camunda8demo.realestatefinancing.camunda.worker.VariableMapper.getBigDecimal(variables, "propertyValue");
-		BigDecimal equity = de.aschwartz.camunda8demo.realestatefinancing.camunda.worker.VariableMapper.getBigDecimal(variables, "equity");
+		String bankName = variables.getString("bankName");
+		BigDecimal monthlyNetIncome = variables.getBigDecimal("monthlyNetIncome");
+		BigDecimal propertyValue = variables.getBigDecimal("propertyValue");
+		BigDecimal equity = variables.getBigDecimal("equity");
 
 		Offer selectedOffer = offers.stream()
 				.filter(it -> it.getBankName().equals(bankName))
@@ -47,7 +65,7 @@ public class ReviewCreditApplicationWorker {
 
 		ReviewResult result = reviewApplication(monthlyNetIncome, propertyValue, equity, selectedOffer);
 
-		String correlationId = de.aschwartz.camunda8demo.realestatefinancing.camunda.worker.VariableMapper.getString(variables, "correlationId");
+		String correlationId = variables.getString("correlationId");
 		if (correlationId != null) {
 			processStateStore.storeReviewResult(correlationId, result);
 		}
@@ -94,51 +112,21 @@ public class ReviewCreditApplicationWorker {
 		BigDecimal equityRatio = equity.divide(propertyValue, 6, RoundingMode.HALF_UP);
 		BigDecimal ltv = loanAmount.divide(propertyValue, 6, RoundingMode.HALF_UP);
 
-		BigDecimal annualRate = selectedOffer.getInterestRate().divide(new BigDecimal("100"), 10, RoundingMode.HALF_UP);
-		BigDecimal monthlyRate = annualRate.divide(new BigDecimal("12"), 10, RoundingMode.HALF_UP);
-
-		int months = 30 * 12;
-
-		BigDecimal onePlusR = BigDecimal.ONE.add(monthlyRate);
-		BigDecimal pow = BigDecimal.ONE;
-		for (int i = 0; i < months; i++) {
-			pow = pow.multiply(onePlusR);
-		}
-
-		BigDecimal denominator = BigDecimal.ONE.subtract(BigDecimal.ONE.divide(pow, 20, RoundingMode.HALF_UP));
-		if (denominator.compareTo(BigDecimal.ZERO) <= 0) {
+		BigDecimal monthlyPayment = annuityCalculator
+				.monthlyPayment(loanAmount, selectedOffer.getInterestRate(), CREDIT_TERM_MONTHS)
+				.orElse(null);
+		if (monthlyPayment == null) {
 			return ReviewResult.rejected("Interest configuration not plausible");
 		}
 
-		BigDecimal monthlyPayment = loanAmount
-				.multiply(monthlyRate)
-				.divide(denominator, 2, RoundingMode.HALF_UP);
-
 		BigDecimal dti = monthlyPayment.divide(monthlyNetIncome, 6, RoundingMode.HALF_UP);
 
-		if (equityRatio.compareTo(new BigDecimal("0.10")) < 0)
-			return ReviewResult.rejected("Equity ratio too low (< 10%)");
-		if (ltv.compareTo(new BigDecimal("0.90")) > 0)
-			return ReviewResult.rejected("Loan-to-value too high (> 90%)");
-		if (dti.compareTo(new BigDecimal("0.35")) > 0)
-			return ReviewResult.rejected("Monthly payment too high (> 35% of net income)");
-
-		int score = 0;
-
-		if (equityRatio.compareTo(new BigDecimal("0.20")) >= 0) score += 2;
-		else score += 1;
-
-		if (selectedOffer.getInterestRate().compareTo(new BigDecimal("4.5")) <= 0) score += 2;
-		else if (selectedOffer.getInterestRate().compareTo(new BigDecimal("6.0")) <= 0) score += 1;
-
-		if (dti.compareTo(new BigDecimal("0.25")) <= 0) score += 2;
-		else score += 1;
-
-		if (score >= 4) {
+		CreditReviewRules.Review review = creditReviewRules.review(equityRatio, ltv, dti, selectedOffer.getInterestRate());
+		if (review.accepted()) {
 			return ReviewResult.accepted(generateContractNumber(selectedOffer.getBankName()));
 		}
 
-		return ReviewResult.rejected("Score too low (risk too high)");
+		return ReviewResult.rejected(review.rejectionReason());
 	}
 
 	private String generateContractNumber(String bankName) {
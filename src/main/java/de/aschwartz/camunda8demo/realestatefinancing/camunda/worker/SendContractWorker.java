@@ -5,8 +5,6 @@ import io.camunda.zeebe.spring.client.annotation.JobWorker;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
-
 /**
  * Simulates sending a contract to the client.
  */
@@ -14,10 +12,9 @@ import java.util.Map;
 @Slf4j
 public class SendContractWorker {
 
-	@JobWorker(type = "send-contract")
+	@JobWorker(type = "send-contract", fetchVariables = "correlationId")
 	public void handle(final ActivatedJob job) {
-		Map<String, Object> variables = job.getVariablesAsMap();
-		String correlationId = de.aschwartz.camunda8demo.realestatefinancing.camunda.worker.VariableMapper.getString(variables, "correlationId");
+		String correlationId = JobVariables.read(job, "correlationId").getString("correlationId");
 		log.info("[{}] Sending the contract to the client.", correlationId);
 	}
 }
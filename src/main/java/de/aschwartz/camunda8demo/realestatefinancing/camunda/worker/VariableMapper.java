@@ -1,6 +1,7 @@
 package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Map;
 
 /**
@@ -26,20 +27,47 @@ public final class VariableMapper {
 
 		if (v instanceof Number n) {
 			// Zeebe/JSON liefert oft Integer/Long/Double
-			return BigDecimal.valueOf(n.doubleValue());
+			return toBigDecimal(n);
 		}
 
 		if (v instanceof String s) {
-			s = s.trim();
-			if (s.isEmpty()) return null;
-			// falls jemand "4.000,50" eingibt
-			s = s.replace(".", "").replace(",", ".");
-			return new BigDecimal(s);
+			return parseBigDecimal(s);
 		}
 
 		throw new IllegalArgumentException("Variable '" + key + "' has unsupported type: " + v.getClass());
 	}
 
+	/**
+	 * Converts a number without going through {@code double} for integral types.
+	 *
+	 * @param n number
+	 * @return BigDecimal value
+	 */
+	static BigDecimal toBigDecimal(Number n) {
+		if (n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte) {
+			return BigDecimal.valueOf(n.longValue());
+		}
+		if (n instanceof BigInteger bi) {
+			return new BigDecimal(bi);
+		}
+		// Double/Float: shortest decimal representation, as BigDecimal.valueOf(double)
+		return new BigDecimal(n.toString());
+	}
+
+	/**
+	 * Parses a number entered as text.
+	 *
+	 * @param s text
+	 * @return BigDecimal value or {@code null} if blank
+	 */
+	static BigDecimal parseBigDecimal(String s) {
+		s = s.trim();
+		if (s.isEmpty()) return null;
+		// falls jemand "4.000,50" eingibt
+		s = s.replace(".", "").replace(",", ".");
+		return new BigDecimal(s);
+	}
+
 	/**
 	 * Reads a string variable.
 	 *
@@ -0,0 +1,122 @@
+package de.aschwartz.camunda8demo.realestatefinancing.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offer providers queried by the auto-credit flow.
+ * <p>
+ * If no {@code providers} are configured, {@code base-url} and {@code api-path} define a single
+ * provider named {@code default}.
+ */
+@Data
+@ConfigurationProperties(prefix = "camunda8demo.auto-credit")
+public class AutoCreditProperties {
+
+	/**
+	 * Base url of the single default provider.
+	 */
+	private String baseUrl = "";
+	/**
+	 * Offers endpoint path of the single default provider.
+	 */
+	private String apiPath = "";
+	/**
+	 * Delay after which a backup request is sent to a provider that has not answered yet;
+	 * zero disables hedging.
+	 */
+	private Duration hedgeDelay = Duration.ZERO;
+	/**
+	 * Deadline for providers without an own deadline; slower providers are dropped.
+	 */
+	private Duration providerDeadline = Duration.ofSeconds(10);
+	/**
+	 * Offer providers queried concurrently.
+	 */
+	private List<Provider> providers = new ArrayList<>();
+	/**
+	 * Circuit breaker and concurrency limiter settings applied to every provider.
+	 */
+	private Resilience resilience = new Resilience();
+
+	/**
+	 * Returns the configured providers, or the default provider built from base-url and api-path.
+	 *
+	 * @return providers to query
+	 */
+	public List<Provider> effectiveProviders() {
+		if (!providers.isEmpty()) {
+			return providers;
+		}
+		Provider provider = new Provider();
+		provider.setName("default");
+		provider.setBaseUrl(baseUrl);
+		provider.setApiPath(apiPath);
+		return List.of(provider);
+	}
+
+	/**
+	 * Single offer provider.
+	 */
+	@Data
+	public static class Provider {
+		/**
+		 * Name used in logs and metrics.
+		 */
+		private String name;
+		private String baseUrl;
+		private String apiPath;
+		/**
+		 * Per-provider deadline; falls back to {@code provider-deadline}.
+		 */
+		private Duration deadline;
+	}
+
+	/**
+	 * Circuit breaker and adaptive concurrency limiter settings.
+	 */
+	@Data
+	public static class Resilience {
+		/**
+		 * Number of recent calls the failure rate is computed on.
+		 */
+		private int slidingWindowSize = 20;
+		/**
+		 * Calls required before the circuit may open.
+		 */
+		private int minimumCalls = 10;
+		/**
+		 * Failure rate (0..1) that opens the circuit.
+		 */
+		private double failureRateThreshold = 0.5;
+		/**
+		 * Probe calls allowed while the circuit is half-open.
+		 */
+		private int halfOpenCalls = 3;
+		/**
+		 * Initial time the circuit stays open; doubled on every failed probe.
+		 */
+		private Duration openDuration = Duration.ofSeconds(5);
+		private Duration maxOpenDuration = Duration.ofMinutes(2);
+		private int initialLimit = 20;
+		private int minLimit = 1;
+		private int maxLimit = 200;
+		/**
+		 * Latency above which a successful call counts as overload for the concurrency limiter.
+		 */
+		private Duration latencyThreshold = Duration.ofSeconds(2);
+		/**
+		 * Factor the concurrency limit is multiplied with on overload.
+		 */
+		private double backoffRatio = 0.9;
+		/**
+		 * Retry backoff for jobs rejected because every provider is at its concurrency limit; also
+		 * the lower bound of the backoff after a rejection by an open or half-open circuit.
+		 */
+		private Duration limitExceededBackoff = Duration.ofSeconds(1);
+	}
+}
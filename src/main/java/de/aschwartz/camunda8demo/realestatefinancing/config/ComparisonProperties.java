@@ -0,0 +1,76 @@
+package de.aschwartz.camunda8demo.realestatefinancing.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Banks taking part in the credit comparison and how the comparison is run.
+ */
+@Data
+@ConfigurationProperties(prefix = "camunda8demo.comparison")
+public class ComparisonProperties {
+
+	/**
+	 * Comparison process started by the credit application.
+	 */
+	private Mode mode = Mode.MULTI_INSTANCE;
+	/**
+	 * Bank definitions; the rate of each bank is
+	 * {@code max(baseRate - equityRatio * equityDiscountFactor - incomeBonus, floor)}, where the
+	 * income bonus applies from {@code incomeBonusThreshold} on.
+	 */
+	private List<Bank> banks = new ArrayList<>();
+
+	/**
+	 * Comparison modes and the process each one runs.
+	 */
+	public enum Mode {
+		/**
+		 * One {@code request-bank-conditions} job per bank, collected by {@code collect-results}.
+		 */
+		MULTI_INSTANCE("RealEstateCreditComparison"),
+		/**
+		 * All banks in a single {@code compare-all-banks} job.
+		 */
+		FAST("RealEstateCreditComparisonFast");
+
+		private final String processId;
+
+		Mode(String processId) {
+			this.processId = processId;
+		}
+
+		/**
+		 * Returns the BPMN process id of the comparison.
+		 *
+		 * @return process id
+		 */
+		public String processId() {
+			return processId;
+		}
+	}
+
+	/**
+	 * Single bank definition.
+	 */
+	@Data
+	public static class Bank {
+		/**
+		 * Stable id used in job variables.
+		 */
+		private String id;
+		/**
+		 * Display name shown in the offers.
+		 */
+		private String name;
+		private BigDecimal baseRate;
+		private BigDecimal equityDiscountFactor = new BigDecimal("1.20");
+		private BigDecimal incomeBonusThreshold = new BigDecimal("4000");
+		private BigDecimal incomeBonus = new BigDecimal("0.20");
+		private BigDecimal floor = new BigDecimal("1.10");
+	}
+}
@@ -0,0 +1,43 @@
+package de.aschwartz.camunda8demo.realestatefinancing.config;
+
+import io.camunda.zeebe.spring.client.jobhandling.ZeebeClientExecutorService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs Zeebe job handlers on virtual threads when {@code spring.threads.virtual.enabled} is set.
+ * <p>
+ * Spring Boot switches Tomcat request handling to virtual threads with the same property, so
+ * blocking calls in controllers and workers (WebClient {@code block()}, PDF writes, {@code join()})
+ * no longer pin a platform thread. How many jobs of one type run at the same time is still
+ * bounded by {@code camunda.client.zeebe.override.<type>.max-jobs-active}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadConfig {
+
+	/**
+	 * Replaces the default Zeebe client executor with one that runs every job handler on its own
+	 * virtual thread.
+	 * <p>
+	 * The client requires a {@link java.util.concurrent.ScheduledExecutorService}; pooling virtual
+	 * threads in one would keep them alive forever, so timers stay on a few platform threads and only
+	 * the tasks run on virtual threads (see {@link VirtualThreadScheduledExecutor}).
+	 *
+	 * @param schedulerThreads platform threads for the client's poll timers
+	 * @return executor service used by the Zeebe client for polling and job handling
+	 */
+	@Bean
+	public ZeebeClientExecutorService zeebeClientExecutorService(
+			@Value("${camunda8demo.virtual-threads.zeebe-scheduler-threads:1}") int schedulerThreads
+	) {
+		VirtualThreadScheduledExecutor executor = new VirtualThreadScheduledExecutor(schedulerThreads, "zeebe-vt-");
+		log.info("Zeebe job handlers run on virtual threads ({} scheduler threads).", schedulerThreads);
+		return new ZeebeClientExecutorService(executor, true);
+	}
+}
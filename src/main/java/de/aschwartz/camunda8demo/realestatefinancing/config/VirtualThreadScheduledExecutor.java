@@ -0,0 +1,157 @@
+package de.aschwartz.camunda8demo.realestatefinancing.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link ScheduledExecutorService} that keeps timers on a few platform threads and runs every task
+ * on a new virtual thread.
+ * <p>
+ * The Zeebe client only accepts a scheduled executor, but virtual threads must not be pooled: a
+ * scheduled pool of virtual threads keeps its core threads alive forever. Here the platform
+ * scheduler only waits for the delay and then hands the task to
+ * {@link Executors#newVirtualThreadPerTaskExecutor()}. Periodic tasks stay on the scheduler, so
+ * fixed-rate and fixed-delay semantics are kept; they must be short.
+ */
+final class VirtualThreadScheduledExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+
+	private final ScheduledExecutorService scheduler;
+	private final ExecutorService tasks;
+
+	/**
+	 * Creates the executor.
+	 *
+	 * @param schedulerThreads platform threads for timers
+	 * @param namePrefix       name prefix of the scheduler and task threads
+	 */
+	VirtualThreadScheduledExecutor(int schedulerThreads, String namePrefix) {
+		this.scheduler = Executors.newScheduledThreadPool(
+				Math.max(1, schedulerThreads),
+				Thread.ofPlatform().name(namePrefix + "scheduler-", 0).daemon(true).factory());
+		this.tasks = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		tasks.execute(command);
+	}
+
+	/**
+	 * The returned future completes once the task was handed to its virtual thread.
+	 */
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		return scheduler.schedule(() -> tasks.execute(command), delay, unit);
+	}
+
+	/**
+	 * The returned future completes with the task's result, not with the hand-off.
+	 */
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		CompletableFuture<V> result = new CompletableFuture<>();
+		ScheduledFuture<?> timer = scheduler.schedule(() -> tasks.execute(() -> {
+			try {
+				result.complete(callable.call());
+			} catch (Exception e) {
+				result.completeExceptionally(e);
+			}
+		}), delay, unit);
+		return new DelegatingScheduledFuture<>(timer, result);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		return scheduler.scheduleAtFixedRate(command, initialDelay, period, unit);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		return scheduler.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+	}
+
+	@Override
+	public void shutdown() {
+		scheduler.shutdown();
+		tasks.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		List<Runnable> pending = new ArrayList<>(scheduler.shutdownNow());
+		pending.addAll(tasks.shutdownNow());
+		return pending;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return scheduler.isShutdown() && tasks.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return scheduler.isTerminated() && tasks.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		return scheduler.awaitTermination(timeout, unit)
+				&& tasks.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Timer of the scheduler combined with the result of the task it handed off.
+	 */
+	private record DelegatingScheduledFuture<V>(ScheduledFuture<?> timer, CompletableFuture<V> result)
+			implements ScheduledFuture<V> {
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return timer.getDelay(unit);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return timer.compareTo(other);
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = timer.cancel(mayInterruptIfRunning);
+			return result.cancel(mayInterruptIfRunning) || cancelled;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return result.isCancelled();
+		}
+
+		@Override
+		public boolean isDone() {
+			return result.isDone();
+		}
+
+		@Override
+		public V get() throws InterruptedException, ExecutionException {
+			return result.get();
+		}
+
+		@Override
+		public V get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+			return result.get(timeout, unit);
+		}
+	}
+}
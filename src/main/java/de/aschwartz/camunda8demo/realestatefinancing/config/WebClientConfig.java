@@ -1,13 +1,18 @@
 package de.aschwartz.camunda8demo.realestatefinancing.config;
 
+import io.netty.channel.ChannelOption;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 /**
  * Configuration for a WebClient builder that trusts all SSL certificates.
@@ -16,20 +21,60 @@ import reactor.netty.http.client.HttpClient;
 public class WebClientConfig {
 
 	/**
-	 * Builds a {@link WebClient.Builder} configured with an insecure SSL context.
+	 * Dedicated connection pool for the external offers API, so in-flight lookups are bounded
+	 * and idle connections are evicted in the background.
+	 *
+	 * @param maxConnections         maximum number of pooled connections
+	 * @param pendingAcquireMaxCount maximum number of requests waiting for a connection
+	 * @param pendingAcquireTimeout  maximum time to wait for a pooled connection
+	 * @param maxIdleTime            idle time after which a connection is closed
+	 * @return connection provider
+	 */
+	@Bean(destroyMethod = "dispose")
+	public ConnectionProvider offersConnectionProvider(
+			@Value("${camunda8demo.auto-credit.http.max-connections:200}") int maxConnections,
+			@Value("${camunda8demo.auto-credit.http.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+			@Value("${camunda8demo.auto-credit.http.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+			@Value("${camunda8demo.auto-credit.http.max-idle-time:30s}") Duration maxIdleTime
+	) {
+		return ConnectionProvider.builder("offers-api")
+				.maxConnections(maxConnections)
+				.pendingAcquireMaxCount(pendingAcquireMaxCount)
+				.pendingAcquireTimeout(pendingAcquireTimeout)
+				.maxIdleTime(maxIdleTime)
+				.evictInBackground(maxIdleTime)
+				.build();
+	}
+
+	/**
+	 * Builds a {@link WebClient.Builder} configured with an insecure SSL context, the pooled
+	 * connection provider and connect and response timeouts.
+	 * <p>
+	 * The response timeout is the maximum time between two reads while a response is received and
+	 * only applies while a request is in flight. A read timeout handler on the connection would stay
+	 * on it in the pool and close idle connections before {@code max-idle-time}.
 	 *
+	 * @param connectionProvider pooled connection provider
+	 * @param connectTimeout     TCP connect timeout
+	 * @param responseTimeout    maximum time without inbound data while a response is received
 	 * @return configured WebClient builder
 	 */
 	@Bean
-	public WebClient.Builder webClientBuilder() {
+	public WebClient.Builder webClientBuilder(
+			ConnectionProvider connectionProvider,
+			@Value("${camunda8demo.auto-credit.http.connect-timeout:3s}") Duration connectTimeout,
+			@Value("${camunda8demo.auto-credit.http.response-timeout:15s}") Duration responseTimeout
+	) {
 		try {
 			SslContext sslContext = SslContextBuilder
 					.forClient()
 					.trustManager(InsecureTrustManagerFactory.INSTANCE)
 					.build();
 
-			HttpClient httpClient = HttpClient.create()
-					.secure(spec -> spec.sslContext(sslContext));
+			HttpClient httpClient = HttpClient.create(connectionProvider)
+					.secure(spec -> spec.sslContext(sslContext))
+					.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+					.responseTimeout(responseTimeout);
 
 			return WebClient.builder()
 					.clientConnector(new ReactorClientHttpConnector(httpClient));
@@ -17,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * MVC controller for the credit comparison flow.
@@ -26,6 +28,8 @@ import java.util.List;
 @Slf4j
 public class CreditController {
 
+	private static final Duration AWAIT_TIMEOUT = Duration.ofSeconds(5);
+
 	private final CreateProcessService createProcessService;
 	private final CreditInteractionService creditInteractionService;
 	private final ProcessStateStore processStateStore;
@@ -66,15 +70,18 @@ public class CreditController {
 
 	/**
 	 * Starts the comparison sub-process and fetches offers.
+	 * <p>
+	 * The request thread is released while the process instance is created and the comparison
+	 * runs; the view is rendered once the offers are stored or the timeout elapsed.
 	 *
 	 * @param monthlyNetIncome monthly net income
 	 * @param propertyValue    property value
 	 * @param equity           equity amount
 	 * @param model            Spring MVC model
-	 * @return view name
+	 * @return future completed with the view name
 	 */
 	@PostMapping("/compare")
-	public String compare(
+	public CompletableFuture<String> compare(
 			@RequestParam BigDecimal monthlyNetIncome,
 			@RequestParam BigDecimal propertyValue,
 			@RequestParam BigDecimal equity,
@@ -84,32 +91,35 @@ public class CreditController {
 		model.addAttribute("propertyValue", propertyValue);
 		model.addAttribute("equity", equity);
 
-		try {
-			String processInstanceId = createProcessService.createProcess(
-					"RealEstateCreditApplication",
-					java.util.Map.of(
-							"monthlyNetIncome", monthlyNetIncome,
-							"propertyValue", propertyValue,
-							"equity", equity
-					)
-			);
-			EnterCreditParametersResponse response = processStateStore
-					.awaitOffers(processInstanceId, Duration.ofSeconds(5))
-					.map(EnterCreditParametersResponse::new)
-					.orElseThrow(() -> new IllegalStateException("No offers received from comparison process."));
-
-			List<Offer> offers = response.getOffers();
-			model.addAttribute("offers", offers);
-			model.addAttribute("processInstanceId", processInstanceId);
-		} catch (Exception e) {
-
-			model.addAttribute("statusType", "danger");
-			model.addAttribute("statusTitle", "Info");
-			model.addAttribute("statusMessage",
-					"Could not read creditOffers from process. " + e.getMessage() + "");
-			log.error(e.getMessage(), e);
-		}
-		return "credit";
+		return createProcessService.createProcessAsync(
+						"RealEstateCreditApplication",
+						java.util.Map.of(
+								"monthlyNetIncome", monthlyNetIncome,
+								"propertyValue", propertyValue,
+								"equity", equity
+						)
+				)
+				.thenCompose(processInstanceId -> processStateStore
+						.awaitOffersAsync(processInstanceId, AWAIT_TIMEOUT)
+						.thenApply(offers -> {
+							EnterCreditParametersResponse response = offers
+									.map(EnterCreditParametersResponse::new)
+									.orElseThrow(() -> new IllegalStateException("No offers received from comparison process."));
+
+							List<Offer> offerList = response.getOffers();
+							model.addAttribute("offers", offerList);
+							model.addAttribute("processInstanceId", processInstanceId);
+							return "credit";
+						}))
+				.exceptionally(e -> {
+					Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+					model.addAttribute("statusType", "danger");
+					model.addAttribute("statusTitle", "Info");
+					model.addAttribute("statusMessage",
+							"Could not read creditOffers from process. " + cause.getMessage() + "");
+					log.error(cause.getMessage(), cause);
+					return "credit";
+				});
 	}
 
 	/**
@@ -118,10 +128,10 @@ public class CreditController {
 	 * @param bankName          selected bank name
 	 * @param processInstanceId Camunda process instance id
 	 * @param model             Spring MVC model
-	 * @return view name
+	 * @return future completed with the view name once the message was published
 	 */
 	@PostMapping("/select")
-	public String selectBank(
+	public CompletableFuture<String> selectBank(
 			@RequestParam String bankName,
 			@RequestParam BigDecimal monthlyNetIncome,
 			@RequestParam BigDecimal propertyValue,
@@ -129,38 +139,44 @@ public class CreditController {
 			@RequestParam String processInstanceId,
 			Model model
 	) {
-		creditInteractionService.publishBankSelected(processInstanceId, bankName);
-		model.addAttribute("processInstanceId", processInstanceId);
-		model.addAttribute("monthlyNetIncome", monthlyNetIncome);
-		model.addAttribute("propertyValue", propertyValue);
-		model.addAttribute("equity", equity);
-		model.addAttribute("selectedBank", bankName);
-
-		return "credit";
+		return creditInteractionService.publishBankSelectedAsync(processInstanceId, bankName)
+				.thenApply(ignored -> {
+					model.addAttribute("processInstanceId", processInstanceId);
+					model.addAttribute("monthlyNetIncome", monthlyNetIncome);
+					model.addAttribute("propertyValue", propertyValue);
+					model.addAttribute("equity", equity);
+					model.addAttribute("selectedBank", bankName);
+
+					return "credit";
+				});
 	}
 
 	/**
 	 * Submits the credit application after a bank was selected.
+	 * <p>
+	 * The request thread is released until the review result is stored or the timeout elapsed.
 	 *
 	 * @param processInstanceId Camunda process instance id
 	 * @param model             Spring MVC model
-	 * @return view name
+	 * @return future completed with the view name
 	 */
 	@PostMapping("/submit")
-	public String submit(@RequestParam String processInstanceId, Model model) {
-		creditInteractionService.publishApplicationSubmitted(processInstanceId);
-		SubmitApplicationResponse submitApplicationResponse = processStateStore
-				.awaitReviewResult(processInstanceId, Duration.ofSeconds(5))
-				.map(result -> new SubmitApplicationResponse(result.isAccepted(), result.getContractNumber(), result.getRejectionReason()))
-				.orElseGet(() -> new SubmitApplicationResponse(false, null, "No review result received."));
-
-		model.addAttribute("processInstanceId", processInstanceId);
-		model.addAttribute("applicationAccepted", submitApplicationResponse.getAccepted());
-		model.addAttribute("contractNumber", submitApplicationResponse.getContractNumber());
-		model.addAttribute("rejectionReason", submitApplicationResponse.getRejectionReason());
-		model.addAttribute("showSign", submitApplicationResponse.getAccepted());
-
-		return "credit";
+	public CompletableFuture<String> submit(@RequestParam String processInstanceId, Model model) {
+		return creditInteractionService.publishApplicationSubmittedAsync(processInstanceId)
+				.thenCompose(ignored -> processStateStore.awaitReviewResultAsync(processInstanceId, AWAIT_TIMEOUT))
+				.thenApply(review -> {
+					SubmitApplicationResponse submitApplicationResponse = review
+							.map(result -> new SubmitApplicationResponse(result.isAccepted(), result.getContractNumber(), result.getRejectionReason()))
+							.orElseGet(() -> new SubmitApplicationResponse(false, null, "No review result received."));
+
+					model.addAttribute("processInstanceId", processInstanceId);
+					model.addAttribute("applicationAccepted", submitApplicationResponse.getAccepted());
+					model.addAttribute("contractNumber", submitApplicationResponse.getContractNumber());
+					model.addAttribute("rejectionReason", submitApplicationResponse.getRejectionReason());
+					model.addAttribute("showSign", submitApplicationResponse.getAccepted());
+
+					return "credit";
+				});
 	}
 
 	/**
@@ -168,24 +184,26 @@ public class CreditController {
 	 *
 	 * @param processInstanceId Camunda process instance id
 	 * @param model             Spring MVC model
-	 * @return view name
+	 * @return future completed with the view name
 	 */
 	@PostMapping("/sign")
-	public String sign(@RequestParam String processInstanceId, Model model) {
-		try {
-			creditInteractionService.publishContractSigned(processInstanceId);
-			model.addAttribute("statusType", "success");
-			model.addAttribute("statusTitle", "Done");
-			model.addAttribute("statusMessage", "Contract signed. Credit contract concluded.");
-			model.addAttribute("showSign", false);
-		} catch (Exception e) {
-			model.addAttribute("statusType", "danger");
-			model.addAttribute("statusTitle", "Not found");
-			model.addAttribute("statusMessage", e.getMessage());
-			model.addAttribute("showSign", false);
-		}
-
-		return "credit";
+	public CompletableFuture<String> sign(@RequestParam String processInstanceId, Model model) {
+		return creditInteractionService.publishContractSignedAsync(processInstanceId)
+				.handle((ignored, e) -> {
+					if (e == null) {
+						model.addAttribute("statusType", "success");
+						model.addAttribute("statusTitle", "Done");
+						model.addAttribute("statusMessage", "Contract signed. Credit contract concluded.");
+					} else {
+						Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+						model.addAttribute("statusType", "danger");
+						model.addAttribute("statusTitle", "Not found");
+						model.addAttribute("statusMessage", cause.getMessage());
+					}
+					model.addAttribute("showSign", false);
+
+					return "credit";
+				});
 	}
 
 }
@@ -1,6 +1,8 @@
 package de.aschwartz.camunda8demo.realestatefinancing.controller;
 
 import de.aschwartz.camunda8demo.realestatefinancing.logic.CreateProcessService;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.credit.CredibilityCheck;
+import de.aschwartz.camunda8demo.realestatefinancing.model.CredibilityCheckResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -8,6 +10,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import java.math.BigDecimal;
 
@@ -20,16 +23,20 @@ import java.math.BigDecimal;
 public class DmnCreditController {
 
 	private final CreateProcessService createProcessService;
+	private final CredibilityCheck credibilityCheck;
 
 	/**
 	 * Creates the controller with required services.
 	 *
 	 * @param createProcessService process starter service
+	 * @param credibilityCheck     in-process credibility decision
 	 */
 	public DmnCreditController(
-			CreateProcessService createProcessService
+			CreateProcessService createProcessService,
+			CredibilityCheck credibilityCheck
 	) {
 		this.createProcessService = createProcessService;
+		this.credibilityCheck = credibilityCheck;
 	}
 
 	/**
@@ -94,4 +101,26 @@ public class DmnCreditController {
 
 		return "dmncredit";
 	}
+
+	/**
+	 * Evaluates the credibility decision without starting a process.
+	 * <p>
+	 * Returns the same result as the business rule task of the dmn-credit process, so the UI can
+	 * pre-screen applications before a process instance is created.
+	 *
+	 * @param monthlyNetIncome monthly net income
+	 * @param propertyValue    property value
+	 * @param equity           equity amount
+	 * @return decision
+	 */
+	@PostMapping("/check")
+	@ResponseBody
+	public CredibilityCheckResponse check(
+			@RequestParam BigDecimal monthlyNetIncome,
+			@RequestParam BigDecimal propertyValue,
+			@RequestParam BigDecimal equity
+	) {
+		Boolean decision = credibilityCheck.decide(monthlyNetIncome, propertyValue, equity);
+		return new CredibilityCheckResponse(decision, decision != null);
+	}
 }
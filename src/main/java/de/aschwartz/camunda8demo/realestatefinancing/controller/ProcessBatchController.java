@@ -0,0 +1,72 @@
+package de.aschwartz.camunda8demo.realestatefinancing.controller;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.CreateProcessService;
+import de.aschwartz.camunda8demo.realestatefinancing.model.ProcessBatchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Bulk creation of process instances.
+ */
+@RestController
+@Slf4j
+public class ProcessBatchController {
+
+	private final CreateProcessService createProcessService;
+	private final ObjectReader variablesReader;
+
+	/**
+	 * Creates the controller with required services.
+	 *
+	 * @param createProcessService process starter service
+	 * @param objectMapper         mapper for the request lines
+	 */
+	public ProcessBatchController(CreateProcessService createProcessService, ObjectMapper objectMapper) {
+		this.createProcessService = createProcessService;
+		this.variablesReader = objectMapper.readerFor(Map.class);
+	}
+
+	/**
+	 * Starts one process instance per line of an NDJSON body, each line being the variables of an
+	 * instance.
+	 * <p>
+	 * The body is read line by line while instances are created, so a batch is never held in memory
+	 * as a whole. One result line is streamed back per instance as soon as it is created or has
+	 * finally failed; a malformed line ends the batch after the instances already read.
+	 *
+	 * @param processId process definition key
+	 * @param body      NDJSON request body
+	 * @return results in completion order
+	 */
+	@PostMapping(
+			path = "/processes/{processId}/batch",
+			consumes = MediaType.APPLICATION_NDJSON_VALUE,
+			produces = MediaType.APPLICATION_NDJSON_VALUE
+	)
+	public Flux<ProcessBatchResult> createProcesses(@PathVariable String processId, InputStream body) {
+		Flux<Map<String, Object>> variables = Flux.<Map<String, Object>, MappingIterator<Map<String, Object>>>using(
+						() -> variablesReader.readValues(body),
+						lines -> Flux.fromIterable(() -> lines),
+						lines -> {
+							try {
+								lines.close();
+							} catch (Exception e) {
+								log.warn("Batch request body could not be closed", e);
+							}
+						})
+				.subscribeOn(Schedulers.boundedElastic());
+		return createProcessService.createProcesses(processId, variables)
+				.doOnError(e -> log.error("Batch of process {} aborted", processId, e));
+	}
+}
@@ -1,28 +1,82 @@
 package de.aschwartz.camunda8demo.realestatefinancing.logic;
 
+import de.aschwartz.camunda8demo.realestatefinancing.config.ComparisonProperties;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.credit.BankRegistry;
+import de.aschwartz.camunda8demo.realestatefinancing.model.ProcessBatchResult;
 import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.command.ClientStatusException;
+import io.grpc.Status;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service that starts Camunda 8 process instances by key.
+ * <p>
+ * Start variables the processes rely on are defaulted here: a missing {@code correlationId} is
+ * generated, credit comparisons without {@code bankIds} compare all configured banks and credit
+ * applications run the comparison process of {@code camunda8demo.comparison.mode}. Zeebe does not
+ * apply input mappings on none start events, so these defaults cannot live in the models.
  */
 @Service
 @Slf4j
 public class CreateProcessService {
+
+	/**
+	 * Processes that run the bank comparison over {@code bankIds}.
+	 */
+	static final Set<String> BANK_COMPARISON_PROCESSES = Set.of(
+			"RealEstateCreditApplication",
+			ComparisonProperties.Mode.MULTI_INSTANCE.processId(),
+			ComparisonProperties.Mode.FAST.processId());
+
 	private final ZeebeClient zeebeClient;
+	private final BankRegistry bankRegistry;
+	private final ComparisonProperties comparisonProperties;
+	private final int batchMaxInFlight;
+	private final int batchMaxRetries;
+	private final Duration batchMinBackoff;
+	private final Duration batchMaxBackoff;
 
 	/**
 	 * Creates a new instance.
 	 *
-	 * @param zeebeClient Camunda 8 Zeebe client
+	 * @param zeebeClient          Camunda 8 Zeebe client
+	 * @param bankRegistry         banks compared when a comparison is started without {@code bankIds}
+	 * @param comparisonProperties comparison mode of credit applications
+	 * @param batchMaxInFlight     maximum create commands in flight per batch
+	 * @param batchMaxRetries      retries per instance of a batch
+	 * @param batchMinBackoff      first retry backoff
+	 * @param batchMaxBackoff      maximum retry backoff
 	 */
-	public CreateProcessService(ZeebeClient zeebeClient) {
+	public CreateProcessService(
+			ZeebeClient zeebeClient,
+			BankRegistry bankRegistry,
+			ComparisonProperties comparisonProperties,
+			@Value("${camunda8demo.process-batch.max-in-flight:32}") int batchMaxInFlight,
+			@Value("${camunda8demo.process-batch.retry.max-retries:5}") int batchMaxRetries,
+			@Value("${camunda8demo.process-batch.retry.min-backoff:200ms}") Duration batchMinBackoff,
+			@Value("${camunda8demo.process-batch.retry.max-backoff:5s}") Duration batchMaxBackoff
+	) {
 		this.zeebeClient = zeebeClient;
+		this.bankRegistry = bankRegistry;
+		this.comparisonProperties = comparisonProperties;
+		this.batchMaxInFlight = batchMaxInFlight;
+		this.batchMaxRetries = batchMaxRetries;
+		this.batchMinBackoff = batchMinBackoff;
+		this.batchMaxBackoff = batchMaxBackoff;
 	}
 
 	/**
@@ -34,29 +88,123 @@ public class CreateProcessService {
 	 */
 	public String createProcess(String processId, Map<String, Object> variables) {
 		try {
-			Map<String, Object> payload = variables != null ? new HashMap<>(variables) : new HashMap<>();
-			String correlationId = payload.containsKey("correlationId")
-					? String.valueOf(payload.get("correlationId"))
-					: null;
-			if (correlationId == null || correlationId.isBlank()) {
-				correlationId = UUID.randomUUID().toString();
+			return createProcessAsync(processId, variables).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
 			}
-			payload.put("correlationId", correlationId);
-			long processInstanceKey = zeebeClient
+			throw e;
+		}
+	}
+
+	/**
+	 * Starts a process instance by process definition key without blocking the caller.
+	 *
+	 * @param processId process definition key
+	 * @param variables initial variables
+	 * @return future completed with the process instance id once the broker created the instance
+	 */
+	public CompletableFuture<String> createProcessAsync(String processId, Map<String, Object> variables) {
+		Map<String, Object> payload = startVariables(processId, variables);
+		return send(processId, payload, (String) payload.get("correlationId"))
+				.whenComplete((id, e) -> {
+					if (e != null) {
+						log.error("Process {} could not be started.", processId, unwrap(e));
+					}
+				});
+	}
+
+	/**
+	 * Starts a process instance for every variable map, with at most
+	 * {@code camunda8demo.process-batch.max-in-flight} create commands in flight.
+	 * <p>
+	 * Results are emitted as the instances are created, not in input order; {@link ProcessBatchResult#getIndex()}
+	 * refers to the position in the input. The correlation id is assigned before the first attempt, so
+	 * a retried command starts the instance with the same id. Commands the broker rejected because it
+	 * is overloaded ({@code RESOURCE_EXHAUSTED}) are retried with exponential backoff; other errors and
+	 * exhausted retries yield a failed result for that entry only.
+	 *
+	 * @param processId process definition key
+	 * @param variables initial variables per instance
+	 * @return one result per variable map
+	 */
+	public Flux<ProcessBatchResult> createProcesses(String processId, Flux<Map<String, Object>> variables) {
+		return variables
+				.index()
+				.flatMap(entry -> {
+					int index = entry.getT1().intValue();
+					Map<String, Object> payload = startVariables(processId, entry.getT2());
+					String correlationId = (String) payload.get("correlationId");
+					return Mono.defer(() -> Mono.fromFuture(send(processId, payload, correlationId)))
+							.retryWhen(Retry.backoff(batchMaxRetries, batchMinBackoff)
+									.maxBackoff(batchMaxBackoff)
+									.filter(CreateProcessService::isRetryable)
+									.doBeforeRetry(retry -> log.debug("[{}] Broker busy, retrying start of process {} ({}).",
+											correlationId, processId, retry.totalRetries() + 1)))
+							.map(id -> new ProcessBatchResult(index, id, true, null))
+							.onErrorResume(e -> {
+								Throwable cause = Exceptions.unwrap(e);
+								if (Exceptions.isRetryExhausted(cause) && cause.getCause() != null) {
+									cause = cause.getCause();
+								}
+								cause = unwrap(cause);
+								log.error("[{}] Process {} could not be started.", correlationId, processId, cause);
+								return Mono.just(new ProcessBatchResult(index, correlationId, false, cause.getMessage()));
+							});
+				}, batchMaxInFlight);
+	}
+
+	private CompletableFuture<String> send(String processId, Map<String, Object> payload, String correlationId) {
+		try {
+			return zeebeClient
 					.newCreateInstanceCommand()
 					.bpmnProcessId(processId)
 					.latestVersion()
 					.variables(payload)
 					.send()
-					.join()
-					.getProcessInstanceKey();
-
-			log.info("[{}] Process {} was started.", correlationId, processId);
-			return correlationId;
+					.toCompletableFuture()
+					.thenApply(event -> {
+						log.info("[{}] Process {} was started.", correlationId, processId);
+						return correlationId;
+					});
 		} catch (Exception e) {
-			log.error("Process {} could not be started.", processId, e);
-			throw e;
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * Copies the variables and adds the start variable defaults of the process.
+	 */
+	private Map<String, Object> startVariables(String processId, Map<String, Object> variables) {
+		Map<String, Object> payload = variables != null ? new HashMap<>(variables) : new HashMap<>();
+		String correlationId = payload.containsKey("correlationId")
+				? String.valueOf(payload.get("correlationId"))
+				: null;
+		if (correlationId == null || correlationId.isBlank()) {
+			correlationId = UUID.randomUUID().toString();
+		}
+		payload.put("correlationId", correlationId);
+		if (BANK_COMPARISON_PROCESSES.contains(processId) && payload.get("bankIds") == null) {
+			payload.put("bankIds", bankRegistry.bankIds());
+		}
+		if ("RealEstateCreditApplication".equals(processId) && payload.get("comparisonProcessId") == null) {
+			payload.put("comparisonProcessId", comparisonProperties.getMode().processId());
 		}
+		return payload;
+	}
+
+	/**
+	 * Only back-pressure rejections are retried: the broker refused the command, so no instance was
+	 * created. After {@code UNAVAILABLE} or {@code DEADLINE_EXCEEDED} the gateway may already have
+	 * forwarded the command, and a retry would start a second instance with the same correlation id.
+	 */
+	private static boolean isRetryable(Throwable e) {
+		return unwrap(e) instanceof ClientStatusException status
+				&& status.getStatusCode() == Status.Code.RESOURCE_EXHAUSTED;
+	}
+
+	private static Throwable unwrap(Throwable e) {
+		return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
 	}
 
 	/**
@@ -1,44 +1,198 @@
 package de.aschwartz.camunda8demo.realestatefinancing.logic;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import de.aschwartz.camunda8demo.realestatefinancing.model.CorrelationMessage;
 import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.command.ClientStatusException;
+import io.grpc.Status;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service to advance the credit process via messages.
+ * <p>
+ * Messages are published without blocking the caller. Each message gets an id derived from its
+ * name, correlation key and the SHA-256 of its variables, so a retried click publishes the same
+ * message id and the broker rejects the duplicate while the first message is still buffered
+ * ({@code camunda8demo.messages.time-to-live}); such a rejection counts as success. Publish
+ * latencies are recorded in {@code zeebe.message.publish}, tagged by message name and outcome.
  */
 @Service
+@Slf4j
 public class CreditInteractionService {
 
+	static final String BANK_SELECTED = "bank-selected";
+	static final String APPLICATION_SUBMITTED = "application-submitted";
+	static final String CONTRACT_SIGNED = "contract-signed";
+
+	/**
+	 * Writes variables as canonical JSON: map entries and properties sorted by key at every level.
+	 */
+	private static final ObjectMapper CANONICAL_JSON = JsonMapper.builder()
+			.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+			.enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+			.build();
+
 	private final ZeebeClient zeebeClient;
+	private final MeterRegistry meterRegistry;
+	private final Duration timeToLive;
+	private final int maxInFlight;
+	private final ConcurrentMap<TimerKey, Timer> publishTimers = new ConcurrentHashMap<>();
 
-	public CreditInteractionService(ZeebeClient zeebeClient) {
+	/**
+	 * Creates the service.
+	 *
+	 * @param zeebeClient   Camunda 8 Zeebe client
+	 * @param meterRegistry registry for the publish latency timers
+	 * @param timeToLive    time a message stays buffered for correlation and deduplication
+	 * @param maxInFlight   maximum publish commands in flight per batch
+	 */
+	public CreditInteractionService(
+			ZeebeClient zeebeClient,
+			MeterRegistry meterRegistry,
+			@Value("${camunda8demo.messages.time-to-live:1h}") Duration timeToLive,
+			@Value("${camunda8demo.messages.max-in-flight:64}") int maxInFlight
+	) {
 		this.zeebeClient = zeebeClient;
+		this.meterRegistry = meterRegistry;
+		this.timeToLive = timeToLive;
+		this.maxInFlight = Math.max(1, maxInFlight);
 	}
 
 	public void publishBankSelected(String correlationId, String bankName) {
-		zeebeClient.newPublishMessageCommand()
-				.messageName("bank-selected")
-				.correlationKey(correlationId)
-				.variables(Map.of("bankName", bankName))
-				.send()
-				.join();
+		publishBankSelectedAsync(correlationId, bankName).join();
+	}
+
+	public CompletableFuture<Void> publishBankSelectedAsync(String correlationId, String bankName) {
+		return publishAsync(new CorrelationMessage(BANK_SELECTED, correlationId, Map.of("bankName", bankName)));
 	}
 
 	public void publishApplicationSubmitted(String correlationId) {
-		zeebeClient.newPublishMessageCommand()
-				.messageName("application-submitted")
-				.correlationKey(correlationId)
-				.send()
-				.join();
+		publishApplicationSubmittedAsync(correlationId).join();
+	}
+
+	public CompletableFuture<Void> publishApplicationSubmittedAsync(String correlationId) {
+		return publishAsync(new CorrelationMessage(APPLICATION_SUBMITTED, correlationId, Map.of()));
 	}
 
 	public void publishContractSigned(String correlationId) {
-		zeebeClient.newPublishMessageCommand()
-				.messageName("contract-signed")
-				.correlationKey(correlationId)
+		publishContractSignedAsync(correlationId).join();
+	}
+
+	public CompletableFuture<Void> publishContractSignedAsync(String correlationId) {
+		return publishAsync(new CorrelationMessage(CONTRACT_SIGNED, correlationId, Map.of()));
+	}
+
+	/**
+	 * Publishes many messages with at most {@code camunda8demo.messages.max-in-flight} publish
+	 * commands in flight.
+	 *
+	 * @param messages messages to publish
+	 * @return future completed once every message was published; fails with the first error after
+	 * all messages were attempted
+	 */
+	public CompletableFuture<Void> publishAllAsync(Collection<CorrelationMessage> messages) {
+		return Flux.fromIterable(messages)
+				.flatMapDelayError(message -> Mono.fromFuture(() -> publishAsync(message)), maxInFlight, 1)
+				.then()
+				.toFuture();
+	}
+
+	/**
+	 * Publishes a message.
+	 *
+	 * @param message message to publish
+	 * @return future completed once the broker accepted the message or rejected it as a duplicate
+	 */
+	public CompletableFuture<Void> publishAsync(CorrelationMessage message) {
+		Map<String, Object> variables = message.getVariables() != null ? message.getVariables() : Map.of();
+		long start = System.nanoTime();
+		return zeebeClient.newPublishMessageCommand()
+				.messageName(message.getName())
+				.correlationKey(message.getCorrelationKey())
+				.messageId(messageId(message.getName(), message.getCorrelationKey(), variables))
+				.timeToLive(timeToLive)
+				.variables(variables)
 				.send()
-				.join();
+				.toCompletableFuture()
+				.handle((response, e) -> {
+					Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+					boolean duplicate = isDuplicate(cause);
+					String outcome = cause == null ? "published" : duplicate ? "duplicate" : "failed";
+					publishTimer(message.getName(), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+					if (cause == null || duplicate) {
+						if (duplicate) {
+							log.debug("[{}] Message {} already published", message.getCorrelationKey(), message.getName());
+						}
+						return null;
+					}
+					throw e instanceof CompletionException ce ? ce : new CompletionException(e);
+				});
+	}
+
+	/**
+	 * Message id for deduplication: equal messages to the same instance get the same id. Variables
+	 * are part of the id as SHA-256 of their canonical JSON, so choosing a different bank is not
+	 * taken for a retry, whatever the order of the variables.
+	 */
+	static String messageId(String name, String correlationKey, Map<String, Object> variables) {
+		if (variables.isEmpty()) {
+			return name + ":" + correlationKey;
+		}
+		try {
+			byte[] json = CANONICAL_JSON.writeValueAsString(variables).getBytes(StandardCharsets.UTF_8);
+			return name + ":" + correlationKey + ":" + HexFormat.of().formatHex(sha256().digest(json));
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Variables of message " + name + " are not serializable", e);
+		}
+	}
+
+	/**
+	 * Timer of a message name and outcome, registered on first use.
+	 */
+	private Timer publishTimer(String messageName, String outcome) {
+		return publishTimers.computeIfAbsent(new TimerKey(messageName, outcome), key -> Timer.builder("zeebe.message.publish")
+				.description("Time until the broker acknowledged a published message")
+				.tag("name", key.messageName())
+				.tag("outcome", key.outcome())
+				.publishPercentileHistogram()
+				.register(meterRegistry));
+	}
+
+	private static boolean isDuplicate(Throwable e) {
+		return e instanceof ClientStatusException status && status.getStatusCode() == Status.Code.ALREADY_EXISTS;
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	private record TimerKey(String messageName, String outcome) {
 	}
 }
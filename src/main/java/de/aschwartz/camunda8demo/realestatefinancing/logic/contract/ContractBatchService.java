@@ -0,0 +1,132 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.contract;
+
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Renders large numbers of contracts in parallel, e.g. for month-end re-issues.
+ * <p>
+ * Offers are processed in chunks: the contracts of a chunk are rendered concurrently on a bounded
+ * pool (one thread per core by default, the caller helps out when the queue is full) and then handed
+ * to {@link ContractStore#storeAll(List)}, which writes them shard by shard. Progress is reported
+ * after every chunk.
+ */
+@Service
+@Slf4j
+public class ContractBatchService {
+
+	private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+	private final ContractPdfRenderer contractPdfRenderer;
+	private final ContractStore contractStore;
+	private final int chunkSize;
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param contractPdfRenderer renderer shared with the single-contract path
+	 * @param contractStore       target store
+	 * @param parallelism         render threads; {@code 0} uses one per available core
+	 * @param chunkSize           contracts rendered before they are written and progress is reported
+	 */
+	public ContractBatchService(
+			ContractPdfRenderer contractPdfRenderer,
+			ContractStore contractStore,
+			@Value("${camunda8demo.contract-batch.parallelism:0}") int parallelism,
+			@Value("${camunda8demo.contract-batch.chunk-size:256}") int chunkSize
+	) {
+		this.contractPdfRenderer = contractPdfRenderer;
+		this.contractStore = contractStore;
+		this.chunkSize = Math.max(1, chunkSize);
+
+		int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		this.executor = new ThreadPoolExecutor(
+				threads, threads,
+				0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(threads * 4),
+				Thread.ofPlatform().name("contract-batch-", 0).daemon(true).factory(),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		log.info("Contract batch rendering on {} threads, chunks of {}.", threads, this.chunkSize);
+	}
+
+	/**
+	 * Renders and stores a contract for every offer.
+	 *
+	 * @param offers    offers to create contracts for
+	 * @param createdAt creation date printed on the contracts
+	 * @param progress  called with the number of stored contracts after each chunk
+	 * @return contract ids in the order of the offers
+	 * @throws IOException if a contract cannot be rendered or stored
+	 */
+	public List<String> createContracts(
+			List<OffersResponse.Angebot> offers,
+			LocalDate createdAt,
+			IntConsumer progress
+	) throws IOException {
+		List<String> contractIds = new ArrayList<>(offers.size());
+
+		for (int from = 0; from < offers.size(); from += chunkSize) {
+			List<OffersResponse.Angebot> chunk = offers.subList(from, Math.min(from + chunkSize, offers.size()));
+
+			List<CompletableFuture<byte[]>> rendering = new ArrayList<>(chunk.size());
+			for (OffersResponse.Angebot offer : chunk) {
+				rendering.add(CompletableFuture.supplyAsync(() -> render(offer, createdAt), executor));
+			}
+
+			List<byte[]> documents = new ArrayList<>(chunk.size());
+			for (CompletableFuture<byte[]> document : rendering) {
+				documents.add(await(document));
+			}
+
+			contractIds.addAll(contractStore.storeAll(documents));
+			progress.accept(contractIds.size());
+		}
+		return contractIds;
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private byte[] render(OffersResponse.Angebot offer, LocalDate createdAt) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+		try {
+			contractPdfRenderer.render(offer, createdAt, out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] await(CompletableFuture<byte[]> document) throws IOException {
+		try {
+			return document.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof UncheckedIOException io) {
+				throw io.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			throw e;
+		}
+	}
+}
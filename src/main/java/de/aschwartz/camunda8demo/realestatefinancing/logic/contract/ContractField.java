@@ -0,0 +1,24 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.contract;
+
+/**
+ * Variable values of a contract, in the order they appear on the page.
+ */
+public enum ContractField {
+	CREATED_AT,
+	VERMITTLER,
+	BANK_NAME,
+	BANK_SHORT_NAME,
+	ADDRESS,
+	SOLLZINS,
+	EFFEKTIVZINS,
+	MONATLICHE_RATE,
+	ANFAENGLICHE_TILGUNG,
+	ZINSBINDUNG,
+	DARLEHENSBETRAG,
+	KAUFPREIS,
+	RESTSCHULD,
+	ZINSKOSTEN,
+	GESAMTLAUFZEIT,
+	BELEIHUNGSAUSLAUF,
+	GESAMTKOSTEN
+}
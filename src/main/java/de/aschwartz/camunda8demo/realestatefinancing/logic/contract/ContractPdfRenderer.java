@@ -0,0 +1,157 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.contract;
+
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Renders credit contracts from the precompiled {@link ContractTemplate}.
+ * <p>
+ * The two layout variants (with and without "Kurzbezeichnung") are compiled once at startup. Rendering
+ * a contract formats the values, stamps them into the template and attaches the shared static
+ * content stream. The renderer is stateless and thread-safe.
+ * <p>
+ * Output is deterministic: the trailer {@code /ID} is derived from the values instead of the clock, so
+ * identical contracts produce identical bytes and are deduplicated by the {@link ContractStore}.
+ */
+@Component
+public class ContractPdfRenderer {
+
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+	private static final String MISSING = "—";
+
+	private final ContractTemplate withShortName = ContractTemplate.compile(true);
+	private final ContractTemplate withoutShortName = ContractTemplate.compile(false);
+	private final char decimalSeparator = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
+	/**
+	 * Renders the contract for an offer.
+	 *
+	 * @param offer     offer the contract is based on
+	 * @param createdAt creation date printed on the contract
+	 * @param out       target stream
+	 * @throws IOException if the document cannot be written
+	 */
+	public void render(OffersResponse.Angebot offer, LocalDate createdAt, OutputStream out) throws IOException {
+		String[] values = values(offer, createdAt);
+		ContractTemplate template = values[ContractField.BANK_SHORT_NAME.ordinal()].isBlank()
+				? withoutShortName
+				: withShortName;
+
+		try (PDDocument doc = new PDDocument()) {
+			doc.setDocumentId(documentId(values));
+			PDPage page = new PDPage(PDRectangle.A4);
+			page.setResources(fontResources());
+			page.setContents(List.of(staticContent(doc, template), valueContent(doc, template, values)));
+			doc.addPage(page);
+			doc.save(out);
+		}
+	}
+
+	/**
+	 * Formats the offer into the template values, indexed by {@link ContractField#ordinal()}.
+	 */
+	private String[] values(OffersResponse.Angebot offer, LocalDate createdAt) {
+		var anbieter = offer.getAnbieter();
+		var anschrift = (anbieter != null) ? anbieter.getAnschrift() : null;
+		var kond = offer.getKondition();
+
+		String bankOrt = nvl(anschrift != null ? anschrift.getOrt() : null, MISSING);
+		String bankPlz = nvl(anschrift != null ? anschrift.getPlz() : null, MISSING);
+		String bankStr = nvl(anschrift != null ? anschrift.getStrasseUndHausnummer() : null, MISSING);
+
+		String[] values = new String[ContractField.values().length];
+		values[ContractField.CREATED_AT.ordinal()] = "Erstellt am " + createdAt.format(DATE_FORMAT);
+		values[ContractField.VERMITTLER.ordinal()] = nvl(offer.getVermittler(), MISSING);
+		values[ContractField.BANK_NAME.ordinal()] = nvl(anbieter != null ? anbieter.getName() : null, MISSING);
+		values[ContractField.BANK_SHORT_NAME.ordinal()] = nvl(anbieter != null ? anbieter.getKurzbezeichnung() : null, "");
+		values[ContractField.ADDRESS.ordinal()] = bankStr + ", " + bankPlz.trim() + " " + bankOrt;
+		values[ContractField.SOLLZINS.ordinal()] = fmt(kond != null ? kond.getSollZins() : null);
+		values[ContractField.EFFEKTIVZINS.ordinal()] = fmt(kond != null ? kond.getEffektivZins() : null);
+		values[ContractField.MONATLICHE_RATE.ordinal()] = fmt(kond != null ? kond.getMonatlicheRate() : null);
+		values[ContractField.ANFAENGLICHE_TILGUNG.ordinal()] = fmt(kond != null ? kond.getAnfaenglicheTilgung() : null);
+		values[ContractField.ZINSBINDUNG.ordinal()] = nvl(kond != null ? kond.getZinsbindungInJahren() : null, MISSING);
+		values[ContractField.DARLEHENSBETRAG.ordinal()] = fmt(kond != null ? kond.getDarlehensbetrag() : null);
+		values[ContractField.KAUFPREIS.ordinal()] = fmt(kond != null ? kond.getKaufpreis() : null);
+		values[ContractField.RESTSCHULD.ordinal()] = fmt(kond != null ? kond.getRestschuldAmEndeDerZinsbindung() : null);
+		values[ContractField.ZINSKOSTEN.ordinal()] = fmt(kond != null ? kond.getZinskostenAmEndeDerZinsbindung() : null);
+		values[ContractField.GESAMTLAUFZEIT.ordinal()] = nvl(kond != null ? kond.getGesamtlaufzeitInMonaten() : null, MISSING);
+		values[ContractField.BELEIHUNGSAUSLAUF.ordinal()] = fmt(kond != null ? kond.getBeleihungsauslauf() : null);
+		values[ContractField.GESAMTKOSTEN.ordinal()] = fmt(kond != null ? kond.getGesamtkosten() : null);
+		return values;
+	}
+
+	private static long documentId(String[] values) {
+		long id = 1125899906842597L;
+		for (String value : values) {
+			id = 31 * id + value.hashCode();
+		}
+		return id;
+	}
+
+	/**
+	 * Font dictionaries are tiny but belong to the document they are saved with, so each document
+	 * gets its own; the font metrics behind them are cached by PDFBox.
+	 */
+	private static PDResources fontResources() {
+		PDResources resources = new PDResources();
+		resources.put(ContractTemplate.FONT_REGULAR, new PDType1Font(Standard14Fonts.FontName.HELVETICA));
+		resources.put(ContractTemplate.FONT_BOLD, new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD));
+		resources.put(ContractTemplate.FONT_OBLIQUE, new PDType1Font(Standard14Fonts.FontName.HELVETICA_OBLIQUE));
+		return resources;
+	}
+
+	private static PDStream staticContent(PDDocument doc, ContractTemplate template) throws IOException {
+		COSStream stream = doc.getDocument().createCOSStream();
+		try (OutputStream out = stream.createRawOutputStream()) {
+			out.write(template.staticContent());
+		}
+		stream.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+		return new PDStream(stream);
+	}
+
+	private static PDStream valueContent(PDDocument doc, ContractTemplate template, String[] values) throws IOException {
+		ByteArrayOutputStream operators = new ByteArrayOutputStream(1024);
+		template.writeValues(values, operators);
+
+		COSStream stream = doc.getDocument().createCOSStream();
+		try (OutputStream out = stream.createOutputStream(COSName.FLATE_DECODE)) {
+			operators.writeTo(out);
+		}
+		return new PDStream(stream);
+	}
+
+	private static String nvl(Object v, String fallback) {
+		return v == null ? fallback : v.toString();
+	}
+
+	/**
+	 * Formats like {@code new DecimalFormat("0.00")} in the default locale, without the per-call
+	 * formatter instance.
+	 */
+	private String fmt(BigDecimal v) {
+		if (v == null) {
+			return MISSING;
+		}
+		String plain = v.setScale(2, RoundingMode.HALF_EVEN).toPlainString();
+		return decimalSeparator == '.' ? plain : plain.replace('.', decimalSeparator);
+	}
+}
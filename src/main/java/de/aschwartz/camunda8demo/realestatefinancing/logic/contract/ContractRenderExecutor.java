@@ -0,0 +1,123 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.contract;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Dedicated, bounded executor for contract rendering.
+ * <p>
+ * Rendering runs on its own threads so a burst of PDF jobs cannot occupy the Zeebe client's handler
+ * threads. The queue is bounded: once it is full, new tasks fail with a
+ * {@link RejectedExecutionException} so the caller can hand the job back. Tasks whose job deadline
+ * has already passed when they are dequeued are dropped instead of rendered.
+ * <p>
+ * Metrics: {@code contract.render.queue}, {@code contract.render.active}, {@code contract.render}
+ * (render time), {@code contract.render.timeouts} and {@code contract.render.rejected}.
+ */
+@Component
+@Slf4j
+public class ContractRenderExecutor {
+
+	private final ThreadPoolExecutor executor;
+
+	private final Timer renderTimer;
+	private final Counter timeouts;
+	private final Counter rejected;
+
+	/**
+	 * Creates the executor.
+	 *
+	 * @param threads       render threads; {@code 0} uses one per available core
+	 * @param queueCapacity maximum number of queued render tasks
+	 * @param meterRegistry registry for executor metrics
+	 */
+	public ContractRenderExecutor(
+			@Value("${camunda8demo.contract-render.threads:0}") int threads,
+			@Value("${camunda8demo.contract-render.queue-capacity:64}") int queueCapacity,
+			MeterRegistry meterRegistry
+	) {
+		int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		int capacity = Math.max(1, queueCapacity);
+		this.executor = new ThreadPoolExecutor(
+				poolSize, poolSize,
+				0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(capacity),
+				Thread.ofPlatform().name("contract-render-", 0).daemon(true).factory(),
+				new ThreadPoolExecutor.AbortPolicy());
+
+		Gauge.builder("contract.render.queue", executor, e -> e.getQueue().size())
+				.description("Contract render tasks waiting for a thread")
+				.register(meterRegistry);
+		Gauge.builder("contract.render.active", executor, ThreadPoolExecutor::getActiveCount)
+				.description("Contracts currently being rendered")
+				.register(meterRegistry);
+		this.renderTimer = Timer.builder("contract.render")
+				.description("Time to render and store a contract")
+				.register(meterRegistry);
+		this.timeouts = Counter.builder("contract.render.timeouts")
+				.description("Render tasks that missed their job deadline")
+				.register(meterRegistry);
+		this.rejected = Counter.builder("contract.render.rejected")
+				.description("Render tasks rejected because the queue was full")
+				.register(meterRegistry);
+
+		log.info("Contract rendering on {} threads, queue capacity {}.", poolSize, capacity);
+	}
+
+	/**
+	 * Queues a render task.
+	 *
+	 * @param task     render task
+	 * @param deadline time after which the result is of no use (the job deadline)
+	 * @param <T>      result type
+	 * @return task result; fails with {@link RejectedExecutionException} if the queue is full and with
+	 * {@link TimeoutException} if the deadline passed before the task started
+	 */
+	public <T> CompletableFuture<T> submit(Callable<T> task, Instant deadline) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		try {
+			executor.execute(() -> run(task, deadline, result));
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			result.completeExceptionally(e);
+		}
+		return result;
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private <T> void run(Callable<T> task, Instant deadline, CompletableFuture<T> result) {
+		try {
+			if (Instant.now().isAfter(deadline)) {
+				timeouts.increment();
+				result.completeExceptionally(new TimeoutException("Job deadline passed before rendering started"));
+				return;
+			}
+			T value = renderTimer.recordCallable(task);
+			if (Instant.now().isAfter(deadline)) {
+				timeouts.increment();
+			}
+			result.complete(value);
+		} catch (Exception e) {
+			result.completeExceptionally(e);
+		}
+	}
+}
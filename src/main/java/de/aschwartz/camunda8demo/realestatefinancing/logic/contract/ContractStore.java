@@ -0,0 +1,13 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.contract;
+
+import de.aschwartz.camunda8demo.realestatefinancing.logic.store.ContentStore;
+
+/**
+ * Content-addressed storage for generated contract documents.
+ * <p>
+ * Contracts are streamed into the store and identified by the SHA-256 of their bytes, so identical
+ * contracts are stored once and the returned contract id is valid on every node that shares the
+ * store.
+ */
+public interface ContractStore extends ContentStore {
+}
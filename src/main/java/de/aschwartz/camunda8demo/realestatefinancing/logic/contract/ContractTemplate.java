@@ -0,0 +1,235 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.contract;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.encoding.GlyphList;
+import org.apache.pdfbox.pdmodel.font.encoding.WinAnsiEncoding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Precompiled page layout of the credit contract.
+ * <p>
+ * Everything that does not depend on the offer (title, section headers, labels, rules, disclaimer and
+ * signature block) is written once into a flate-compressed content stream. Per contract only the
+ * values are stamped in: each {@link Slot} carries the ready-made operator prefix for its position and
+ * font, so rendering a value is a hex-encoded string plus a fixed suffix.
+ * <p>
+ * Fonts are referenced by the fixed resource names {@link #FONT_REGULAR}, {@link #FONT_BOLD} and
+ * {@link #FONT_OBLIQUE}. Instances are immutable and can be shared between threads.
+ */
+public final class ContractTemplate {
+
+	static final COSName FONT_REGULAR = COSName.getPDFName("F1");
+	static final COSName FONT_BOLD = COSName.getPDFName("F2");
+	static final COSName FONT_OBLIQUE = COSName.getPDFName("F3");
+
+	private static final float MARGIN = 48f;
+	private static final float KEY_WIDTH = 170f;
+	private static final float RULE_WIDTH = 520f;
+
+	private static final byte[] TEXT_SUFFIX = " Tj ET\n".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * WinAnsi codes for the Latin-1 range, -1 where a code point has no glyph.
+	 */
+	private static final int[] LATIN1_CODES = new int[256];
+
+	static {
+		for (int cp = 0; cp < LATIN1_CODES.length; cp++) {
+			LATIN1_CODES[cp] = lookupCode(cp);
+		}
+	}
+
+	private final byte[] staticContent;
+	private final Slot[] slots;
+
+	private ContractTemplate(byte[] staticContent, Slot[] slots) {
+		this.staticContent = staticContent;
+		this.slots = slots;
+	}
+
+	/**
+	 * Compiles the contract layout.
+	 *
+	 * @param withShortName whether the layout contains the "Kurzbezeichnung" row
+	 * @return compiled template
+	 */
+	public static ContractTemplate compile(boolean withShortName) {
+		Layout layout = new Layout();
+
+		layout.title("Kreditvertrag (Demo)", ContractField.CREATED_AT);
+
+		layout.skip(16);
+		layout.sectionHeader("Anbieter & Vermittler");
+		layout.skip(10);
+
+		layout.keyValue("Vermittler", ContractField.VERMITTLER);
+		layout.keyValue("Anbieter / Bank", ContractField.BANK_NAME);
+		if (withShortName) {
+			layout.keyValue("Kurzbezeichnung", ContractField.BANK_SHORT_NAME);
+		}
+		layout.keyValue("Adresse", ContractField.ADDRESS);
+
+		layout.skip(14);
+		layout.sectionHeader("Konditionen");
+		layout.skip(10);
+
+		layout.keyValue("Sollzins (%)", ContractField.SOLLZINS);
+		layout.keyValue("Effektivzins (%)", ContractField.EFFEKTIVZINS);
+		layout.keyValue("Monatliche Rate (€)", ContractField.MONATLICHE_RATE);
+		layout.keyValue("Anfängliche Tilgung (%)", ContractField.ANFAENGLICHE_TILGUNG);
+		layout.keyValue("Zinsbindung (Jahre)", ContractField.ZINSBINDUNG);
+		layout.keyValue("Darlehensbetrag (€)", ContractField.DARLEHENSBETRAG);
+		layout.keyValue("Kaufpreis (€)", ContractField.KAUFPREIS);
+		layout.keyValue("Restschuld Ende Zinsbindung (€)", ContractField.RESTSCHULD);
+		layout.keyValue("Zinskosten Ende Zinsbindung (€)", ContractField.ZINSKOSTEN);
+		layout.keyValue("Gesamtlaufzeit (Monate)", ContractField.GESAMTLAUFZEIT);
+		layout.keyValue("Beleihungsauslauf (%)", ContractField.BELEIHUNGSAUSLAUF);
+		layout.keyValue("Gesamtkosten (€)", ContractField.GESAMTKOSTEN);
+
+		layout.skip(16);
+		layout.text(FONT_OBLIQUE, 9, MARGIN,
+				"Hinweis: Dieses Dokument ist eine Demo und stellt keinen rechtsverbindlichen Vertrag dar.");
+		layout.skip(28);
+
+		layout.sectionHeader("Unterschrift");
+		layout.skip(18);
+
+		layout.text(FONT_REGULAR, 11, MARGIN, "Ort / Datum:");
+		layout.rule(MARGIN + 70, MARGIN + 260, 3);
+		layout.skip(26);
+
+		layout.text(FONT_REGULAR, 11, MARGIN, "Unterschrift Kunde:");
+		layout.rule(MARGIN + 110, MARGIN + 420, 3);
+
+		return new ContractTemplate(deflate(layout.content.toByteArray()), layout.slots.toArray(Slot[]::new));
+	}
+
+	/**
+	 * Returns the flate-compressed static content stream. The array is shared; do not modify it.
+	 *
+	 * @return compressed content bytes
+	 */
+	byte[] staticContent() {
+		return staticContent;
+	}
+
+	/**
+	 * Writes the content stream operators that stamp the values into their slots.
+	 *
+	 * @param values values indexed by {@link ContractField#ordinal()}
+	 * @param out    target buffer
+	 */
+	void writeValues(String[] values, ByteArrayOutputStream out) {
+		for (Slot slot : slots) {
+			out.writeBytes(slot.prefix());
+			writeString(values[slot.field().ordinal()], out);
+			out.writeBytes(TEXT_SUFFIX);
+		}
+	}
+
+	/**
+	 * Writes a string as WinAnsi-encoded hex string operand.
+	 */
+	private static void writeString(String text, ByteArrayOutputStream out) {
+		out.write('<');
+		for (int i = 0; i < text.length(); ) {
+			int cp = text.codePointAt(i);
+			int code = cp < LATIN1_CODES.length ? LATIN1_CODES[cp] : lookupCode(cp);
+			if (code < 0) {
+				throw new IllegalArgumentException("U+%04X is not available in WinAnsiEncoding".formatted(cp));
+			}
+			out.write(HEX[code >>> 4]);
+			out.write(HEX[code & 0xF]);
+			i += Character.charCount(cp);
+		}
+		out.write('>');
+	}
+
+	private static int lookupCode(int cp) {
+		String name = GlyphList.getAdobeGlyphList().codePointToName(cp);
+		Integer code = WinAnsiEncoding.INSTANCE.getNameToCodeMap().get(name);
+		return code != null ? code : -1;
+	}
+
+	private static String textPrefix(COSName font, float size, float x, float y) {
+		return "BT /" + font.getName() + " " + num(size) + " Tf " + num(x) + " " + num(y) + " Td ";
+	}
+
+	private static String num(float value) {
+		return BigDecimal.valueOf(value).setScale(3, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+	}
+
+	private static byte[] deflate(byte[] content) {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2);
+		try (DeflaterOutputStream out = new DeflaterOutputStream(compressed)) {
+			out.write(content);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return compressed.toByteArray();
+	}
+
+	/**
+	 * Value position with its precomputed {@code BT /Font size Tf x y Td} prefix.
+	 */
+	private record Slot(ContractField field, byte[] prefix) {
+	}
+
+	/**
+	 * Top-down layout cursor that records static operators and value slots.
+	 */
+	private static final class Layout {
+
+		private final ByteArrayOutputStream content = new ByteArrayOutputStream(4096);
+		private final List<Slot> slots = new ArrayList<>();
+		private float y = PDRectangle.A4.getHeight() - MARGIN;
+
+		void skip(float amount) {
+			y -= amount;
+		}
+
+		void title(String title, ContractField subtitle) {
+			text(FONT_BOLD, 20, MARGIN, title);
+			y -= 20;
+			slot(subtitle, FONT_REGULAR, 11, MARGIN);
+		}
+
+		void sectionHeader(String text) {
+			text(FONT_BOLD, 13, MARGIN, text);
+			rule(MARGIN, MARGIN + RULE_WIDTH, 4);
+			y -= 2;
+		}
+
+		void keyValue(String key, ContractField value) {
+			text(FONT_BOLD, 10.5f, MARGIN, key + ":");
+			slot(value, FONT_REGULAR, 10.5f, MARGIN + KEY_WIDTH);
+			y -= 14;
+		}
+
+		void text(COSName font, float size, float x, String text) {
+			content.writeBytes(textPrefix(font, size, x, y).getBytes(StandardCharsets.US_ASCII));
+			writeString(text, content);
+			content.writeBytes(TEXT_SUFFIX);
+		}
+
+		void slot(ContractField field, COSName font, float size, float x) {
+			slots.add(new Slot(field, textPrefix(font, size, x, y).getBytes(StandardCharsets.US_ASCII)));
+		}
+
+		void rule(float x1, float x2, float below) {
+			String line = num(x1) + " " + num(y - below) + " m " + num(x2) + " " + num(y - below) + " l S\n";
+			content.writeBytes(line.getBytes(StandardCharsets.US_ASCII));
+		}
+	}
+}
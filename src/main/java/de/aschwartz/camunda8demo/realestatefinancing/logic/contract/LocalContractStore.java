@@ -0,0 +1,25 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.contract;
+
+import de.aschwartz.camunda8demo.realestatefinancing.logic.store.LocalContentStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link ContractStore} backed by a sharded directory tree, e.g. a volume shared between nodes.
+ * <p>
+ * Contracts are stored as {@code <path>/<h0h1>/<h2h3>/<hash>.pdf}; see {@link LocalContentStore}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "camunda8demo.contract-store", name = "type", havingValue = "local", matchIfMissing = true)
+public class LocalContractStore extends LocalContentStore implements ContractStore {
+
+	/**
+	 * Creates the store and its root directories.
+	 *
+	 * @param path root directory of the store
+	 */
+	public LocalContractStore(@Value("${camunda8demo.contract-store.local.path:${camunda8demo.pdf-path}}") String path) {
+		super("contract", path, ".pdf");
+	}
+}
@@ -0,0 +1,95 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.credit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Calculates annuity (constant monthly) payments.
+ * <p>
+ * {@code payment = loan * r / (1 - (1 + r)^-n)} with the monthly rate {@code r} rounded to 10 digits
+ * and {@code (1 + r)^-n} rounded to 20 digits. The power is computed with {@link BigDecimal#pow(int,
+ * MathContext)} at 50 significant digits instead of exactly, which leaves the 20-digit result and thus
+ * the payment unchanged, and the denominator is cached per (rate, term) pair since there are only a
+ * few distinct bank rates.
+ */
+@Component
+public class AnnuityCalculator {
+
+	private static final MathContext POW_CONTEXT = new MathContext(50, RoundingMode.HALF_EVEN);
+	private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+	private static final BigDecimal MONTHS_PER_YEAR = BigDecimal.valueOf(12);
+	private static final int RATE_SCALE = 10;
+	private static final int DISCOUNT_SCALE = 20;
+
+	private final ConcurrentMap<Key, BigDecimal> denominators = new ConcurrentHashMap<>();
+	private final int maxCachedEntries;
+
+	/**
+	 * Creates the calculator.
+	 *
+	 * @param maxCachedEntries maximum number of cached (rate, term) pairs
+	 */
+	public AnnuityCalculator(@Value("${camunda8demo.annuity.max-cached-entries:1024}") int maxCachedEntries) {
+		this.maxCachedEntries = maxCachedEntries;
+	}
+
+	/**
+	 * Converts an annual interest rate in percent to the monthly rate.
+	 *
+	 * @param annualInterestRate annual interest rate in percent, e.g. {@code 3.25}
+	 * @return monthly rate as fraction, scale 10
+	 */
+	public BigDecimal monthlyRate(BigDecimal annualInterestRate) {
+		return annualInterestRate
+				.divide(HUNDRED, RATE_SCALE, RoundingMode.HALF_UP)
+				.divide(MONTHS_PER_YEAR, RATE_SCALE, RoundingMode.HALF_UP);
+	}
+
+	/**
+	 * Calculates the monthly payment that repays the loan within the term.
+	 *
+	 * @param loanAmount         loan amount
+	 * @param annualInterestRate annual interest rate in percent
+	 * @param months             term in months
+	 * @return monthly payment, scale 2; empty if the rate does not yield a plausible annuity
+	 */
+	public Optional<BigDecimal> monthlyPayment(BigDecimal loanAmount, BigDecimal annualInterestRate, int months) {
+		BigDecimal monthlyRate = monthlyRate(annualInterestRate);
+		BigDecimal denominator = denominator(monthlyRate, months);
+		if (denominator.signum() <= 0) {
+			return Optional.empty();
+		}
+		return Optional.of(loanAmount
+				.multiply(monthlyRate)
+				.divide(denominator, 2, RoundingMode.HALF_UP));
+	}
+
+	/**
+	 * Returns {@code 1 - round((1 + r)^-n, 20)}.
+	 */
+	private BigDecimal denominator(BigDecimal monthlyRate, int months) {
+		Key key = new Key(monthlyRate, months);
+		BigDecimal cached = denominators.get(key);
+		if (cached != null) {
+			return cached;
+		}
+
+		BigDecimal pow = BigDecimal.ONE.add(monthlyRate).pow(months, POW_CONTEXT);
+		BigDecimal denominator = BigDecimal.ONE.subtract(BigDecimal.ONE.divide(pow, DISCOUNT_SCALE, RoundingMode.HALF_UP));
+
+		if (denominators.size() < maxCachedEntries) {
+			denominators.putIfAbsent(key, denominator);
+		}
+		return denominator;
+	}
+
+	private record Key(BigDecimal monthlyRate, int months) {
+	}
+}
@@ -0,0 +1,267 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.credit;
+
+import de.aschwartz.camunda8demo.realestatefinancing.config.ComparisonProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Calculates bank interest rates from precompiled bank definitions.
+ * <p>
+ * Each bank's constants are converted once into scaled {@code long}s, so a rate is computed with a
+ * handful of long operations and without allocating. The applicant values are converted once per
+ * request ({@link #input}) and shared by all banks. The results are identical to the
+ * {@code BigDecimal} formula
+ * <pre>
+ * ratio = equity / propertyValue          (6 digits, HALF_UP)
+ * rate  = max(baseRate - ratio * equityDiscountFactor - incomeBonus, floor)   (2 digits, HALF_UP)
+ * </pre>
+ * which is still used as fallback for values that do not fit the scaled representation (more than
+ * two decimals in the applicant values or overflow).
+ */
+@Component
+@Slf4j
+public class BankRateEngine {
+
+	private static final int RATIO_SCALE = 6;
+	private static final int MONEY_SCALE = 2;
+	private static final int MAX_SCALE = 18;
+	private static final long[] POW10 = new long[MAX_SCALE + 1];
+
+	static {
+		POW10[0] = 1;
+		for (int i = 1; i < POW10.length; i++) {
+			POW10[i] = POW10[i - 1] * 10;
+		}
+	}
+
+	private final Map<String, CompiledBank> banks;
+
+	/**
+	 * Compiles the registered banks.
+	 *
+	 * @param bankRegistry bank definitions
+	 */
+	public BankRateEngine(BankRegistry bankRegistry) {
+		Map<String, CompiledBank> compiled = new LinkedHashMap<>();
+		for (ComparisonProperties.Bank bank : bankRegistry.banks()) {
+			compiled.put(bank.getId(), new CompiledBank(bank));
+		}
+		this.banks = Collections.unmodifiableMap(compiled);
+		log.info("Rate engine loaded {} banks: {}", compiled.size(), compiled.keySet());
+	}
+
+	/**
+	 * Prepares the applicant values for rate calculations.
+	 *
+	 * @param monthlyNetIncome monthly net income, may be {@code null}
+	 * @param propertyValue    property value, may be {@code null}
+	 * @param equity           equity, may be {@code null}
+	 * @return input shared by all bank calculations of the request
+	 */
+	public RateInput input(BigDecimal monthlyNetIncome, BigDecimal propertyValue, BigDecimal equity) {
+		return new RateInput(monthlyNetIncome, propertyValue, equity);
+	}
+
+	/**
+	 * Calculates the interest rate of one bank.
+	 *
+	 * @param bankId configured bank id
+	 * @param input  prepared applicant values
+	 * @return interest rate in percent, scale 2
+	 */
+	public BigDecimal interestRate(String bankId, RateInput input) {
+		CompiledBank bank = banks.get(bankId);
+		if (bank == null) {
+			throw new IllegalArgumentException("Unknown bank: " + bankId);
+		}
+
+		BigDecimal rate = null;
+		if (bank.exact && input.exact) {
+			try {
+				rate = BigDecimal.valueOf(hundredths(bank, input), MONEY_SCALE);
+			} catch (ArithmeticException e) {
+				// overflow, fall back below
+			}
+		}
+		if (rate == null) {
+			rate = bigDecimalRate(bank, input);
+		}
+
+		if (log.isDebugEnabled()) {
+			log.debug("Calculated interest rate {} for bank {} (base {})", rate, bank.id, bank.baseRate);
+		}
+		return rate;
+	}
+
+	private static long hundredths(CompiledBank bank, RateInput input) {
+		long rate = Math.subtractExact(bank.base, Math.multiplyExact(input.ratioMicros, bank.discountMultiplier));
+		if (input.hasIncome && input.incomeCents >= bank.thresholdCents) {
+			rate = Math.subtractExact(rate, bank.bonus);
+		}
+		return divideHalfUp(Math.max(rate, bank.floorValue), bank.roundingDivisor);
+	}
+
+	private static BigDecimal bigDecimalRate(CompiledBank bank, RateInput input) {
+		BigDecimal propertyValue = input.propertyValue;
+		BigDecimal equity = input.equity;
+		BigDecimal monthlyNetIncome = input.monthlyNetIncome;
+
+		BigDecimal equityRatio =
+				(propertyValue != null && propertyValue.signum() > 0 && equity != null)
+						? equity.divide(propertyValue, RATIO_SCALE, RoundingMode.HALF_UP)
+						: BigDecimal.ZERO;
+
+		BigDecimal equityDiscount = equityRatio.multiply(bank.equityDiscountFactor);
+		BigDecimal incomeBonus =
+				(monthlyNetIncome != null && monthlyNetIncome.compareTo(bank.incomeBonusThreshold) >= 0)
+						? bank.incomeBonus
+						: BigDecimal.ZERO;
+
+		return bank.baseRate
+				.subtract(equityDiscount)
+				.subtract(incomeBonus)
+				.max(bank.floor)
+				.setScale(MONEY_SCALE, RoundingMode.HALF_UP);
+	}
+
+	/**
+	 * Divides and rounds half away from zero, like {@link RoundingMode#HALF_UP}.
+	 */
+	private static long divideHalfUp(long dividend, long divisor) {
+		long quotient = dividend / divisor;
+		long remainder = Math.abs(dividend % divisor);
+		if (remainder != 0 && remainder >= Math.abs(divisor) - remainder) {
+			quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+		}
+		return quotient;
+	}
+
+	/**
+	 * Returns the unscaled value of {@code value} at {@code scale}.
+	 *
+	 * @throws ArithmeticException if rounding would be necessary or the value does not fit a long
+	 */
+	private static long unscaled(BigDecimal value, int scale) {
+		return value.setScale(scale).unscaledValue().longValueExact();
+	}
+
+	/**
+	 * Applicant values prepared for rate calculations.
+	 */
+	public static final class RateInput {
+
+		private final BigDecimal monthlyNetIncome;
+		private final BigDecimal propertyValue;
+		private final BigDecimal equity;
+
+		private final boolean exact;
+		private final long ratioMicros;
+		private final boolean hasIncome;
+		private final long incomeCents;
+
+		private RateInput(BigDecimal monthlyNetIncome, BigDecimal propertyValue, BigDecimal equity) {
+			this.monthlyNetIncome = monthlyNetIncome;
+			this.propertyValue = propertyValue;
+			this.equity = equity;
+
+			boolean fits = true;
+			long ratio = 0;
+			long income = 0;
+			try {
+				if (propertyValue != null && propertyValue.signum() > 0 && equity != null) {
+					long equityCents = unscaled(equity, MONEY_SCALE);
+					long propertyCents = unscaled(propertyValue, MONEY_SCALE);
+					ratio = divideHalfUp(Math.multiplyExact(equityCents, POW10[RATIO_SCALE]), propertyCents);
+				}
+				if (monthlyNetIncome != null) {
+					income = unscaled(monthlyNetIncome, MONEY_SCALE);
+				}
+			} catch (ArithmeticException e) {
+				fits = false;
+			}
+			this.exact = fits;
+			this.ratioMicros = ratio;
+			this.hasIncome = monthlyNetIncome != null;
+			this.incomeCents = income;
+		}
+	}
+
+	/**
+	 * Bank constants, as {@code BigDecimal} for the fallback and as longs scaled to {@code scale}.
+	 */
+	private static final class CompiledBank {
+
+		private final String id;
+		private final BigDecimal baseRate;
+		private final BigDecimal equityDiscountFactor;
+		private final BigDecimal incomeBonusThreshold;
+		private final BigDecimal incomeBonus;
+		private final BigDecimal floor;
+
+		private final boolean exact;
+		private final long base;
+		private final long discountMultiplier;
+		private final long bonus;
+		private final long floorValue;
+		private final long thresholdCents;
+		private final long roundingDivisor;
+
+		private CompiledBank(ComparisonProperties.Bank bank) {
+			this.id = bank.getId();
+			this.baseRate = require(bank.getBaseRate(), "base-rate", bank);
+			this.equityDiscountFactor = require(bank.getEquityDiscountFactor(), "equity-discount-factor", bank);
+			this.incomeBonusThreshold = require(bank.getIncomeBonusThreshold(), "income-bonus-threshold", bank);
+			this.incomeBonus = require(bank.getIncomeBonus(), "income-bonus", bank);
+			this.floor = require(bank.getFloor(), "floor", bank);
+
+			// ratio (scale 6) * factor (scale f) has scale 6 + f; all terms are brought to a common scale.
+			int factorScale = Math.max(0, equityDiscountFactor.scale());
+			int scale = Math.max(RATIO_SCALE + factorScale,
+					Math.max(baseRate.scale(), Math.max(incomeBonus.scale(), Math.max(floor.scale(), MONEY_SCALE))));
+
+			boolean fits = scale <= MAX_SCALE;
+			long baseValue = 0;
+			long multiplier = 0;
+			long bonusValue = 0;
+			long floorScaled = 0;
+			long threshold = 0;
+			if (fits) {
+				try {
+					baseValue = unscaled(baseRate, scale);
+					multiplier = Math.multiplyExact(unscaled(equityDiscountFactor, factorScale),
+							POW10[scale - RATIO_SCALE - factorScale]);
+					bonusValue = unscaled(incomeBonus, scale);
+					floorScaled = unscaled(floor, scale);
+					// income has at most two decimals: income >= threshold <=> incomeCents >= ceil(threshold * 100)
+					threshold = incomeBonusThreshold.setScale(MONEY_SCALE, RoundingMode.CEILING).unscaledValue().longValueExact();
+				} catch (ArithmeticException e) {
+					fits = false;
+				}
+			}
+			if (!fits) {
+				log.warn("Bank {} constants exceed the scaled long range; rates are calculated with BigDecimal.", id);
+			}
+
+			this.exact = fits;
+			this.base = baseValue;
+			this.discountMultiplier = multiplier;
+			this.bonus = bonusValue;
+			this.floorValue = floorScaled;
+			this.thresholdCents = threshold;
+			this.roundingDivisor = fits ? POW10[scale - MONEY_SCALE] : 1;
+		}
+
+		private static BigDecimal require(BigDecimal value, String property, ComparisonProperties.Bank bank) {
+			if (value == null) {
+				throw new IllegalStateException("Bank " + bank.getId() + " has no " + property);
+			}
+			return value;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.credit;
+
+import de.aschwartz.camunda8demo.realestatefinancing.config.ComparisonProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Banks taking part in the credit comparison, as configured under
+ * {@code camunda8demo.comparison.banks}.
+ * <p>
+ * The comparison process runs one {@code request-bank-conditions} instance per entry of
+ * {@link #bankIds()}, so banks are added or removed by configuration only.
+ */
+@Component
+public class BankRegistry {
+
+	private final Map<String, ComparisonProperties.Bank> banks;
+	private final List<String> bankIds;
+
+	/**
+	 * Creates the registry.
+	 *
+	 * @param comparisonProperties bank definitions
+	 */
+	public BankRegistry(ComparisonProperties comparisonProperties) {
+		Map<String, ComparisonProperties.Bank> byId = new LinkedHashMap<>();
+		for (ComparisonProperties.Bank bank : comparisonProperties.getBanks()) {
+			if (bank.getId() == null || bank.getId().isBlank()) {
+				throw new IllegalStateException("Bank without id: " + bank.getName());
+			}
+			if (byId.put(bank.getId(), bank) != null) {
+				throw new IllegalStateException("Duplicate bank id: " + bank.getId());
+			}
+		}
+		if (byId.isEmpty()) {
+			throw new IllegalStateException("No banks configured under camunda8demo.comparison.banks");
+		}
+		this.banks = Collections.unmodifiableMap(byId);
+		this.bankIds = List.copyOf(byId.keySet());
+	}
+
+	/**
+	 * Returns the ids of all banks in configuration order.
+	 *
+	 * @return bank ids
+	 */
+	public List<String> bankIds() {
+		return bankIds;
+	}
+
+	/**
+	 * Returns all banks in configuration order.
+	 *
+	 * @return bank definitions
+	 */
+	public List<ComparisonProperties.Bank> banks() {
+		return List.copyOf(banks.values());
+	}
+
+	/**
+	 * Looks up a bank.
+	 *
+	 * @param bankId bank id
+	 * @return bank definition
+	 * @throws IllegalArgumentException if the bank is unknown
+	 */
+	public ComparisonProperties.Bank get(String bankId) {
+		ComparisonProperties.Bank bank = banks.get(bankId);
+		if (bank == null) {
+			throw new IllegalArgumentException("Unknown bank: " + bankId);
+		}
+		return bank;
+	}
+}
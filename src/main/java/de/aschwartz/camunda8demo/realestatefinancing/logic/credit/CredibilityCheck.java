@@ -0,0 +1,68 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.credit;
+
+import de.aschwartz.camunda8demo.realestatefinancing.logic.dmn.DecisionTable;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.dmn.DmnCompiler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Evaluates {@code checkCredibilityDecision} in-process, for pre-screening before a dmn-credit process
+ * is started.
+ * <p>
+ * Compiles the same {@code check-credibility.dmn} that is deployed with the dmn-credit process, so the
+ * result equals the {@code decision} variable the business rule task would set, including
+ * {@code null} when no rule matches.
+ */
+@Component
+@Slf4j
+public class CredibilityCheck {
+
+	static final String DECISION_ID = "checkCredibilityDecision";
+
+	private final DecisionTable decisionTable;
+
+	/**
+	 * Loads and compiles the decision.
+	 *
+	 * @param resourceLoader resource loader
+	 * @param location       location of the DMN file
+	 */
+	public CredibilityCheck(
+			ResourceLoader resourceLoader,
+			@Value("${camunda8demo.credibility-check.decision:classpath:processes/dmncredit/check-credibility.dmn}") String location
+	) {
+		Resource resource = resourceLoader.getResource(location);
+		try (InputStream in = resource.getInputStream()) {
+			this.decisionTable = DmnCompiler.compile(in).get(DECISION_ID);
+		} catch (IOException | RuntimeException e) {
+			throw new IllegalStateException("Decision %s could not be loaded from %s".formatted(DECISION_ID, location), e);
+		}
+		if (decisionTable == null) {
+			throw new IllegalStateException("Decision %s not found in %s".formatted(DECISION_ID, location));
+		}
+		if (!decisionTable.inputNames().equals(List.of("monthlyNetIncome", "propertyValue", "equity"))) {
+			throw new IllegalStateException("Decision %s has unexpected inputs %s".formatted(DECISION_ID, decisionTable.inputNames()));
+		}
+		log.info("Decision {} loaded from {} ({} rules)", DECISION_ID, location, decisionTable.ruleCount());
+	}
+
+	/**
+	 * Evaluates the decision.
+	 *
+	 * @param monthlyNetIncome monthly net income
+	 * @param propertyValue    property value
+	 * @param equity           equity amount
+	 * @return decision, {@code null} if no rule matches
+	 */
+	public Boolean decide(BigDecimal monthlyNetIncome, BigDecimal propertyValue, BigDecimal equity) {
+		return (Boolean) decisionTable.evaluate(monthlyNetIncome, propertyValue, equity);
+	}
+}
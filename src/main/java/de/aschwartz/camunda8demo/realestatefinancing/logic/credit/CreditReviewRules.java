@@ -0,0 +1,156 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.credit;
+
+import de.aschwartz.camunda8demo.realestatefinancing.logic.dmn.DecisionTable;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.dmn.DmnCompiler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Credit review rules from a DMN file ({@code camunda8demo.credit-review.rules}, by default
+ * {@code classpath:rules/credit-review.dmn}), compiled by {@link DmnCompiler}.
+ * <p>
+ * The file contains three decisions: {@code creditReviewKnockout} (FIRST, rejection reason or none),
+ * {@code creditReviewScore} (COLLECT SUM) and {@code creditReviewApproval} (FIRST on the score). When
+ * the file changes it is recompiled and swapped in atomically; a file that does not compile is
+ * logged and the previous rules stay active.
+ */
+@Component
+@Slf4j
+public class CreditReviewRules {
+
+	static final String KNOCKOUT_DECISION = "creditReviewKnockout";
+	static final String SCORE_DECISION = "creditReviewScore";
+	static final String APPROVAL_DECISION = "creditReviewApproval";
+
+	private static final String SCORE_TOO_LOW = "Score too low (risk too high)";
+
+	private final Resource resource;
+	private volatile Rules rules;
+	private volatile long lastModified;
+
+	/**
+	 * Loads and compiles the rules.
+	 *
+	 * @param resourceLoader resource loader
+	 * @param location       location of the DMN file
+	 */
+	public CreditReviewRules(
+			ResourceLoader resourceLoader,
+			@Value("${camunda8demo.credit-review.rules:classpath:rules/credit-review.dmn}") String location
+	) {
+		this.resource = resourceLoader.getResource(location);
+		this.lastModified = lastModified();
+		try {
+			this.rules = load();
+		} catch (IOException | RuntimeException e) {
+			throw new IllegalStateException("Credit review rules %s could not be loaded".formatted(location), e);
+		}
+		log.info("Credit review rules loaded from {}", location);
+	}
+
+	/**
+	 * Reviews an application.
+	 *
+	 * @param equityRatio  equity / property value
+	 * @param ltv          loan amount / property value
+	 * @param dti          monthly payment / monthly net income
+	 * @param interestRate interest rate in percent
+	 * @return review outcome
+	 */
+	public Review review(BigDecimal equityRatio, BigDecimal ltv, BigDecimal dti, BigDecimal interestRate) {
+		Rules current = rules;
+
+		String rejectionReason = (String) current.knockout().evaluate(equityRatio, ltv, dti);
+		if (rejectionReason != null) {
+			return new Review(false, rejectionReason, null);
+		}
+
+		BigDecimal score = (BigDecimal) current.score().evaluate(equityRatio, interestRate, dti);
+		if (score == null) {
+			score = BigDecimal.ZERO;
+		}
+		boolean accepted = Boolean.TRUE.equals(current.approval().evaluate(score));
+		return new Review(accepted, accepted ? null : SCORE_TOO_LOW, score);
+	}
+
+	/**
+	 * Recompiles the rules if the file has changed since it was last loaded.
+	 */
+	@Scheduled(fixedDelayString = "${camunda8demo.credit-review.reload-interval:10s}")
+	public void reloadIfModified() {
+		long modified = lastModified();
+		if (modified <= 0 || modified == lastModified) {
+			return;
+		}
+		lastModified = modified;
+		try {
+			rules = load();
+			log.info("Credit review rules reloaded from {}", resource);
+		} catch (IOException | RuntimeException e) {
+			log.error("Credit review rules {} could not be reloaded, keeping the previous rules", resource, e);
+		}
+	}
+
+	private Rules load() throws IOException {
+		Map<String, DecisionTable> tables;
+		try (InputStream in = resource.getInputStream()) {
+			tables = DmnCompiler.compile(in);
+		}
+		return new Rules(
+				table(tables, KNOCKOUT_DECISION, DecisionTable.HitPolicy.FIRST, "equityRatio", "ltv", "dti"),
+				table(tables, SCORE_DECISION, DecisionTable.HitPolicy.COLLECT_SUM, "equityRatio", "interestRate", "dti"),
+				table(tables, APPROVAL_DECISION, DecisionTable.HitPolicy.FIRST, "score")
+		);
+	}
+
+	/**
+	 * Looks up a decision and checks the columns, since the tables are evaluated with positional inputs.
+	 */
+	private static DecisionTable table(
+			Map<String, DecisionTable> tables,
+			String decisionId,
+			DecisionTable.HitPolicy hitPolicy,
+			String... inputNames
+	) {
+		DecisionTable table = tables.get(decisionId);
+		if (table == null) {
+			throw new IllegalArgumentException("Decision %s is missing".formatted(decisionId));
+		}
+		if (table.hitPolicy() != hitPolicy || !table.inputNames().equals(List.of(inputNames))) {
+			throw new IllegalArgumentException("Decision %s must be %s over %s, is %s over %s".formatted(
+					decisionId, hitPolicy, List.of(inputNames), table.hitPolicy(), table.inputNames()));
+		}
+		return table;
+	}
+
+	private long lastModified() {
+		try {
+			return resource.isFile() ? resource.lastModified() : 0;
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Outcome of a review.
+	 *
+	 * @param accepted        whether the application is accepted
+	 * @param rejectionReason reason if rejected
+	 * @param score           score, {@code null} if a knockout criterion applied
+	 */
+	public record Review(boolean accepted, String rejectionReason, BigDecimal score) {
+	}
+
+	private record Rules(DecisionTable knockout, DecisionTable score, DecisionTable approval) {
+	}
+}
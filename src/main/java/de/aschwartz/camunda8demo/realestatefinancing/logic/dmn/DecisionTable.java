@@ -0,0 +1,236 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.dmn;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Decision table compiled into an in-memory evaluator (see {@link DmnCompiler}).
+ * <p>
+ * All boundaries of an input column are collected into a sorted array, which splits the number line
+ * into elementary segments (the open intervals between the boundaries and the boundaries
+ * themselves). For each segment the set of rules whose input entry contains it is precomputed as a
+ * bitset. An evaluation therefore costs one binary search per input and an AND over the bitsets,
+ * independent of how the entries are written; the matching rules are the remaining set bits in rule
+ * order.
+ */
+public final class DecisionTable {
+
+	/**
+	 * Supported hit policies.
+	 */
+	public enum HitPolicy {
+		/** Output of the first matching rule in rule order. */
+		FIRST,
+		/** Outputs of all matching rules in rule order. */
+		COLLECT,
+		/** Sum of the (numeric) outputs of all matching rules. */
+		COLLECT_SUM
+	}
+
+	private final String decisionId;
+	private final HitPolicy hitPolicy;
+	private final List<String> inputNames;
+	private final String outputName;
+	private final Object[] outputs;
+	private final InputIndex[] indexes;
+	private final int words;
+
+	DecisionTable(
+			String decisionId,
+			HitPolicy hitPolicy,
+			List<String> inputNames,
+			String outputName,
+			Object[] outputs,
+			InputIndex[] indexes
+	) {
+		this.decisionId = decisionId;
+		this.hitPolicy = hitPolicy;
+		this.inputNames = List.copyOf(inputNames);
+		this.outputName = outputName;
+		this.outputs = outputs;
+		this.indexes = indexes;
+		this.words = Math.max(1, (outputs.length + 63) >>> 6);
+	}
+
+	/**
+	 * Returns the decision id.
+	 *
+	 * @return decision id
+	 */
+	public String decisionId() {
+		return decisionId;
+	}
+
+	/**
+	 * Returns the hit policy.
+	 *
+	 * @return hit policy
+	 */
+	public HitPolicy hitPolicy() {
+		return hitPolicy;
+	}
+
+	/**
+	 * Returns the input variable names in column order.
+	 *
+	 * @return input names
+	 */
+	public List<String> inputNames() {
+		return inputNames;
+	}
+
+	/**
+	 * Returns the output name.
+	 *
+	 * @return output name
+	 */
+	public String outputName() {
+		return outputName;
+	}
+
+	/**
+	 * Returns the number of rules.
+	 *
+	 * @return rule count
+	 */
+	public int ruleCount() {
+		return outputs.length;
+	}
+
+	/**
+	 * Evaluates the table with named inputs.
+	 *
+	 * @param variables input values by name; numbers, numeric strings or {@code null}
+	 * @return output of the first rule ({@link HitPolicy#FIRST}), the list of outputs
+	 * ({@link HitPolicy#COLLECT}) or their sum ({@link HitPolicy#COLLECT_SUM}); {@code null} if no rule
+	 * matches, except for {@link HitPolicy#COLLECT}, which returns an empty list
+	 */
+	public Object evaluate(Map<String, ?> variables) {
+		BigDecimal[] values = new BigDecimal[indexes.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = toNumber(inputNames.get(i), variables.get(inputNames.get(i)));
+		}
+		return evaluate(values);
+	}
+
+	/**
+	 * Evaluates the table with inputs in column order.
+	 *
+	 * @param values input values in the order of {@link #inputNames()}; elements may be {@code null}
+	 * @return see {@link #evaluate(Map)}
+	 */
+	public Object evaluate(BigDecimal... values) {
+		if (values.length != indexes.length) {
+			throw new IllegalArgumentException("Decision %s expects %d inputs, got %d"
+					.formatted(decisionId, indexes.length, values.length));
+		}
+
+		long[] matches = new long[words];
+		Arrays.fill(matches, -1L);
+		for (int i = 0; i < indexes.length; i++) {
+			long[] rules = indexes[i].rules(values[i]);
+			for (int w = 0; w < words; w++) {
+				matches[w] &= rules[w];
+			}
+		}
+		return result(matches);
+	}
+
+	private Object result(long[] matches) {
+		switch (hitPolicy) {
+			case FIRST -> {
+				for (int w = 0; w < matches.length; w++) {
+					long bits = matches[w] & validBits(w);
+					if (bits != 0) {
+						return outputs[(w << 6) + Long.numberOfTrailingZeros(bits)];
+					}
+				}
+				return null;
+			}
+			case COLLECT -> {
+				List<Object> collected = new ArrayList<>();
+				forEachRule(matches, rule -> collected.add(outputs[rule]));
+				return Collections.unmodifiableList(collected);
+			}
+			case COLLECT_SUM -> {
+				BigDecimal sum = null;
+				for (int w = 0; w < matches.length; w++) {
+					long bits = matches[w] & validBits(w);
+					while (bits != 0) {
+						BigDecimal output = (BigDecimal) outputs[(w << 6) + Long.numberOfTrailingZeros(bits)];
+						if (output != null) {
+							sum = sum == null ? output : sum.add(output);
+						}
+						bits &= bits - 1;
+					}
+				}
+				return sum;
+			}
+			default -> throw new IllegalStateException("Unsupported hit policy " + hitPolicy);
+		}
+	}
+
+	private void forEachRule(long[] matches, IntConsumer action) {
+		for (int w = 0; w < matches.length; w++) {
+			long bits = matches[w] & validBits(w);
+			while (bits != 0) {
+				action.accept((w << 6) + Long.numberOfTrailingZeros(bits));
+				bits &= bits - 1;
+			}
+		}
+	}
+
+	private long validBits(int word) {
+		int remaining = outputs.length - (word << 6);
+		return remaining >= 64 ? -1L : (1L << remaining) - 1;
+	}
+
+	private BigDecimal toNumber(String name, Object value) {
+		if (value == null || value instanceof BigDecimal) {
+			return (BigDecimal) value;
+		}
+		if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			return BigDecimal.valueOf(((Number) value).longValue());
+		}
+		if (value instanceof Number number) {
+			return new BigDecimal(number.toString());
+		}
+		if (value instanceof String text && !text.isBlank()) {
+			return new BigDecimal(text.trim());
+		}
+		throw new IllegalArgumentException("Input '%s' of decision %s is not a number: %s"
+				.formatted(name, decisionId, value));
+	}
+
+	/**
+	 * Interval index of one input column.
+	 * <p>
+	 * Segment {@code 2i + 1} is {@code boundaries[i]} itself, segment {@code 2i} the open interval
+	 * below it, and segment {@code 2 * boundaries.length} the open interval above the last boundary.
+	 */
+	static final class InputIndex {
+
+		private final BigDecimal[] boundaries;
+		private final long[][] segmentRules;
+		private final long[] nullRules;
+
+		InputIndex(BigDecimal[] boundaries, long[][] segmentRules, long[] nullRules) {
+			this.boundaries = boundaries;
+			this.segmentRules = segmentRules;
+			this.nullRules = nullRules;
+		}
+
+		long[] rules(BigDecimal value) {
+			if (value == null) {
+				return nullRules;
+			}
+			int position = Arrays.binarySearch(boundaries, value, BigDecimal::compareTo);
+			return segmentRules[position >= 0 ? 2 * position + 1 : 2 * (-position - 1)];
+		}
+	}
+}
@@ -0,0 +1,322 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.dmn;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles the decision tables of a DMN file into {@link DecisionTable} evaluators.
+ * <p>
+ * Supported is the subset used by the rule files of this application:
+ * <ul>
+ *     <li>hit policies {@code FIRST}, {@code COLLECT} and {@code COLLECT} with aggregation {@code SUM}</li>
+ *     <li>input expressions that are plain variable names with numeric values</li>
+ *     <li>input entries {@code -}, comparisons ({@code < x}, {@code <= x}, {@code > x}, {@code >= x},
+ *     {@code = x} or just {@code x}), ranges ({@code [a..b]}, {@code (a..b]}, {@code ]a..b[}),
+ *     comma separated lists of these and {@code not(...)}</li>
+ *     <li>one output with a boolean, number or string literal per rule</li>
+ * </ul>
+ * Anything else is rejected with an {@link IllegalArgumentException} naming the decision and rule, so a
+ * table is never evaluated differently than the engine would.
+ */
+public final class DmnCompiler {
+
+	private static final Pattern NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+	private DmnCompiler() {
+	}
+
+	/**
+	 * Reads and compiles all decision tables of a DMN file.
+	 *
+	 * @param dmn DMN XML
+	 * @return compiled decision tables by decision id, in file order
+	 * @throws IOException              if the file cannot be read
+	 * @throws IllegalArgumentException if the file is not valid DMN or uses unsupported features
+	 */
+	public static Map<String, DecisionTable> compile(InputStream dmn) throws IOException {
+		Element definitions = parse(dmn);
+		Map<String, DecisionTable> tables = new LinkedHashMap<>();
+		for (Element decision : children(definitions, "decision")) {
+			String decisionId = decision.getAttribute("id");
+			Element decisionTable = child(decision, "decisionTable");
+			if (decisionTable == null) {
+				throw new IllegalArgumentException("Decision %s is not a decision table".formatted(decisionId));
+			}
+			tables.put(decisionId, compileTable(decisionId, decisionTable));
+		}
+		if (tables.isEmpty()) {
+			throw new IllegalArgumentException("DMN file contains no decisions");
+		}
+		return Collections.unmodifiableMap(tables);
+	}
+
+	private static DecisionTable compileTable(String decisionId, Element table) {
+		DecisionTable.HitPolicy hitPolicy = hitPolicy(decisionId, table);
+
+		List<String> inputNames = new ArrayList<>();
+		for (Element input : children(table, "input")) {
+			Element expression = child(input, "inputExpression");
+			String name = expression != null ? text(expression) : "";
+			if (!NAME.matcher(name).matches()) {
+				throw new IllegalArgumentException("Decision %s: input expression '%s' is not a variable name"
+						.formatted(decisionId, name));
+			}
+			inputNames.add(name);
+		}
+
+		List<Element> outputs = children(table, "output");
+		if (outputs.size() != 1) {
+			throw new IllegalArgumentException("Decision %s: exactly one output is supported, found %d"
+					.formatted(decisionId, outputs.size()));
+		}
+		String outputName = outputs.get(0).getAttribute("name");
+
+		List<Element> rules = children(table, "rule");
+		Entry[][] entries = new Entry[inputNames.size()][rules.size()];
+		Object[] outputValues = new Object[rules.size()];
+		for (int r = 0; r < rules.size(); r++) {
+			Element rule = rules.get(r);
+			String ruleId = rule.getAttribute("id");
+			List<Element> inputEntries = children(rule, "inputEntry");
+			if (inputEntries.size() != inputNames.size()) {
+				throw new IllegalArgumentException("Decision %s, rule %s: expected %d input entries, found %d"
+						.formatted(decisionId, ruleId, inputNames.size(), inputEntries.size()));
+			}
+			for (int c = 0; c < inputEntries.size(); c++) {
+				entries[c][r] = parseEntry(decisionId, ruleId, text(inputEntries.get(c)));
+			}
+			Element outputEntry = child(rule, "outputEntry");
+			outputValues[r] = parseOutput(decisionId, ruleId, outputEntry != null ? text(outputEntry) : "");
+			if (hitPolicy == DecisionTable.HitPolicy.COLLECT_SUM
+					&& outputValues[r] != null && !(outputValues[r] instanceof BigDecimal)) {
+				throw new IllegalArgumentException("Decision %s, rule %s: SUM requires numeric outputs"
+						.formatted(decisionId, ruleId));
+			}
+		}
+
+		DecisionTable.InputIndex[] indexes = new DecisionTable.InputIndex[inputNames.size()];
+		for (int c = 0; c < indexes.length; c++) {
+			indexes[c] = index(entries[c]);
+		}
+		return new DecisionTable(decisionId, hitPolicy, inputNames, outputName, outputValues, indexes);
+	}
+
+	private static DecisionTable.HitPolicy hitPolicy(String decisionId, Element table) {
+		String hitPolicy = table.getAttribute("hitPolicy");
+		String aggregation = table.getAttribute("aggregation");
+		if ("FIRST".equals(hitPolicy)) {
+			return DecisionTable.HitPolicy.FIRST;
+		}
+		if ("COLLECT".equals(hitPolicy) && aggregation.isEmpty()) {
+			return DecisionTable.HitPolicy.COLLECT;
+		}
+		if ("COLLECT".equals(hitPolicy) && "SUM".equals(aggregation)) {
+			return DecisionTable.HitPolicy.COLLECT_SUM;
+		}
+		throw new IllegalArgumentException("Decision %s: unsupported hit policy '%s' %s"
+				.formatted(decisionId, hitPolicy.isEmpty() ? "UNIQUE" : hitPolicy, aggregation).trim());
+	}
+
+	/**
+	 * Builds the interval index of one input column. Every segment between two boundaries is either
+	 * fully inside or fully outside each entry, so testing one representative value per segment is
+	 * enough.
+	 */
+	private static DecisionTable.InputIndex index(Entry[] column) {
+		TreeSet<BigDecimal> distinct = new TreeSet<>();
+		for (Entry entry : column) {
+			if (entry != null) {
+				for (Interval interval : entry.intervals()) {
+					if (interval.low() != null) distinct.add(interval.low());
+					if (interval.high() != null) distinct.add(interval.high());
+				}
+			}
+		}
+		BigDecimal[] boundaries = distinct.toArray(new BigDecimal[0]);
+
+		int words = Math.max(1, (column.length + 63) >>> 6);
+		long[][] segmentRules = new long[2 * boundaries.length + 1][words];
+		long[] nullRules = new long[words];
+		for (int segment = 0; segment < segmentRules.length; segment++) {
+			BigDecimal representative = representative(boundaries, segment);
+			for (int rule = 0; rule < column.length; rule++) {
+				if (column[rule] == null || column[rule].matches(representative)) {
+					segmentRules[segment][rule >>> 6] |= 1L << rule;
+				}
+			}
+		}
+		for (int rule = 0; rule < column.length; rule++) {
+			// Comparisons with null are not satisfied, only "-" matches a missing value.
+			if (column[rule] == null) {
+				nullRules[rule >>> 6] |= 1L << rule;
+			}
+		}
+		return new DecisionTable.InputIndex(boundaries, segmentRules, nullRules);
+	}
+
+	private static BigDecimal representative(BigDecimal[] boundaries, int segment) {
+		int i = segment >>> 1;
+		if (boundaries.length == 0) {
+			return BigDecimal.ZERO;
+		}
+		if ((segment & 1) == 1) {
+			return boundaries[i];
+		}
+		if (i == 0) {
+			return boundaries[0].subtract(BigDecimal.ONE);
+		}
+		if (i == boundaries.length) {
+			return boundaries[i - 1].add(BigDecimal.ONE);
+		}
+		return boundaries[i - 1].add(boundaries[i]).divide(BigDecimal.valueOf(2));
+	}
+
+	/**
+	 * Parses a unary test; {@code null} stands for "-" (any value, including none).
+	 */
+	private static Entry parseEntry(String decisionId, String ruleId, String text) {
+		String test = text.trim();
+		if (test.isEmpty() || test.equals("-")) {
+			return null;
+		}
+		try {
+			boolean negated = false;
+			if (test.startsWith("not(") && test.endsWith(")")) {
+				negated = true;
+				test = test.substring(4, test.length() - 1).trim();
+			}
+			List<Interval> intervals = new ArrayList<>();
+			for (String part : test.split(",")) {
+				intervals.add(parseInterval(part.trim()));
+			}
+			return new Entry(negated, intervals);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Decision %s, rule %s: unsupported input entry '%s'"
+					.formatted(decisionId, ruleId, text.trim()), e);
+		}
+	}
+
+	private static Interval parseInterval(String test) {
+		if (test.startsWith("<=")) return new Interval(null, false, number(test.substring(2)), true);
+		if (test.startsWith(">=")) return new Interval(number(test.substring(2)), true, null, false);
+		if (test.startsWith("<")) return new Interval(null, false, number(test.substring(1)), false);
+		if (test.startsWith(">")) return new Interval(number(test.substring(1)), false, null, false);
+		if (test.startsWith("=")) {
+			BigDecimal value = number(test.substring(1));
+			return new Interval(value, true, value, true);
+		}
+
+		char open = test.charAt(0);
+		if (open == '[' || open == '(' || open == ']') {
+			char close = test.charAt(test.length() - 1);
+			int separator = test.indexOf("..");
+			if (separator < 0 || (close != ']' && close != ')' && close != '[')) {
+				throw new IllegalArgumentException("Invalid range: " + test);
+			}
+			return new Interval(
+					number(test.substring(1, separator)), open == '[',
+					number(test.substring(separator + 2, test.length() - 1)), close == ']'
+			);
+		}
+
+		BigDecimal value = number(test);
+		return new Interval(value, true, value, true);
+	}
+
+	private static BigDecimal number(String text) {
+		return new BigDecimal(text.trim());
+	}
+
+	private static Object parseOutput(String decisionId, String ruleId, String text) {
+		String value = text.trim();
+		if (value.isEmpty() || value.equals("null")) return null;
+		if (value.equals("true")) return Boolean.TRUE;
+		if (value.equals("false")) return Boolean.FALSE;
+		if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+			return value.substring(1, value.length() - 1).replace("\\\"", "\"").replace("\\\\", "\\");
+		}
+		try {
+			return new BigDecimal(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Decision %s, rule %s: unsupported output entry '%s'"
+					.formatted(decisionId, ruleId, value), e);
+		}
+	}
+
+	private static Element parse(InputStream dmn) throws IOException {
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+			factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+			factory.setExpandEntityReferences(false);
+			return factory.newDocumentBuilder().parse(dmn).getDocumentElement();
+		} catch (ParserConfigurationException | SAXException e) {
+			throw new IllegalArgumentException("Invalid DMN file: " + e.getMessage(), e);
+		}
+	}
+
+	private static List<Element> children(Element parent, String localName) {
+		List<Element> result = new ArrayList<>();
+		for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+			if (node instanceof Element element && localName.equals(element.getLocalName())) {
+				result.add(element);
+			}
+		}
+		return result;
+	}
+
+	private static Element child(Element parent, String localName) {
+		List<Element> result = children(parent, localName);
+		return result.isEmpty() ? null : result.get(0);
+	}
+
+	private static String text(Element element) {
+		Element text = child(element, "text");
+		return (text != null ? text.getTextContent() : "").trim();
+	}
+
+	private record Interval(BigDecimal low, boolean lowInclusive, BigDecimal high, boolean highInclusive) {
+
+		boolean contains(BigDecimal value) {
+			if (low != null) {
+				int c = value.compareTo(low);
+				if (c < 0 || (c == 0 && !lowInclusive)) return false;
+			}
+			if (high != null) {
+				int c = value.compareTo(high);
+				if (c > 0 || (c == 0 && !highInclusive)) return false;
+			}
+			return true;
+		}
+	}
+
+	private record Entry(boolean negated, List<Interval> intervals) {
+
+		boolean matches(BigDecimal value) {
+			boolean contained = false;
+			for (Interval interval : intervals) {
+				if (interval.contains(value)) {
+					contained = true;
+					break;
+				}
+			}
+			return contained != negated;
+		}
+	}
+}
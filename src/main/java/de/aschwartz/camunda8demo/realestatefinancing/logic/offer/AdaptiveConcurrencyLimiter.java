@@ -0,0 +1,109 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.offer;
+
+import java.time.Duration;
+
+/**
+ * AIMD concurrency limiter for a single offer provider.
+ * <p>
+ * The limit grows additively (by {@code 1 / limit} per fast success, i.e. about one per round of
+ * calls) and shrinks multiplicatively when a call fails or its latency exceeds the threshold, so
+ * the number of in-flight requests follows what the provider can currently handle.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final long latencyThresholdNanos;
+	private final double backoffRatio;
+
+	private double limit;
+	private int inFlight;
+
+	/**
+	 * Creates the limiter.
+	 *
+	 * @param initialLimit     initial number of concurrent calls
+	 * @param minLimit         lower bound of the limit
+	 * @param maxLimit         upper bound of the limit
+	 * @param latencyThreshold latency above which a successful call counts as overload
+	 * @param backoffRatio     factor (0..1) the limit is multiplied with on overload
+	 */
+	public AdaptiveConcurrencyLimiter(
+			int initialLimit,
+			int minLimit,
+			int maxLimit,
+			Duration latencyThreshold,
+			double backoffRatio
+	) {
+		this.minLimit = Math.max(1, minLimit);
+		this.maxLimit = Math.max(this.minLimit, maxLimit);
+		this.latencyThresholdNanos = latencyThreshold.toNanos();
+		this.backoffRatio = backoffRatio;
+		this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+	}
+
+	/**
+	 * Reserves a slot for a call. Every acquired slot must be released with {@link #onSuccess(long)},
+	 * {@link #onDropped()} or {@link #onIgnored()}.
+	 *
+	 * @return {@code true} if the call may proceed
+	 */
+	public synchronized boolean tryAcquire() {
+		if (inFlight >= (int) limit) {
+			return false;
+		}
+		inFlight++;
+		return true;
+	}
+
+	/**
+	 * Releases a slot after a successful call.
+	 *
+	 * @param latencyNanos observed call latency
+	 */
+	public synchronized void onSuccess(long latencyNanos) {
+		inFlight--;
+		if (latencyNanos > latencyThresholdNanos) {
+			decrease();
+		} else {
+			limit = Math.min(maxLimit, limit + 1.0 / limit);
+		}
+	}
+
+	/**
+	 * Releases a slot after a failed or timed out call.
+	 */
+	public synchronized void onDropped() {
+		inFlight--;
+		decrease();
+	}
+
+	/**
+	 * Releases a slot without adjusting the limit, e.g. when the call was cancelled.
+	 */
+	public synchronized void onIgnored() {
+		inFlight--;
+	}
+
+	/**
+	 * Returns the current limit.
+	 *
+	 * @return concurrent calls allowed
+	 */
+	public synchronized int limit() {
+		return (int) limit;
+	}
+
+	/**
+	 * Returns the number of calls in flight.
+	 *
+	 * @return in-flight calls
+	 */
+	public synchronized int inFlight() {
+		return inFlight;
+	}
+
+	private void decrease() {
+		limit = Math.max(minLimit, limit * backoffRatio);
+	}
+}
@@ -0,0 +1,304 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.offer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * Streaming reader for offers API responses that keeps only the running cheapest offer.
+ * <p>
+ * The response is pushed chunk by chunk into a non-blocking Jackson parser ({@link Session}), so it
+ * is never held in memory as a whole. The tokens of each {@code angebote} element are walked
+ * directly: the element is recorded into a {@link TokenBuffer} until its
+ * {@code kondition.monatlicheRate} is known, recording stops as soon as it cannot beat the cheapest
+ * offer so far, and only the final winner is bound to {@link OffersResponse.Angebot}. No tree is
+ * built for the other offers.
+ */
+@Component
+public class CheapestOfferParser {
+
+	private static final int DEPTH_ROOT = 1;
+	private static final int DEPTH_OFFERS = 2;
+	private static final int DEPTH_OFFER = 3;
+	private static final int DEPTH_CONDITION = 4;
+
+	private final JsonFactory jsonFactory;
+	private final ObjectReader reader;
+
+	/**
+	 * Creates the parser.
+	 *
+	 * @param objectMapper application object mapper
+	 */
+	public CheapestOfferParser(ObjectMapper objectMapper) {
+		this.jsonFactory = objectMapper.getFactory();
+		// Keep monetary values exact when binding the winner.
+		this.reader = objectMapper.readerFor(OffersResponse.Angebot.class)
+				.with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+	}
+
+	/**
+	 * Opens a session to feed a response chunk by chunk.
+	 *
+	 * @param maxBytes maximum response size; larger responses fail
+	 * @return new session, to be closed by the caller
+	 * @throws IOException if the parser cannot be created
+	 */
+	public Session open(long maxBytes) throws IOException {
+		return new Session(jsonFactory.createNonBlockingByteBufferParser(), maxBytes);
+	}
+
+	/**
+	 * Reads an offers response and returns the offer with the lowest monthly rate. On equal rates the
+	 * first offer wins. Offers without a monthly rate are ignored.
+	 *
+	 * @param in JSON response body
+	 * @return cheapest offer, empty if the response contained no rated offers
+	 * @throws IOException if the body is not a valid offers response
+	 */
+	public Optional<OffersResponse.Angebot> parse(InputStream in) throws IOException {
+		try (Session session = open(Long.MAX_VALUE)) {
+			byte[] chunk = new byte[8192];
+			int read;
+			while ((read = in.read(chunk)) != -1) {
+				session.feed(ByteBuffer.wrap(chunk, 0, read));
+			}
+			return session.finish();
+		}
+	}
+
+	/**
+	 * Incremental parse of one offers response.
+	 * <p>
+	 * Not thread-safe; chunks have to be fed in order, e.g. from a reactive body.
+	 */
+	public final class Session implements AutoCloseable {
+
+		private final JsonParser parser;
+		private final ByteBufferFeeder feeder;
+		private final long maxBytes;
+		private long bytes;
+
+		private int depth;
+		private boolean rootSeen;
+		private boolean rootClosed;
+		private boolean offersNext;
+		private boolean inOffers;
+
+		private boolean inOffer;
+		private TokenBuffer offer;
+		private BigDecimal offerRate;
+		private boolean conditionNext;
+		private boolean inCondition;
+		private boolean rateNext;
+
+		private TokenBuffer cheapest;
+		private BigDecimal cheapestRate;
+
+		private Session(JsonParser parser, long maxBytes) {
+			this.parser = parser;
+			this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+			this.maxBytes = maxBytes;
+		}
+
+		/**
+		 * Processes the next chunk of the response. The buffer is fully consumed before this method
+		 * returns, so it may be released or reused afterwards.
+		 *
+		 * @param chunk next bytes of the response
+		 * @throws IOException if the response is invalid or exceeds the maximum size
+		 */
+		public void feed(ByteBuffer chunk) throws IOException {
+			bytes += chunk.remaining();
+			if (bytes > maxBytes) {
+				throw new IOException("Offers response exceeds %d bytes".formatted(maxBytes));
+			}
+			if (rootClosed) {
+				return;
+			}
+			feeder.feedInput(chunk);
+			drain();
+		}
+
+		/**
+		 * Signals the end of the response and binds the winner.
+		 *
+		 * @return cheapest offer, empty if the response contained no rated offers
+		 * @throws IOException if the response is invalid or incomplete
+		 */
+		public Optional<OffersResponse.Angebot> finish() throws IOException {
+			if (!rootClosed) {
+				feeder.endOfInput();
+				drain();
+			}
+			if (!rootSeen) {
+				throw new IOException("Offers response is not a JSON object");
+			}
+			if (!rootClosed) {
+				throw new IOException("Offers response ended unexpectedly");
+			}
+			if (cheapest == null) {
+				return Optional.empty();
+			}
+			try (JsonParser winner = cheapest.asParser()) {
+				return Optional.of(reader.readValue(winner));
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			parser.close();
+		}
+
+		private void drain() throws IOException {
+			JsonToken token;
+			while (!rootClosed && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+				if (!rootSeen) {
+					if (token != JsonToken.START_OBJECT) {
+						throw new IOException("Offers response is not a JSON object");
+					}
+					rootSeen = true;
+					depth = DEPTH_ROOT;
+				} else if (inOffer) {
+					offerToken(token);
+				} else {
+					structureToken(token);
+				}
+			}
+		}
+
+		/**
+		 * Tokens outside of an offer element: finds the {@code angebote} array and its elements and
+		 * skips everything else.
+		 */
+		private void structureToken(JsonToken token) throws IOException {
+			switch (token) {
+				case FIELD_NAME -> offersNext = depth == DEPTH_ROOT && "angebote".equals(parser.currentName());
+				case START_ARRAY -> {
+					inOffers = offersNext && depth == DEPTH_ROOT;
+					offersNext = false;
+					depth++;
+				}
+				case START_OBJECT -> {
+					offersNext = false;
+					if (inOffers && depth == DEPTH_OFFERS) {
+						startOffer();
+					}
+					depth++;
+				}
+				case END_ARRAY, END_OBJECT -> {
+					depth--;
+					if (depth == DEPTH_ROOT) {
+						inOffers = false;
+					} else if (depth == 0) {
+						rootClosed = true;
+					}
+				}
+				default -> offersNext = false;
+			}
+		}
+
+		/**
+		 * Tokens of an offer element: records them while the offer may still win and picks up
+		 * {@code kondition.monatlicheRate}.
+		 */
+		private void offerToken(JsonToken token) throws IOException {
+			if (offer != null) {
+				offer.copyCurrentEvent(parser);
+			}
+			switch (token) {
+				case FIELD_NAME -> {
+					if (depth == DEPTH_OFFER) {
+						conditionNext = "kondition".equals(parser.currentName());
+					} else if (depth == DEPTH_CONDITION && inCondition) {
+						rateNext = "monatlicheRate".equals(parser.currentName());
+					}
+				}
+				case START_OBJECT, START_ARRAY -> {
+					if (depth == DEPTH_OFFER) {
+						inCondition = conditionNext && token == JsonToken.START_OBJECT;
+					} else if (depth == DEPTH_CONDITION && rateNext) {
+						rate(null);
+					}
+					conditionNext = false;
+					rateNext = false;
+					depth++;
+				}
+				case END_OBJECT, END_ARRAY -> {
+					depth--;
+					if (depth == DEPTH_OFFER) {
+						inCondition = false;
+					} else if (depth == DEPTH_OFFERS) {
+						endOffer();
+					}
+				}
+				default -> {
+					if (depth == DEPTH_CONDITION && rateNext) {
+						rate(scalarRate(token));
+					}
+					conditionNext = false;
+					rateNext = false;
+				}
+			}
+		}
+
+		private void startOffer() throws IOException {
+			inOffer = true;
+			offerRate = null;
+			conditionNext = false;
+			inCondition = false;
+			rateNext = false;
+			offer = new TokenBuffer(parser);
+			offer.forceUseOfBigDecimal(true);
+			offer.writeStartObject();
+		}
+
+		private void rate(BigDecimal rate) {
+			offerRate = rate;
+			if (rate == null || (cheapestRate != null && rate.compareTo(cheapestRate) >= 0)) {
+				// Cannot win: skip the rest of the offer instead of recording it.
+				offer = null;
+			}
+		}
+
+		private void endOffer() {
+			if (offer != null && offerRate != null) {
+				cheapest = offer;
+				cheapestRate = offerRate;
+			}
+			offer = null;
+			inOffer = false;
+		}
+
+		private BigDecimal scalarRate(JsonToken token) throws IOException {
+			return switch (token) {
+				case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDecimalValue();
+				case VALUE_STRING -> {
+					String text = parser.getText().trim();
+					if (text.isEmpty()) {
+						yield null;
+					}
+					try {
+						yield new BigDecimal(text);
+					} catch (NumberFormatException e) {
+						throw new IOException("Invalid monthly rate: " + text, e);
+					}
+				}
+				default -> null;
+			};
+		}
+	}
+}
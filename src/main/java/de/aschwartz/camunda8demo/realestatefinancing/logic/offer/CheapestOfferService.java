@@ -0,0 +1,376 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.offer;
+
+import de.aschwartz.camunda8demo.realestatefinancing.config.AutoCreditProperties;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersRequest;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Looks up the cheapest offer from the external auto-credit API.
+ * <p>
+ * All configured providers are queried concurrently and their offers are merged into one global
+ * cheapest offer. A provider that has not answered after {@code hedge-delay} gets a backup request
+ * (whichever response arrives first wins), and a provider missing its deadline is dropped instead of
+ * failing the lookup.
+ * <p>
+ * Every provider is guarded by a {@link CircuitBreaker} and an {@link AdaptiveConcurrencyLimiter}.
+ * If all providers reject the call (open circuit or limit reached) the lookup fails fast with an
+ * {@link OffersUnavailableException} that carries the backoff after which a retry makes sense.
+ */
+@Service
+@Slf4j
+public class CheapestOfferService {
+
+	private static final Comparator<OffersResponse.Angebot> BY_MONTHLY_RATE =
+			Comparator.comparing(a -> a.getKondition().getMonatlicheRate());
+
+	private final List<OfferProvider> providers;
+	private final String providerNames;
+	private final Duration hedgeDelay;
+	private final Duration limitExceededBackoff;
+	private final OfferLookupCache offerLookupCache;
+	private final CheapestOfferParser cheapestOfferParser;
+	private final boolean streamingParse;
+	private final long maxResponseBytes;
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param webClientBuilder     shared WebClient builder
+	 * @param autoCreditProperties offer provider configuration
+	 * @param offerLookupCache     cache for identical lookups
+	 * @param cheapestOfferParser  streaming reader for offers responses
+	 * @param streamingParse       whether to stream the response instead of binding all offers
+	 * @param maxResponseSize      maximum size of an offers response
+	 * @param meterRegistry        registry for circuit breaker and limiter metrics
+	 */
+	public CheapestOfferService(
+			WebClient.Builder webClientBuilder,
+			AutoCreditProperties autoCreditProperties,
+			OfferLookupCache offerLookupCache,
+			CheapestOfferParser cheapestOfferParser,
+			@Value("${camunda8demo.auto-credit.streaming-parse:true}") boolean streamingParse,
+			@Value("${camunda8demo.auto-credit.max-response-size:16MB}") DataSize maxResponseSize,
+			MeterRegistry meterRegistry) {
+		AutoCreditProperties.Resilience resilience = autoCreditProperties.getResilience();
+		this.providers = autoCreditProperties.effectiveProviders().stream()
+				.map(provider -> new OfferProvider(
+						provider.getName(),
+						provider.getBaseUrl(),
+						provider.getApiPath(),
+						provider.getDeadline() != null ? provider.getDeadline() : autoCreditProperties.getProviderDeadline(),
+						webClientBuilder.clone().baseUrl(provider.getBaseUrl()).build(),
+						new CircuitBreaker(
+								resilience.getSlidingWindowSize(),
+								resilience.getMinimumCalls(),
+								resilience.getFailureRateThreshold(),
+								resilience.getHalfOpenCalls(),
+								resilience.getOpenDuration(),
+								resilience.getMaxOpenDuration()),
+						new AdaptiveConcurrencyLimiter(
+								resilience.getInitialLimit(),
+								resilience.getMinLimit(),
+								resilience.getMaxLimit(),
+								resilience.getLatencyThreshold(),
+								resilience.getBackoffRatio())))
+				.toList();
+		this.limitExceededBackoff = resilience.getLimitExceededBackoff();
+		this.providerNames = providers.stream().map(OfferProvider::baseUrl).collect(Collectors.joining(", "));
+		this.hedgeDelay = autoCreditProperties.getHedgeDelay();
+		this.offerLookupCache = offerLookupCache;
+		this.cheapestOfferParser = cheapestOfferParser;
+		this.streamingParse = streamingParse;
+		this.maxResponseBytes = maxResponseSize.toBytes();
+
+		for (OfferProvider provider : providers) {
+			Gauge.builder("offers.provider.circuit.state", provider.circuitBreaker(), breaker -> breaker.state().ordinal())
+					.description("0 = closed, 1 = half-open, 2 = open")
+					.tag("provider", provider.name())
+					.register(meterRegistry);
+			Gauge.builder("offers.provider.concurrency.limit", provider.limiter(), AdaptiveConcurrencyLimiter::limit)
+					.tag("provider", provider.name())
+					.register(meterRegistry);
+			Gauge.builder("offers.provider.inflight", provider.limiter(), AdaptiveConcurrencyLimiter::inFlight)
+					.tag("provider", provider.name())
+					.register(meterRegistry);
+		}
+	}
+
+	/**
+	 * Finds the offer with the lowest monthly rate across all providers.
+	 *
+	 * @param request offers request
+	 * @return cheapest offer; errors if no provider is available or none returned offers
+	 */
+	public Mono<OffersResponse.Angebot> findCheapestOffer(OffersRequest request) {
+		return offerLookupCache.get(request, () -> queryAllProviders(request))
+				.switchIfEmpty(Mono.error(() -> new IllegalStateException("No offers returned from %s".formatted(providerNames))));
+	}
+
+	/**
+	 * Queries all providers. The result is marked incomplete if a provider was dropped, so that the
+	 * cache does not keep a degraded answer for the full TTL.
+	 */
+	private Mono<OfferLookupCache.Lookup> queryAllProviders(OffersRequest request) {
+		AtomicInteger failedProviders = new AtomicInteger();
+		AtomicInteger rejectedProviders = new AtomicInteger();
+		AtomicReference<Throwable> lastError = new AtomicReference<>();
+		AtomicReference<Duration> retryBackoff = new AtomicReference<>();
+
+		return Flux.fromIterable(providers)
+				.flatMap(provider -> guarded(provider, request)
+						.onErrorResume(e -> {
+							// Drop slow, broken or shedding providers; the others still make up the result.
+							log.warn("Offer provider {} dropped: {}", provider.name(), e.toString());
+							failedProviders.incrementAndGet();
+							lastError.set(e);
+							if (e instanceof OffersUnavailableException unavailable) {
+								rejectedProviders.incrementAndGet();
+								retryBackoff.accumulateAndGet(unavailable.getRetryBackoff(),
+										(a, b) -> a == null || b.compareTo(a) < 0 ? b : a);
+							}
+							return Mono.empty();
+						}))
+				.reduce((cheapest, candidate) -> BY_MONTHLY_RATE.compare(candidate, cheapest) < 0 ? candidate : cheapest)
+				.switchIfEmpty(Mono.defer(() -> {
+					if (rejectedProviders.get() == providers.size()) {
+						return Mono.error(new OffersUnavailableException(
+								"Offer providers unavailable: %s".formatted(providerNames), retryBackoff.get()));
+					}
+					return failedProviders.get() == providers.size()
+							? Mono.error(new RuntimeException("API not available: %s".formatted(providerNames), lastError.get()))
+							: Mono.empty();
+				}))
+				.doOnNext(this::logCheapestOffer)
+				.map(cheapest -> new OfferLookupCache.Lookup(cheapest, failedProviders.get() == 0));
+	}
+
+	/**
+	 * Runs the hedged provider call behind the provider's circuit breaker and concurrency limiter
+	 * and feeds the outcome back into both.
+	 */
+	private Mono<OffersResponse.Angebot> guarded(OfferProvider provider, OffersRequest request) {
+		return Mono.defer(() -> {
+			CircuitBreaker breaker = provider.circuitBreaker();
+			AdaptiveConcurrencyLimiter limiter = provider.limiter();
+
+			if (!breaker.tryAcquirePermission()) {
+				// Never below limitExceededBackoff: a half-open breaker without probe permits or one
+				// just reaching the end of its open time would otherwise yield a zero backoff.
+				Duration retryAfter = breaker.retryAfter();
+				return Mono.error(new OffersUnavailableException(
+						"Circuit open for %s".formatted(provider.baseUrl()),
+						retryAfter.compareTo(limitExceededBackoff) > 0 ? retryAfter : limitExceededBackoff));
+			}
+			if (!limiter.tryAcquire()) {
+				breaker.onIgnored();
+				return Mono.error(new OffersUnavailableException(
+						"Concurrency limit %d reached for %s".formatted(limiter.limit(), provider.baseUrl()), limitExceededBackoff));
+			}
+
+			long start = System.nanoTime();
+			AtomicBoolean released = new AtomicBoolean();
+			return hedged(provider, request)
+					.timeout(provider.deadline())
+					.doOnSuccess(offer -> {
+						if (released.compareAndSet(false, true)) {
+							breaker.onSuccess();
+							limiter.onSuccess(System.nanoTime() - start);
+						}
+					})
+					.doOnError(e -> {
+						if (released.compareAndSet(false, true)) {
+							breaker.onError();
+							limiter.onDropped();
+						}
+					})
+					.doOnCancel(() -> {
+						if (released.compareAndSet(false, true)) {
+							breaker.onIgnored();
+							limiter.onIgnored();
+						}
+					});
+		});
+	}
+
+	/**
+	 * Queries a provider and, if it has not answered after the hedge delay, sends a backup request.
+	 * <p>
+	 * The first response with a result wins; a failing request does not cancel the other one. The
+	 * backup takes its own permit from the provider's concurrency limiter and is skipped if none is
+	 * left, so hedging never exceeds the limit.
+	 */
+	private Mono<OffersResponse.Angebot> hedged(OfferProvider provider, OffersRequest request) {
+		Mono<OffersResponse.Angebot> primary = Mono.defer(() -> fetchCheapestOffer(provider, request));
+		if (hedgeDelay == null || hedgeDelay.isZero() || hedgeDelay.compareTo(provider.deadline()) >= 0) {
+			return primary;
+		}
+		AdaptiveConcurrencyLimiter limiter = provider.limiter();
+		Mono<Optional<OffersResponse.Angebot>> backup = Mono.delay(hedgeDelay)
+				.then(Mono.defer(() -> {
+					if (!limiter.tryAcquire()) {
+						log.debug("Concurrency limit reached, no hedged request to offer provider {}", provider.name());
+						return Mono.empty();
+					}
+					log.debug("Sending hedged request to offer provider {}", provider.name());
+					return limited(limiter, fetchCheapestOffer(provider, request))
+							.map(Optional::of)
+							.defaultIfEmpty(Optional.empty());
+				}));
+		// "No offers" is a result as well: wrap it, so it is not taken for a missing value.
+		return Mono.firstWithValue(primary.map(Optional::of).defaultIfEmpty(Optional.empty()), backup)
+				.onErrorMap(NoSuchElementException.class, e -> {
+					List<Throwable> errors = Exceptions.unwrapMultiple(e.getCause());
+					return errors.isEmpty() ? e : errors.get(0);
+				})
+				.flatMap(Mono::justOrEmpty);
+	}
+
+	/**
+	 * Feeds the outcome of a call that holds a limiter permit back into the limiter.
+	 */
+	private static <T> Mono<T> limited(AdaptiveConcurrencyLimiter limiter, Mono<T> call) {
+		long start = System.nanoTime();
+		AtomicBoolean released = new AtomicBoolean();
+		return call
+				.doOnSuccess(value -> {
+					if (released.compareAndSet(false, true)) {
+						limiter.onSuccess(System.nanoTime() - start);
+					}
+				})
+				.doOnError(e -> {
+					if (released.compareAndSet(false, true)) {
+						limiter.onDropped();
+					}
+				})
+				.doOnCancel(() -> {
+					if (released.compareAndSet(false, true)) {
+						limiter.onIgnored();
+					}
+				});
+	}
+
+	private Mono<OffersResponse.Angebot> fetchCheapestOffer(OfferProvider provider, OffersRequest request) {
+		WebClient.ResponseSpec response = provider.webClient()
+				.post()
+				.uri(provider.apiPath())
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON)
+				.bodyValue(request)
+				.retrieve();
+
+		return streamingParse
+				? streamCheapestOffer(provider, response)
+				: bindCheapestOffer(provider, response);
+	}
+
+	/**
+	 * Feeds the response body chunk by chunk into a streaming parser session; only the winning offer
+	 * is bound and no chunk is kept after it was parsed.
+	 * <p>
+	 * Each buffer is released by {@link #feed} once it was parsed; buffers still queued when the
+	 * lookup is cancelled are released on discard.
+	 */
+	private Mono<OffersResponse.Angebot> streamCheapestOffer(OfferProvider provider, WebClient.ResponseSpec response) {
+		return Mono.using(
+						() -> cheapestOfferParser.open(maxResponseBytes),
+						session -> response.bodyToFlux(DataBuffer.class)
+								.onErrorMap(e -> new RuntimeException("API not available: %s".formatted(provider.baseUrl()), e))
+								.concatMap(buffer -> Mono.fromRunnable(() -> feed(provider, session, buffer)))
+								.then(Mono.fromCallable(() -> finish(provider, session).orElse(null))),
+						this::close)
+				.doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+	}
+
+	/**
+	 * Binds the full response including all offers and picks the cheapest one.
+	 */
+	private Mono<OffersResponse.Angebot> bindCheapestOffer(OfferProvider provider, WebClient.ResponseSpec response) {
+		return response.bodyToMono(OffersResponse.class)
+				.onErrorMap(e -> new RuntimeException("API not available: %s".formatted(provider.baseUrl()), e))
+				.flatMap(body -> Mono.justOrEmpty(selectCheapestOffer(body)));
+	}
+
+	private static void feed(OfferProvider provider, CheapestOfferParser.Session session, DataBuffer buffer) {
+		try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+			while (chunks.hasNext()) {
+				session.feed(chunks.next());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Invalid offers response from %s".formatted(provider.baseUrl()), e);
+		} finally {
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+	private static Optional<OffersResponse.Angebot> finish(OfferProvider provider, CheapestOfferParser.Session session) {
+		try {
+			return session.finish();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Invalid offers response from %s".formatted(provider.baseUrl()), e);
+		}
+	}
+
+	private void close(CheapestOfferParser.Session session) {
+		try {
+			session.close();
+		} catch (IOException e) {
+			log.debug("Could not close offers parser", e);
+		}
+	}
+
+	private static Optional<OffersResponse.Angebot> selectCheapestOffer(OffersResponse response) {
+		if (response.getAngebote() == null) {
+			return Optional.empty();
+		}
+		return response.getAngebote().stream()
+				.filter(a -> a.getKondition() != null && a.getKondition().getMonatlicheRate() != null)
+				.min(BY_MONTHLY_RATE);
+	}
+
+	private void logCheapestOffer(OffersResponse.Angebot cheapestOffer) {
+		log.info(
+				"Cheapest offer: vermittler={}, anbieter={}, rate={}",
+				cheapestOffer.getVermittler(),
+				cheapestOffer.getAnbieter() != null ? cheapestOffer.getAnbieter().getName() : "n/a",
+				cheapestOffer.getKondition().getMonatlicheRate());
+	}
+
+	/**
+	 * Resolved provider with its own WebClient, circuit breaker and concurrency limiter.
+	 */
+	private record OfferProvider(
+			String name,
+			String baseUrl,
+			String apiPath,
+			Duration deadline,
+			WebClient webClient,
+			CircuitBreaker circuitBreaker,
+			AdaptiveConcurrencyLimiter limiter
+	) {
+	}
+}
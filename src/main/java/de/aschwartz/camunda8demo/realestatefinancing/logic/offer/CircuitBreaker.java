@@ -0,0 +1,183 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.offer;
+
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker for a single offer provider.
+ * <p>
+ * While {@link State#CLOSED} the outcome of the last {@code windowSize} calls is tracked; once at least
+ * {@code minimumCalls} were recorded and the failure rate reaches the threshold, the breaker opens and
+ * rejects calls. After the open duration a limited number of probe calls is let through
+ * ({@link State#HALF_OPEN}): if all succeed the breaker closes, otherwise it opens again with a doubled
+ * open duration (capped at {@code maxOpenDuration}).
+ */
+public class CircuitBreaker {
+
+	/**
+	 * Breaker state, ordered by severity.
+	 */
+	public enum State {
+		CLOSED,
+		HALF_OPEN,
+		OPEN
+	}
+
+	private final int windowSize;
+	private final int minimumCalls;
+	private final double failureRateThreshold;
+	private final int halfOpenCalls;
+	private final long openNanos;
+	private final long maxOpenNanos;
+
+	private final boolean[] window;
+	private int windowIndex;
+	private int windowCount;
+	private int windowFailures;
+
+	private State state = State.CLOSED;
+	private long openedAt;
+	private long currentOpenNanos;
+	private int halfOpenPermits;
+	private int halfOpenSuccesses;
+
+	/**
+	 * Creates a closed breaker.
+	 *
+	 * @param windowSize           number of recent calls the failure rate is computed on
+	 * @param minimumCalls         calls required before the breaker may open
+	 * @param failureRateThreshold failure rate (0..1) that opens the breaker
+	 * @param halfOpenCalls        probe calls allowed while half-open
+	 * @param openDuration         initial time the breaker stays open
+	 * @param maxOpenDuration      upper bound for the doubled open duration
+	 */
+	public CircuitBreaker(
+			int windowSize,
+			int minimumCalls,
+			double failureRateThreshold,
+			int halfOpenCalls,
+			Duration openDuration,
+			Duration maxOpenDuration
+	) {
+		this.windowSize = windowSize;
+		this.minimumCalls = Math.min(minimumCalls, windowSize);
+		this.failureRateThreshold = failureRateThreshold;
+		this.halfOpenCalls = halfOpenCalls;
+		this.openNanos = openDuration.toNanos();
+		this.maxOpenNanos = Math.max(maxOpenDuration.toNanos(), openNanos);
+		this.window = new boolean[windowSize];
+		this.currentOpenNanos = openNanos;
+	}
+
+	/**
+	 * Asks for permission to call the provider. Every granted permission must be followed by
+	 * {@link #onSuccess()}, {@link #onError()} or {@link #onIgnored()}.
+	 *
+	 * @return {@code true} if the call may proceed
+	 */
+	public synchronized boolean tryAcquirePermission() {
+		if (state == State.OPEN) {
+			if (System.nanoTime() - openedAt < currentOpenNanos) {
+				return false;
+			}
+			state = State.HALF_OPEN;
+			halfOpenPermits = halfOpenCalls;
+			halfOpenSuccesses = 0;
+		}
+		if (state == State.HALF_OPEN) {
+			if (halfOpenPermits == 0) {
+				return false;
+			}
+			halfOpenPermits--;
+		}
+		return true;
+	}
+
+	/**
+	 * Records a successful call.
+	 */
+	public synchronized void onSuccess() {
+		if (state == State.HALF_OPEN) {
+			if (++halfOpenSuccesses >= halfOpenCalls) {
+				close();
+			}
+		} else if (state == State.CLOSED) {
+			record(false);
+		}
+	}
+
+	/**
+	 * Records a failed call.
+	 */
+	public synchronized void onError() {
+		if (state == State.HALF_OPEN) {
+			open(Math.min(currentOpenNanos * 2, maxOpenNanos));
+		} else if (state == State.CLOSED) {
+			record(true);
+			if (windowCount >= minimumCalls && (double) windowFailures / windowCount >= failureRateThreshold) {
+				open(openNanos);
+			}
+		}
+	}
+
+	/**
+	 * Releases a permission without an outcome, e.g. when the call was cancelled.
+	 */
+	public synchronized void onIgnored() {
+		if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls - halfOpenSuccesses) {
+			halfOpenPermits++;
+		}
+	}
+
+	/**
+	 * Returns the current state.
+	 *
+	 * @return breaker state
+	 */
+	public synchronized State state() {
+		return state;
+	}
+
+	/**
+	 * Returns how long a rejected caller should wait: the remaining open time while open, the
+	 * current open duration while half-open (the probes decide whether the breaker closes or opens
+	 * again) and zero while closed.
+	 *
+	 * @return time until a call may be permitted again
+	 */
+	public synchronized Duration retryAfter() {
+		return switch (state) {
+			case OPEN -> Duration.ofNanos(Math.max(0, currentOpenNanos - (System.nanoTime() - openedAt)));
+			case HALF_OPEN -> Duration.ofNanos(currentOpenNanos);
+			case CLOSED -> Duration.ZERO;
+		};
+	}
+
+	private void record(boolean failure) {
+		if (windowCount == windowSize) {
+			if (window[windowIndex]) {
+				windowFailures--;
+			}
+		} else {
+			windowCount++;
+		}
+		window[windowIndex] = failure;
+		if (failure) {
+			windowFailures++;
+		}
+		windowIndex = (windowIndex + 1) % windowSize;
+	}
+
+	private void open(long durationNanos) {
+		state = State.OPEN;
+		openedAt = System.nanoTime();
+		currentOpenNanos = durationNanos;
+	}
+
+	private void close() {
+		state = State.CLOSED;
+		currentOpenNanos = openNanos;
+		windowIndex = 0;
+		windowCount = 0;
+		windowFailures = 0;
+	}
+}
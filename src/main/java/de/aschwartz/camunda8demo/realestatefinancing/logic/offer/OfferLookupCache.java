@@ -0,0 +1,259 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.offer;
+
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersRequest;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache for external offer lookups.
+ * <p>
+ * Only the cheapest offer of a lookup is cached, not the full response.
+ * <p>
+ * Entries are keyed by the normalized request parameters that influence the offers, expire after a
+ * configurable TTL (offers go stale) and the eldest entry is evicted once {@code max-entries} is
+ * reached. Concurrent identical lookups share one upstream call (single-flight). Incomplete lookups,
+ * where some offer provider did not answer, are handed to the callers waiting for them but are not
+ * cached.
+ */
+@Component
+public class OfferLookupCache {
+
+	/**
+	 * Normalized cache key; numeric values are compared independent of their scale.
+	 *
+	 * @param kaufPreis    purchase price
+	 * @param kreditbetrag loan amount
+	 * @param postleitzahl postal code
+	 * @param zinsBindung  fixed interest period in years
+	 * @param tilgungsSatz repayment rate
+	 */
+	public record Key(String kaufPreis, String kreditbetrag, String postleitzahl, Integer zinsBindung, String tilgungsSatz) {
+
+		/**
+		 * Builds the key for an offers request.
+		 *
+		 * @param request offers request
+		 * @return normalized key
+		 */
+		public static Key of(OffersRequest request) {
+			OffersRequest.Immobilie immobilie = request.getImmobilie();
+			OffersRequest.Finanzierung finanzierung = request.getFinanzierung();
+			return new Key(
+					normalize(immobilie != null ? immobilie.getKaufPreis() : null),
+					normalize(finanzierung != null ? finanzierung.getKreditbetrag() : null),
+					immobilie != null && immobilie.getPostleitzahl() != null ? immobilie.getPostleitzahl().trim() : null,
+					finanzierung != null ? finanzierung.getZinsBindungInJahren() : null,
+					normalize(finanzierung != null ? finanzierung.getTilgungsSatz() : null));
+		}
+
+		private static String normalize(BigDecimal value) {
+			return value == null ? null : value.stripTrailingZeros().toPlainString();
+		}
+	}
+
+	/**
+	 * Result of an upstream lookup.
+	 *
+	 * @param offer    cheapest offer
+	 * @param complete whether all offer providers answered; incomplete results are not cached
+	 */
+	public record Lookup(OffersResponse.Angebot offer, boolean complete) {
+	}
+
+	private final int maxEntries;
+	private final long ttlNanos;
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder upstreamCalls = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder incomplete = new LongAdder();
+
+	/**
+	 * Creates the cache.
+	 *
+	 * @param maxEntries    maximum number of cached lookups
+	 * @param ttl           time a loaded offer is served from the cache
+	 * @param meterRegistry registry for cache metrics
+	 */
+	public OfferLookupCache(
+			@Value("${camunda8demo.auto-credit.cache.max-entries:1000}") int maxEntries,
+			@Value("${camunda8demo.auto-credit.cache.ttl:5m}") Duration ttl,
+			MeterRegistry meterRegistry
+	) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("camunda8demo.auto-credit.cache.max-entries must be > 0");
+		}
+		this.maxEntries = maxEntries;
+		this.ttlNanos = ttl.toNanos();
+
+		FunctionCounter.builder("offers.cache.requests", hits, LongAdder::sum)
+				.tag("result", "hit")
+				.register(meterRegistry);
+		FunctionCounter.builder("offers.cache.requests", coalesced, LongAdder::sum)
+				.tag("result", "coalesced")
+				.register(meterRegistry);
+		FunctionCounter.builder("offers.cache.requests", misses, LongAdder::sum)
+				.tag("result", "miss")
+				.register(meterRegistry);
+		FunctionCounter.builder("offers.cache.upstream.calls", upstreamCalls, LongAdder::sum)
+				.description("Calls that actually went to the offers API")
+				.register(meterRegistry);
+		FunctionCounter.builder("offers.cache.evictions", evictions, LongAdder::sum)
+				.register(meterRegistry);
+		FunctionCounter.builder("offers.cache.incomplete", incomplete, LongAdder::sum)
+				.description("Lookups not cached because an offer provider did not answer")
+				.register(meterRegistry);
+		Gauge.builder("offers.cache.hit.ratio", this, OfferLookupCache::hitRatio)
+				.description("Share of lookups served without a new upstream call")
+				.register(meterRegistry);
+		Gauge.builder("offers.cache.entries", this, OfferLookupCache::size)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Returns the cached offer for the request or loads it with the given loader. Identical
+	 * requests arriving while a load is in flight wait for that load instead of calling upstream.
+	 *
+	 * @param request offers request
+	 * @param loader  upstream call, subscribed at most once per key and TTL window; empty if there are
+	 *                no offers
+	 * @return cached or freshly loaded cheapest offer
+	 */
+	public Mono<OffersResponse.Angebot> get(OffersRequest request, Supplier<Mono<Lookup>> loader) {
+		Key key = Key.of(request);
+		Entry entry;
+		boolean load = false;
+		synchronized (entries) {
+			long now = System.nanoTime();
+			evictExpired(now);
+			entry = entries.get(key);
+			if (entry != null && entry.isExpired(now, ttlNanos)) {
+				entries.remove(key);
+				evictions.increment();
+				entry = null;
+			}
+			if (entry == null) {
+				entry = new Entry();
+				entries.put(key, entry);
+				load = true;
+				evictOverflow();
+			}
+		}
+
+		if (load) {
+			misses.increment();
+			upstreamCalls.increment();
+			Entry loading = entry;
+			loader.get().subscribe(
+					lookup -> {
+						if (!lookup.complete()) {
+							// Degraded results only go to the callers already waiting for this load.
+							synchronized (entries) {
+								entries.remove(key, loading);
+							}
+							incomplete.increment();
+						}
+						loading.loadedAt = System.nanoTime();
+						loading.future.complete(lookup.offer());
+					},
+					e -> {
+						// Failed lookups are not cached, the next request retries upstream.
+						synchronized (entries) {
+							entries.remove(key, loading);
+						}
+						loading.future.completeExceptionally(e);
+					},
+					() -> {
+						if (!loading.future.isDone()) {
+							synchronized (entries) {
+								entries.remove(key, loading);
+							}
+							loading.future.complete(null);
+						}
+					});
+		} else if (entry.future.isDone()) {
+			hits.increment();
+		} else {
+			coalesced.increment();
+		}
+
+		// suppressCancel: one subscriber cancelling must not cancel the shared load.
+		return Mono.fromFuture(entry.future, true);
+	}
+
+	/**
+	 * Returns the share of lookups that did not trigger an upstream call.
+	 *
+	 * @return hit ratio between 0 and 1
+	 */
+	public double hitRatio() {
+		long served = hits.sum() + coalesced.sum();
+		long total = served + misses.sum();
+		return total == 0 ? 0d : (double) served / total;
+	}
+
+	private int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Removes expired entries from the head of the insertion order. In-flight loads are skipped, so
+	 * a slow upstream call does not keep the loaded entries behind it alive.
+	 * <p>
+	 * Must be called while holding the lock on {@link #entries}.
+	 */
+	private void evictExpired(long now) {
+		Iterator<Entry> it = entries.values().iterator();
+		while (it.hasNext()) {
+			Entry eldest = it.next();
+			if (!eldest.future.isDone()) {
+				continue;
+			}
+			if (!eldest.isExpired(now, ttlNanos)) {
+				break;
+			}
+			it.remove();
+			evictions.increment();
+		}
+	}
+
+	/**
+	 * Must be called while holding the lock on {@link #entries}.
+	 */
+	private void evictOverflow() {
+		Iterator<Entry> it = entries.values().iterator();
+		while (entries.size() > maxEntries && it.hasNext()) {
+			it.next();
+			it.remove();
+			evictions.increment();
+		}
+	}
+
+	private static final class Entry {
+		private final CompletableFuture<OffersResponse.Angebot> future = new CompletableFuture<>();
+		private volatile long loadedAt;
+
+		private boolean isExpired(long now, long ttlNanos) {
+			// In-flight loads never expire; the TTL starts when the offer arrived.
+			return future.isDone() && now - loadedAt > ttlNanos;
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.offer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.store.ContentStore;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.store.LocalContentStore;
+import de.aschwartz.camunda8demo.realestatefinancing.model.ContractOffer;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps full offers out of the process state.
+ * <p>
+ * Offers are stored as JSON in a {@link LocalContentStore} below
+ * {@code camunda8demo.offer-store.local.path}; the process only carries the {@link ContractOffer}
+ * projection with the returned reference, and the full offer is loaded when it is actually needed.
+ */
+@Component
+public class OfferStore {
+
+	private static final ContractOffer EMPTY = new ContractOffer();
+
+	private final ContentStore documents;
+	private final ObjectMapper objectMapper;
+	private final ObjectWriter writer;
+
+	/**
+	 * Creates the store.
+	 *
+	 * @param path         root directory of the offer documents
+	 * @param objectMapper mapper for the offer JSON
+	 */
+	public OfferStore(
+			@Value("${camunda8demo.offer-store.local.path:${camunda8demo.pdf-path}/offers}") String path,
+			ObjectMapper objectMapper
+	) {
+		this.documents = new LocalContentStore("offer", path, ".json");
+		this.objectMapper = objectMapper;
+		this.writer = objectMapper.writerFor(OffersResponse.Angebot.class)
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	}
+
+	/**
+	 * Stores an offer and returns its contract projection.
+	 *
+	 * @param offer full offer
+	 * @return projection referencing the stored offer
+	 * @throws IOException if the offer cannot be written
+	 */
+	public ContractOffer store(OffersResponse.Angebot offer) throws IOException {
+		String offerRef = documents.store(out -> writer.writeValue(out, offer));
+		return ContractOffer.of(offer, offerRef);
+	}
+
+	/**
+	 * Loads a full offer.
+	 *
+	 * @param offerRef reference returned with {@link #store(OffersResponse.Angebot)}
+	 * @return offer, empty if unknown
+	 * @throws IOException if the offer cannot be read
+	 */
+	public Optional<OffersResponse.Angebot> load(String offerRef) throws IOException {
+		Optional<InputStream> document = documents.open(offerRef);
+		if (document.isEmpty()) {
+			return Optional.empty();
+		}
+		try (InputStream in = document.get()) {
+			return Optional.of(objectMapper.readValue(in, OffersResponse.Angebot.class));
+		}
+	}
+
+	/**
+	 * Resolves an offer process variable to the offer to render.
+	 * <p>
+	 * The {@link ContractOffer} projection carries all contract values, so the full offer is only
+	 * loaded for a bare reference. Full offers of instances started before the projection are still
+	 * accepted.
+	 *
+	 * @param rawOffer process variable value, a {@link ContractOffer} or a legacy full offer
+	 * @return offer to render
+	 * @throws IOException              if a referenced offer cannot be read
+	 * @throws IllegalArgumentException if the value carries neither contract values nor a reference,
+	 *                                  or the referenced offer does not exist
+	 */
+	public OffersResponse.Angebot resolve(Object rawOffer) throws IOException {
+		if (rawOffer instanceof OffersResponse.Angebot angebot) {
+			return angebot;
+		}
+		if (rawOffer instanceof Map<?, ?> map && (map.containsKey("kondition") || map.containsKey("anbieter"))) {
+			return objectMapper.convertValue(rawOffer, OffersResponse.Angebot.class);
+		}
+
+		ContractOffer contractOffer = objectMapper.convertValue(rawOffer, ContractOffer.class);
+		if (contractOffer == null || EMPTY.equals(contractOffer)) {
+			throw new IllegalArgumentException("Offer has neither contract values nor an offerRef: " + rawOffer);
+		}
+		if (contractOffer.isReferenceOnly()) {
+			return load(contractOffer.getOfferRef())
+					.orElseThrow(() -> new IllegalArgumentException("Offer %s not found".formatted(contractOffer.getOfferRef())));
+		}
+		return contractOffer.toAngebot();
+	}
+}
@@ -0,0 +1,27 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.offer;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Signals that offers cannot be requested right now because the providers' circuit breakers are
+ * open or their concurrency limits are reached. The lookup should be retried after
+ * {@link #getRetryBackoff()}.
+ */
+@Getter
+public class OffersUnavailableException extends RuntimeException {
+
+	private final Duration retryBackoff;
+
+	/**
+	 * Creates the exception.
+	 *
+	 * @param message      error message
+	 * @param retryBackoff time after which a retry is reasonable
+	 */
+	public OffersUnavailableException(String message, Duration retryBackoff) {
+		super(message);
+		this.retryBackoff = retryBackoff;
+	}
+}
@@ -0,0 +1,66 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Content-addressed document storage.
+ * <p>
+ * Documents are streamed into the store and identified by the SHA-256 of their bytes, so identical
+ * documents are stored once and the returned id is valid on every node that shares the store.
+ */
+public interface ContentStore {
+
+	/**
+	 * Streams a document into the store.
+	 *
+	 * @param writer writes the document into the stream provided by the store
+	 * @return content-addressed document id
+	 * @throws IOException if the document cannot be written
+	 */
+	String store(ContentWriter writer) throws IOException;
+
+	/**
+	 * Stores already rendered documents, e.g. a chunk of a batch run. Implementations may reorder the
+	 * writes to group them by storage location; the returned ids keep the order of the input.
+	 *
+	 * @param documents document contents
+	 * @return content-addressed document ids, one per document
+	 * @throws IOException if a document cannot be written
+	 */
+	default List<String> storeAll(List<byte[]> documents) throws IOException {
+		List<String> ids = new ArrayList<>(documents.size());
+		for (byte[] document : documents) {
+			ids.add(store(out -> out.write(document)));
+		}
+		return ids;
+	}
+
+	/**
+	 * Opens a stored document.
+	 *
+	 * @param id id returned by {@link #store(ContentWriter)}
+	 * @return document content, empty if unknown
+	 * @throws IOException if the document cannot be read
+	 */
+	Optional<InputStream> open(String id) throws IOException;
+
+	/**
+	 * Writes document content to a stream provided by the store.
+	 */
+	@FunctionalInterface
+	interface ContentWriter {
+
+		/**
+		 * Writes the content.
+		 *
+		 * @param out target stream
+		 * @throws IOException if writing fails
+		 */
+		void writeTo(OutputStream out) throws IOException;
+	}
+}
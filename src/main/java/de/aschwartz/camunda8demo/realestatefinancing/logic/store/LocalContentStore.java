@@ -0,0 +1,188 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * {@link ContentStore} backed by a sharded directory tree, e.g. a volume shared between nodes.
+ * <p>
+ * A document is streamed into a temp file while its SHA-256 is computed, then moved atomically to
+ * {@code <path>/<h0h1>/<h2h3>/<hash><extension>}. If that file already exists the document is a
+ * duplicate and the temp file is dropped. Shard directories are created once and remembered.
+ */
+@Slf4j
+public class LocalContentStore implements ContentStore {
+
+	private static final String ID_PREFIX = "sha256:";
+	private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final String name;
+	private final String prefix;
+	private final Path root;
+	private final String extension;
+	private final Path tempDir;
+	private final Set<Path> knownShards = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Creates the store and its root directories.
+	 *
+	 * @param name      name of the store in log and error messages, e.g. {@code contract}
+	 * @param path      root directory of the store
+	 * @param extension file extension of the stored documents, e.g. {@code .pdf}
+	 */
+	public LocalContentStore(String name, String path, String extension) {
+		this.name = name;
+		this.prefix = name + "-";
+		this.root = Path.of(path);
+		this.extension = extension;
+		this.tempDir = root.resolve("tmp");
+		try {
+			Files.createDirectories(tempDir);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not create %s store directory: %s".formatted(name, root), e);
+		}
+		log.info("{} store at {} ({} files)", capitalize(name), root.toAbsolutePath(), extension);
+	}
+
+	@Override
+	public String store(ContentWriter writer) throws IOException {
+		MessageDigest digest = sha256();
+		Path temp = Files.createTempFile(tempDir, prefix, ".part");
+		try {
+			try (OutputStream out = new BufferedOutputStream(
+					new DigestOutputStream(Files.newOutputStream(temp), digest), BUFFER_SIZE)) {
+				writer.writeTo(out);
+			}
+
+			String hash = HexFormat.of().formatHex(digest.digest());
+			moveIntoPlace(temp, hash);
+			return ID_PREFIX + hash;
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Hashes the documents up front and writes them shard by shard, so each shard directory is
+	 * written sequentially instead of being hit in random order.
+	 */
+	@Override
+	public List<String> storeAll(List<byte[]> documents) throws IOException {
+		MessageDigest digest = sha256();
+		String[] hashes = new String[documents.size()];
+		Map<Path, List<Integer>> byShard = new TreeMap<>();
+		for (int i = 0; i < hashes.length; i++) {
+			hashes[i] = HexFormat.of().formatHex(digest.digest(documents.get(i)));
+			byShard.computeIfAbsent(resolve(hashes[i]).getParent(), shard -> new ArrayList<>()).add(i);
+		}
+
+		for (List<Integer> shard : byShard.values()) {
+			for (int i : shard) {
+				write(documents.get(i), hashes[i]);
+			}
+		}
+
+		List<String> ids = new ArrayList<>(hashes.length);
+		for (String hash : hashes) {
+			ids.add(ID_PREFIX + hash);
+		}
+		return ids;
+	}
+
+	@Override
+	public Optional<InputStream> open(String id) throws IOException {
+		String hash = hashOf(id);
+		try {
+			return Optional.of(Files.newInputStream(resolve(hash)));
+		} catch (NoSuchFileException e) {
+			return Optional.empty();
+		}
+	}
+
+	private void write(byte[] document, String hash) throws IOException {
+		if (Files.exists(resolve(hash))) {
+			log.debug("{} {} already stored", capitalize(name), hash);
+			return;
+		}
+		Path temp = Files.createTempFile(tempDir, prefix, ".part");
+		try {
+			Files.write(temp, document);
+			moveIntoPlace(temp, hash);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private void moveIntoPlace(Path temp, String hash) throws IOException {
+		Path target = resolve(hash);
+		if (Files.exists(target)) {
+			log.debug("{} {} already stored", capitalize(name), hash);
+			return;
+		}
+
+		ensureShard(target.getParent());
+		try {
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+		} catch (FileAlreadyExistsException e) {
+			// Stored concurrently by another job: same bytes, nothing to do.
+			log.debug("{} {} stored concurrently", capitalize(name), hash);
+		}
+	}
+
+	private Path resolve(String hash) {
+		return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + extension);
+	}
+
+	private void ensureShard(Path shard) throws IOException {
+		if (!knownShards.contains(shard)) {
+			Files.createDirectories(shard);
+			knownShards.add(shard);
+		}
+	}
+
+	private String hashOf(String id) {
+		if (id == null || !id.startsWith(ID_PREFIX)) {
+			throw new IllegalArgumentException("Invalid %s id: %s".formatted(name, id));
+		}
+		String hash = id.substring(ID_PREFIX.length());
+		if (!HASH.matcher(hash).matches()) {
+			throw new IllegalArgumentException("Invalid %s id: %s".formatted(name, id));
+		}
+		return hash;
+	}
+
+	private static String capitalize(String value) {
+		return value.isEmpty() ? value : Character.toUpperCase(value.charAt(0)) + value.substring(1);
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package de.aschwartz.camunda8demo.realestatefinancing.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Contract-relevant projection of an {@link OffersResponse.Angebot}, used as the
+ * {@code cheapestOffer} process variable.
+ * <p>
+ * Holds exactly the values printed on the contract; lead ids, URLs, provider texts and product
+ * information stay out of the process state. The full offer is kept in the offer store under
+ * {@link #offerRef}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContractOffer implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Reference of the full offer in the offer store.
+	 */
+	private String offerRef;
+
+	private String vermittler;
+	private String bankName;
+	private String bankShortName;
+	private String ort;
+	private String plz;
+	private String strasseUndHausnummer;
+
+	private BigDecimal sollZins;
+	private BigDecimal effektivZins;
+	private BigDecimal monatlicheRate;
+	private BigDecimal anfaenglicheTilgung;
+	private Integer zinsbindungInJahren;
+	private BigDecimal darlehensbetrag;
+	private BigDecimal kaufpreis;
+	private BigDecimal restschuldAmEndeDerZinsbindung;
+	private BigDecimal zinskostenAmEndeDerZinsbindung;
+	private Integer gesamtlaufzeitInMonaten;
+	private BigDecimal beleihungsauslauf;
+	private BigDecimal gesamtkosten;
+
+	/**
+	 * Projects an offer.
+	 *
+	 * @param offer    full offer
+	 * @param offerRef reference of the full offer in the offer store
+	 * @return projection
+	 */
+	public static ContractOffer of(OffersResponse.Angebot offer, String offerRef) {
+		var anbieter = offer.getAnbieter();
+		var anschrift = anbieter != null ? anbieter.getAnschrift() : null;
+		var kond = offer.getKondition();
+
+		ContractOfferBuilder builder = ContractOffer.builder()
+				.offerRef(offerRef)
+				.vermittler(offer.getVermittler());
+		if (anbieter != null) {
+			builder.bankName(anbieter.getName())
+					.bankShortName(anbieter.getKurzbezeichnung());
+		}
+		if (anschrift != null) {
+			builder.ort(anschrift.getOrt())
+					.plz(anschrift.getPlz())
+					.strasseUndHausnummer(anschrift.getStrasseUndHausnummer());
+		}
+		if (kond != null) {
+			builder.sollZins(kond.getSollZins())
+					.effektivZins(kond.getEffektivZins())
+					.monatlicheRate(kond.getMonatlicheRate())
+					.anfaenglicheTilgung(kond.getAnfaenglicheTilgung())
+					.zinsbindungInJahren(kond.getZinsbindungInJahren())
+					.darlehensbetrag(kond.getDarlehensbetrag())
+					.kaufpreis(kond.getKaufpreis())
+					.restschuldAmEndeDerZinsbindung(kond.getRestschuldAmEndeDerZinsbindung())
+					.zinskostenAmEndeDerZinsbindung(kond.getZinskostenAmEndeDerZinsbindung())
+					.gesamtlaufzeitInMonaten(kond.getGesamtlaufzeitInMonaten())
+					.beleihungsauslauf(kond.getBeleihungsauslauf())
+					.gesamtkosten(kond.getGesamtkosten());
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Whether only the reference is set, so the contract values have to be loaded from the offer store.
+	 *
+	 * @return {@code true} if no contract value is present
+	 */
+	@JsonIgnore
+	public boolean isReferenceOnly() {
+		return offerRef != null && equals(ContractOffer.builder().offerRef(offerRef).build());
+	}
+
+	/**
+	 * Rebuilds an offer with the contract values, enough to render the contract.
+	 *
+	 * @return offer containing the projected values only
+	 */
+	public OffersResponse.Angebot toAngebot() {
+		return OffersResponse.Angebot.builder()
+				.vermittler(vermittler)
+				.anbieter(OffersResponse.Angebot.Anbieter.builder()
+						.name(bankName)
+						.kurzbezeichnung(bankShortName)
+						.anschrift(ort == null && plz == null && strasseUndHausnummer == null
+								? null
+								: OffersResponse.Angebot.Anbieter.Anschrift.builder()
+								.ort(ort)
+								.plz(plz)
+								.strasseUndHausnummer(strasseUndHausnummer)
+								.build())
+						.build())
+				.kondition(OffersResponse.Angebot.Kondition.builder()
+						.sollZins(sollZins)
+						.effektivZins(effektivZins)
+						.monatlicheRate(monatlicheRate)
+						.anfaenglicheTilgung(anfaenglicheTilgung)
+						.zinsbindungInJahren(zinsbindungInJahren)
+						.darlehensbetrag(darlehensbetrag)
+						.kaufpreis(kaufpreis)
+						.restschuldAmEndeDerZinsbindung(restschuldAmEndeDerZinsbindung)
+						.zinskostenAmEndeDerZinsbindung(zinskostenAmEndeDerZinsbindung)
+						.gesamtlaufzeitInMonaten(gesamtlaufzeitInMonaten)
+						.beleihungsauslauf(beleihungsauslauf)
+						.gesamtkosten(gesamtkosten)
+						.build())
+				.build();
+	}
+}
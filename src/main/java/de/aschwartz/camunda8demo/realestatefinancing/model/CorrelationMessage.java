@@ -0,0 +1,26 @@
+package de.aschwartz.camunda8demo.realestatefinancing.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Message to be correlated to a waiting process instance.
+ */
+@Data
+@AllArgsConstructor
+public class CorrelationMessage {
+	/**
+	 * Message name of the BPMN message event.
+	 */
+	String name;
+	/**
+	 * Correlation key, the correlation id of the process instance.
+	 */
+	String correlationKey;
+	/**
+	 * Variables passed with the message, may be empty.
+	 */
+	Map<String, Object> variables;
+}
@@ -0,0 +1,20 @@
+package de.aschwartz.camunda8demo.realestatefinancing.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Response of the in-process credibility pre-screening.
+ */
+@Data
+@AllArgsConstructor
+public class CredibilityCheckResponse {
+	/**
+	 * Result of {@code checkCredibilityDecision}; {@code null} if no rule matched.
+	 */
+	Boolean decision;
+	/**
+	 * Whether a rule of the decision matched.
+	 */
+	boolean matched;
+}
@@ -0,0 +1,30 @@
+package de.aschwartz.camunda8demo.realestatefinancing.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one process instance of a batch creation.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProcessBatchResult {
+	/**
+	 * Zero-based position of the variables in the batch input.
+	 */
+	int index;
+	/**
+	 * Correlation id of the instance (also when creation failed).
+	 */
+	String correlationId;
+	/**
+	 * Whether the instance was created.
+	 */
+	boolean created;
+	/**
+	 * Error message when creation failed after all retries.
+	 */
+	String error;
+}
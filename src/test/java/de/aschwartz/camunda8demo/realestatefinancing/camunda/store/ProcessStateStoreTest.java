@@ -0,0 +1,249 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.store;
+
+import de.aschwartz.camunda8demo.realestatefinancing.model.Offer;
+import de.aschwartz.camunda8demo.realestatefinancing.model.ReviewResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that waiting callers of {@link ProcessStateStore} are completed by the store calls of the
+ * job workers, and the TTL and size bound of the store.
+ */
+class ProcessStateStoreTest {
+
+	private static final List<Offer> OFFERS = List.of(new Offer("Hyperbank", new BigDecimal("3.10")));
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ProcessStateStore store = new ProcessStateStore(
+			100, Duration.ofMinutes(10), ProcessStateStore.ExpireAfter.WRITE, meterRegistry);
+
+	@Test
+	void completesWaitingCallerWhenOffersAreStored() {
+		CompletableFuture<List<Offer>> offers = store.offersFuture("c-1");
+		assertThat(offers).isNotDone();
+		assertThat(store.getOffers("c-1")).isEmpty();
+
+		store.storeOffers("c-1", OFFERS);
+
+		assertThat(offers).isCompletedWithValue(OFFERS);
+		assertThat(store.getOffers("c-1")).contains(OFFERS);
+	}
+
+	@Test
+	void awaitReturnsAsSoonAsTheResultIsStored() {
+		CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS)
+				.execute(() -> store.storeReviewResult("c-1", ReviewResult.accepted("K-1")));
+
+		long start = System.nanoTime();
+		Optional<ReviewResult> result = store.awaitReviewResult("c-1", Duration.ofSeconds(10));
+
+		assertThat(result).contains(ReviewResult.accepted("K-1"));
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+	}
+
+	@Test
+	void awaitReturnsStoredResultWithoutWaiting() {
+		store.storeOffers("c-1", OFFERS);
+
+		assertThat(store.awaitOffers("c-1", Duration.ZERO)).contains(OFFERS);
+	}
+
+	@Test
+	void awaitTimesOutWithoutResult() {
+		assertThat(store.awaitOffers("c-1", Duration.ofMillis(20))).isEmpty();
+		assertThat(store.awaitReviewResult("c-1", Duration.ofMillis(20))).isEmpty();
+	}
+
+	@Test
+	void laterStoreWinsForLaterReaders() {
+		CompletableFuture<List<Offer>> first = store.offersFuture("c-1");
+		List<Offer> retried = List.of(new Offer("Equity Bank", new BigDecimal("3.25")));
+
+		store.storeOffers("c-1", OFFERS);
+		store.storeOffers("c-1", retried);
+
+		assertThat(first).isCompletedWithValue(OFFERS);
+		assertThat(store.getOffers("c-1")).contains(retried);
+		assertThat(store.offersFuture("c-1")).isCompletedWithValue(retried);
+	}
+
+	@Test
+	void keepsCorrelationIdsApart() {
+		CompletableFuture<List<Offer>> other = store.offersFuture("c-2");
+
+		store.storeOffers("c-1", OFFERS);
+
+		assertThat(other).isNotDone();
+		assertThat(store.getOffers("c-2")).isEmpty();
+	}
+
+	@Test
+	void awaitAsyncCompletesWhenTheResultIsStored() {
+		CompletableFuture<Optional<List<Offer>>> offers = store.awaitOffersAsync("c-1", Duration.ofSeconds(10));
+		assertThat(offers).isNotDone();
+
+		store.storeOffers("c-1", OFFERS);
+
+		assertThat(offers).isCompletedWithValue(Optional.of(OFFERS));
+	}
+
+	@Test
+	void awaitAsyncTimeoutLeavesTheResultPending() {
+		CompletableFuture<Optional<ReviewResult>> timedOut = store.awaitReviewResultAsync("c-1", Duration.ofMillis(20));
+
+		assertThat(timedOut.join()).isEmpty();
+		assertThat(store.reviewResultFuture("c-1")).isNotDone();
+
+		store.storeReviewResult("c-1", ReviewResult.accepted("K-1"));
+		assertThat(store.awaitReviewResultAsync("c-1", Duration.ZERO))
+				.isCompletedWithValue(Optional.of(ReviewResult.accepted("K-1")));
+	}
+
+	@Test
+	void duplicateWaitsShareOnePendingResult() {
+		CompletableFuture<Optional<List<Offer>>> first = store.awaitOffersAsync("c-1", Duration.ofSeconds(10));
+		CompletableFuture<Optional<List<Offer>>> retry = store.awaitOffersAsync("c-1", Duration.ofSeconds(10));
+		CompletableFuture<Optional<List<Offer>>> other = store.awaitOffersAsync("c-2", Duration.ofSeconds(10));
+
+		assertThat(store.stats().waiters()).isEqualTo(3);
+		assertThat(store.stats().duplicateWaits()).isEqualTo(1);
+		assertThat(meterRegistry.get("process.state.store.waiters").gauge().value()).isEqualTo(3);
+
+		store.storeOffers("c-1", OFFERS);
+
+		assertThat(first).isCompletedWithValue(Optional.of(OFFERS));
+		assertThat(retry).isCompletedWithValue(Optional.of(OFFERS));
+		assertThat(other).isNotDone();
+		assertThat(store.stats().waiters()).isEqualTo(1);
+		assertThat(meterRegistry.get("process.state.store.waiters.duplicate").functionCounter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void lateWaiterGetsTheStoredResultWithoutWaiting() {
+		store.storeOffers("c-1", OFFERS);
+
+		assertThat(store.awaitOffersAsync("c-1", Duration.ofSeconds(10))).isCompletedWithValue(Optional.of(OFFERS));
+		assertThat(store.awaitOffers("c-1", Duration.ofSeconds(10))).contains(OFFERS);
+		assertThat(store.stats().waiters()).isZero();
+		assertThat(store.stats().duplicateWaits()).isZero();
+	}
+
+	@Test
+	void releasesWaitersOnTimeout() {
+		assertThat(store.awaitReviewResult("c-1", Duration.ofMillis(20))).isEmpty();
+		assertThat(store.awaitReviewResultAsync("c-1", Duration.ofMillis(20)).join()).isEmpty();
+
+		assertThat(store.stats().waiters()).isZero();
+	}
+
+	@Test
+	void expiresEntriesAfterTheTimeToLive() throws InterruptedException {
+		ProcessStateStore store = new ProcessStateStore(
+				100, Duration.ofMillis(50), ProcessStateStore.ExpireAfter.WRITE, meterRegistry);
+		store.storeOffers("c-1", OFFERS);
+		assertThat(store.getOffers("c-1")).contains(OFFERS);
+
+		Thread.sleep(100);
+
+		assertThat(store.getOffers("c-1")).isEmpty();
+		assertThat(store.stats().entries()).isZero();
+		assertThat(store.stats().evictions()).isEqualTo(1);
+		assertThat(store.stats().retainedBytes()).isZero();
+	}
+
+	@Test
+	void readsKeepEntriesAliveWhenExpiringAfterAccess() throws InterruptedException {
+		ProcessStateStore store = new ProcessStateStore(
+				100, Duration.ofMillis(200), ProcessStateStore.ExpireAfter.ACCESS, meterRegistry);
+		store.storeOffers("c-1", OFFERS);
+		store.storeOffers("c-2", OFFERS);
+
+		for (int i = 0; i < 4; i++) {
+			Thread.sleep(80);
+			assertThat(store.getOffers("c-1")).contains(OFFERS);
+		}
+
+		assertThat(store.getOffers("c-2")).isEmpty();
+	}
+
+	@Test
+	void evictsLeastRecentlyStoredEntryBeyondMaxEntries() {
+		ProcessStateStore store = new ProcessStateStore(
+				3, Duration.ofMinutes(10), ProcessStateStore.ExpireAfter.WRITE, meterRegistry);
+		for (int i = 1; i <= 3; i++) {
+			store.storeOffers("c-" + i, OFFERS);
+		}
+		store.storeReviewResult("c-1", ReviewResult.accepted("K-1"));
+
+		store.storeOffers("c-4", OFFERS);
+
+		assertThat(store.getOffers("c-2")).isEmpty();
+		assertThat(store.getOffers("c-1")).contains(OFFERS);
+		assertThat(store.getReviewResult("c-1")).contains(ReviewResult.accepted("K-1"));
+		assertThat(store.getOffers("c-3")).contains(OFFERS);
+		assertThat(store.getOffers("c-4")).contains(OFFERS);
+		assertThat(store.stats().entries()).isEqualTo(3);
+		assertThat(store.stats().evictions()).isEqualTo(1);
+	}
+
+	@Test
+	void accountsRetainedBytesAndLookups() {
+		store.storeOffers("c-1", OFFERS);
+		long withOffers = store.stats().retainedBytes();
+		store.storeReviewResult("c-1", ReviewResult.rejected("Score too low (risk too high)"));
+		long withReview = store.stats().retainedBytes();
+		store.storeOffers("c-1", List.of());
+
+		assertThat(withOffers).isPositive();
+		assertThat(withReview).isGreaterThan(withOffers);
+		assertThat(store.stats().retainedBytes()).isLessThan(withReview);
+
+		store.getOffers("c-1");
+		store.getOffers("c-2");
+		assertThat(meterRegistry.get("process.state.store.lookups").tag("result", "hit").functionCounter().count())
+				.isEqualTo(1);
+		assertThat(meterRegistry.get("process.state.store.lookups").tag("result", "miss").functionCounter().count())
+				.isEqualTo(1);
+		assertThat(meterRegistry.get("process.state.store.retained").gauge().value())
+				.isEqualTo(store.stats().retainedBytes());
+	}
+
+	@Test
+	void keepsWaitedForEntriesBeyondMaxEntries() {
+		ProcessStateStore store = new ProcessStateStore(
+				2, Duration.ofMinutes(10), ProcessStateStore.ExpireAfter.WRITE, meterRegistry);
+		CompletableFuture<Integer> waiter = store.offersFuture("c-1").thenApply(List::size);
+		store.offersFuture("c-2");
+		for (int i = 3; i <= 5; i++) {
+			store.storeOffers("c-" + i, OFFERS);
+		}
+
+		store.storeOffers("c-1", OFFERS);
+
+		assertThat(waiter).isCompletedWithValue(1);
+		assertThat(store.getOffers("c-1")).contains(OFFERS);
+		assertThat(store.stats().entries()).isEqualTo(2);
+	}
+
+	@Test
+	void failsWaitersOfExpiredEntries() throws InterruptedException {
+		ProcessStateStore store = new ProcessStateStore(
+				100, Duration.ofMillis(50), ProcessStateStore.ExpireAfter.WRITE, meterRegistry);
+		CompletableFuture<Integer> waiter = store.offersFuture("c-1").thenApply(List::size);
+
+		Thread.sleep(100);
+		store.storeOffers("c-2", OFFERS);
+
+		assertThat(waiter).failsWithin(Duration.ofSeconds(5));
+		assertThat(store.stats().entries()).isEqualTo(1);
+	}
+}
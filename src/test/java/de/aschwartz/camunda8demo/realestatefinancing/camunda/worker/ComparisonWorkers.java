@@ -0,0 +1,161 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
+
+import de.aschwartz.camunda8demo.realestatefinancing.camunda.store.ProcessStateStore;
+import de.aschwartz.camunda8demo.realestatefinancing.config.ComparisonProperties;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.CreateProcessService;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.credit.BankRateEngine;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.credit.BankRegistry;
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.response.ActivatedJob;
+import io.camunda.zeebe.client.api.worker.JobWorker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The job workers of both credit comparison modes, opened on a client of an in-process engine for
+ * tests and benchmarks. The banks are the defaults of {@code application.yaml}.
+ */
+final class ComparisonWorkers implements AutoCloseable {
+
+	static final List<String> BANK_IDS = List.of("a", "b", "c");
+
+	private final ZeebeClient client;
+	private final ComparisonProperties properties = new ComparisonProperties();
+	private final BankRegistry bankRegistry;
+	private final ProcessStateStore processStateStore;
+	private final List<JobWorker> workers = new ArrayList<>();
+
+	/**
+	 * Deploys the credit application and both comparison processes and opens the comparison workers.
+	 *
+	 * @param client       client of the engine
+	 * @param pollInterval poll interval of the workers
+	 */
+	ComparisonWorkers(ZeebeClient client, Duration pollInterval) {
+		client.newDeployResourceCommand()
+				.addResourceFromClasspath("processes/credit/credit-application.bpmn")
+				.addResourceFromClasspath("processes/credit/credit-comparison.bpmn")
+				.addResourceFromClasspath("processes/credit/credit-comparison-fast.bpmn")
+				.send()
+				.join();
+
+		this.client = client;
+		properties.setBanks(List.of(
+				bank("a", "Hyperbank", "3.10"),
+				bank("b", "Bank of Scottsdale", "3.40"),
+				bank("c", "Equity Bank", "3.25")));
+		bankRegistry = new BankRegistry(properties);
+		BankRateEngine bankRateEngine = new BankRateEngine(bankRegistry);
+		processStateStore = new ProcessStateStore(1000, Duration.ofMinutes(10), ProcessStateStore.ExpireAfter.WRITE,
+				new SimpleMeterRegistry());
+
+		open(client, pollInterval, "request-bank-conditions",
+				new BankConditionsWorker(bankRegistry, bankRateEngine)::handle);
+		open(client, pollInterval, "collect-results",
+				new CollectResultsWorker(processStateStore)::handle);
+		open(client, pollInterval, "compare-all-banks",
+				new CompareAllBanksWorker(bankRegistry, bankRateEngine, processStateStore)::handle);
+	}
+
+	/**
+	 * Returns the store the workers write the offers to.
+	 *
+	 * @return process state store
+	 */
+	ProcessStateStore processStateStore() {
+		return processStateStore;
+	}
+
+	/**
+	 * Returns a process starter with the application's start variable defaults.
+	 *
+	 * @param mode comparison mode of credit applications
+	 * @return process starter
+	 */
+	CreateProcessService createProcessService(ComparisonProperties.Mode mode) {
+		ComparisonProperties withMode = new ComparisonProperties();
+		withMode.setBanks(properties.getBanks());
+		withMode.setMode(mode);
+		return new CreateProcessService(client, bankRegistry, withMode, 32, 0, Duration.ofMillis(200), Duration.ofSeconds(5));
+	}
+
+	/**
+	 * Runs a comparison and waits for its end.
+	 *
+	 * @param client        client of the engine
+	 * @param mode          comparison mode
+	 * @param correlationId correlation id the offers are stored under
+	 * @param variables     applicant variables
+	 * @return variables of the completed instance
+	 */
+	static Map<String, Object> compare(
+			ZeebeClient client,
+			ComparisonProperties.Mode mode,
+			String correlationId,
+			Map<String, Object> variables
+	) {
+		Map<String, Object> start = new HashMap<>(variables);
+		start.put("correlationId", correlationId);
+		return client.newCreateInstanceCommand()
+				.bpmnProcessId(mode.processId())
+				.latestVersion()
+				.variables(start)
+				.withResult()
+				.requestTimeout(Duration.ofSeconds(30))
+				.send()
+				.join()
+				.getVariablesAsMap();
+	}
+
+	/**
+	 * Applicant variables as set by the credit controller, comparing all banks.
+	 *
+	 * @param monthlyNetIncome monthly net income
+	 * @param propertyValue    property value
+	 * @param equity           equity
+	 * @return start variables
+	 */
+	static Map<String, Object> applicant(BigDecimal monthlyNetIncome, BigDecimal propertyValue, BigDecimal equity) {
+		return Map.of(
+				"monthlyNetIncome", monthlyNetIncome,
+				"propertyValue", propertyValue,
+				"equity", equity,
+				"bankIds", BANK_IDS);
+	}
+
+	@Override
+	public void close() {
+		workers.forEach(JobWorker::close);
+	}
+
+	private void open(
+			ZeebeClient client,
+			Duration pollInterval,
+			String jobType,
+			Function<ActivatedJob, Map<String, Object>> handler
+	) {
+		workers.add(client.newWorker()
+				.jobType(jobType)
+				.handler((jobClient, job) -> jobClient.newCompleteCommand(job)
+						.variables(handler.apply(job))
+						.send()
+						.join())
+				.pollInterval(pollInterval)
+				.open());
+	}
+
+	private static ComparisonProperties.Bank bank(String id, String name, String baseRate) {
+		ComparisonProperties.Bank bank = new ComparisonProperties.Bank();
+		bank.setId(id);
+		bank.setName(name);
+		bank.setBaseRate(new BigDecimal(baseRate));
+		return bank;
+	}
+}
@@ -0,0 +1,89 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
+
+import de.aschwartz.camunda8demo.realestatefinancing.logic.contract.ContractBatchService;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.offer.OfferStore;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.ZeebeFuture;
+import io.camunda.zeebe.client.api.command.SetVariablesCommandStep1;
+import io.camunda.zeebe.client.api.response.ActivatedJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the variables read and written by {@link CreateContractPdfBatchWorker}.
+ */
+class CreateContractPdfBatchWorkerTest {
+
+	private final ContractBatchService contractBatchService = mock(ContractBatchService.class);
+	private final ZeebeClient zeebeClient = mock(ZeebeClient.class);
+	private final OfferStore offerStore = mock(OfferStore.class);
+	private final CreateContractPdfBatchWorker worker =
+			new CreateContractPdfBatchWorker(offerStore, contractBatchService, zeebeClient);
+
+	private final ActivatedJob job = mock(ActivatedJob.class);
+	private final SetVariablesCommandStep1 setVariables = mock(SetVariablesCommandStep1.class);
+	private final SetVariablesCommandStep1.SetVariablesCommandStep2 setVariablesWithPayload =
+			mock(SetVariablesCommandStep1.SetVariablesCommandStep2.class);
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void mockJob() throws IOException {
+		when(offerStore.resolve(any())).thenAnswer(invocation -> OffersResponse.Angebot.builder()
+				.vermittler(((Map<String, String>) invocation.getArgument(0)).get("vermittler"))
+				.build());
+		when(job.getKey()).thenReturn(1L);
+		when(job.getType()).thenReturn("create-contract-pdf-batch");
+		when(job.getElementInstanceKey()).thenReturn(42L);
+		when(zeebeClient.newSetVariablesCommand(42L)).thenReturn(setVariables);
+		when(setVariables.variables(anyMap())).thenReturn(setVariablesWithPayload);
+		when(setVariablesWithPayload.send()).thenReturn(mock(ZeebeFuture.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void returnsTheContractIdsAndReportsProgressOnTheElementInstance() throws Exception {
+		when(job.getVariables()).thenReturn(
+				"{\"offers\": [{\"vermittler\": \"A\"}, {\"vermittler\": \"B\"}, {\"vermittler\": \"C\"}]}");
+		when(contractBatchService.createContracts(any(), any(), any())).thenAnswer(invocation -> {
+			IntConsumer progress = invocation.getArgument(2);
+			progress.accept(2);
+			progress.accept(3);
+			return List.of("sha256:a", "sha256:b", "sha256:c");
+		});
+
+		Map<String, Object> result = worker.handle(job);
+
+		assertThat(result).isEqualTo(Map.of("contractIds", List.of("sha256:a", "sha256:b", "sha256:c")));
+
+		ArgumentCaptor<List<OffersResponse.Angebot>> offers = ArgumentCaptor.forClass(List.class);
+		verify(contractBatchService).createContracts(offers.capture(), any(), any());
+		assertThat(offers.getValue()).extracting(OffersResponse.Angebot::getVermittler).containsExactly("A", "B", "C");
+
+		verify(setVariables).variables(Map.of("contractBatchProgress", Map.of("done", 2, "total", 3)));
+		verify(setVariables).variables(Map.of("contractBatchProgress", Map.of("done", 3, "total", 3)));
+	}
+
+	@Test
+	void rejectsJobsWithoutAnOfferList() {
+		when(job.getVariables()).thenReturn("{\"offers\": \"none\"}");
+
+		assertThatThrownBy(() -> worker.handle(job))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("'offers'");
+	}
+}
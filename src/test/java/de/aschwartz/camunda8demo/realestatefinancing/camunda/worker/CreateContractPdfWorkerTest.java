@@ -0,0 +1,151 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
+
+import de.aschwartz.camunda8demo.realestatefinancing.logic.contract.ContractPdfRenderer;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.contract.ContractRenderExecutor;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.contract.ContractStore;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.offer.OfferStore;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import io.camunda.zeebe.client.api.ZeebeFuture;
+import io.camunda.zeebe.client.api.command.CompleteJobCommandStep1;
+import io.camunda.zeebe.client.api.command.FailJobCommandStep1;
+import io.camunda.zeebe.client.api.response.ActivatedJob;
+import io.camunda.zeebe.client.api.worker.JobClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that {@link CreateContractPdfWorker} completes jobs from the render thread and hands jobs
+ * back without losing a retry while the render queue is full.
+ */
+class CreateContractPdfWorkerTest {
+
+	private static final Duration REJECTED_BACKOFF = Duration.ofSeconds(5);
+
+	private final ContractStore contractStore = mock(ContractStore.class);
+	private final OfferStore offerStore = mock(OfferStore.class);
+	private final ContractRenderExecutor executor = new ContractRenderExecutor(1, 1, new SimpleMeterRegistry());
+	private final CreateContractPdfWorker worker = new CreateContractPdfWorker(
+			new ContractPdfRenderer(), contractStore, executor, offerStore, REJECTED_BACKOFF);
+
+	private final JobClient client = mock(JobClient.class);
+	private final CompleteJobCommandStep1 complete = mock(CompleteJobCommandStep1.class);
+	private final FailJobCommandStep1 fail = mock(FailJobCommandStep1.class);
+	private final FailJobCommandStep1.FailJobCommandStep2 failWithRetries =
+			mock(FailJobCommandStep1.FailJobCommandStep2.class, RETURNS_SELF);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void mockClient() throws IOException {
+		when(offerStore.resolve(any())).thenReturn(OffersResponse.Angebot.builder().vermittler("A").build());
+		when(client.newCompleteCommand(anyLong())).thenReturn(complete);
+		when(complete.variables(anyMap())).thenReturn(complete);
+		when(complete.send()).thenReturn(mock(ZeebeFuture.class));
+		when(client.newFailCommand(anyLong())).thenReturn(fail);
+		when(fail.retries(anyInt())).thenReturn(failWithRetries);
+		when(failWithRetries.send()).thenReturn(mock(ZeebeFuture.class));
+	}
+
+	@AfterEach
+	void shutdown() {
+		release.countDown();
+	}
+
+	@Test
+	void completesTheJobWithTheContractId() throws IOException {
+		when(contractStore.store(any())).thenReturn("sha256:contract");
+
+		worker.handle(client, job(1));
+
+		verify(client, timeout(5_000)).newCompleteCommand(1L);
+		verify(complete).variables(Map.of("contractId", "sha256:contract"));
+		verify(offerStore).resolve(Map.of("vermittler", "A"));
+	}
+
+	@Test
+	void handsJobsBackWithoutLosingARetryWhileTheQueueIsFull() throws IOException {
+		CountDownLatch rendering = new CountDownLatch(1);
+		when(contractStore.store(any())).thenAnswer(invocation -> {
+			rendering.countDown();
+			release.await();
+			return "sha256:contract";
+		});
+
+		worker.handle(client, job(1));
+		awaitQuietly(rendering);
+		worker.handle(client, job(2));
+		worker.handle(client, job(3));
+
+		verify(client).newFailCommand(3L);
+		verify(fail).retries(3);
+		verify(failWithRetries).retryBackoff(REJECTED_BACKOFF);
+
+		release.countDown();
+		verify(client, timeout(5_000)).newCompleteCommand(1L);
+		verify(client, timeout(5_000)).newCompleteCommand(2L);
+		verify(client, never()).newFailCommand(1L);
+		verify(client, never()).newFailCommand(2L);
+	}
+
+	@Test
+	void consumesARetryIfTheContractCannotBeStored() throws IOException {
+		when(contractStore.store(any())).thenThrow(new IOException("disk full"));
+
+		worker.handle(client, job(1));
+
+		verify(client, timeout(5_000)).newFailCommand(1L);
+		verify(fail).retries(2);
+		verify(failWithRetries, never()).retryBackoff(any());
+	}
+
+	@Test
+	void consumesARetryIfTheOfferCannotBeResolved() throws IOException {
+		when(offerStore.resolve(any())).thenThrow(new IllegalArgumentException("Offer sha256:offer not found"));
+
+		worker.handle(client, job(1));
+
+		verify(client, timeout(5_000)).newFailCommand(1L);
+		verify(fail).retries(2);
+		verify(contractStore, never()).store(any());
+	}
+
+	private static ActivatedJob job(long key) {
+		ActivatedJob job = mock(ActivatedJob.class);
+		when(job.getKey()).thenReturn(key);
+		when(job.getType()).thenReturn("create-contract-pdf");
+		when(job.getRetries()).thenReturn(3);
+		when(job.getDeadline()).thenReturn(System.currentTimeMillis() + 60_000);
+		when(job.getVariables()).thenReturn(
+				"{\"correlationId\": \"c-%d\", \"cheapestOffer\": {\"vermittler\": \"A\"}}".formatted(key));
+		return job;
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
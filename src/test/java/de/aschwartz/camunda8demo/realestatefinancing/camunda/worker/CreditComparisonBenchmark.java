@@ -0,0 +1,68 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
+
+import de.aschwartz.camunda8demo.realestatefinancing.config.ComparisonProperties;
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.process.test.api.ZeebeTestEngine;
+import io.camunda.zeebe.process.test.engine.EngineFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one credit comparison from instance creation to its end, multi-instance against fast, on
+ * the in-process engine. The workers poll every millisecond, so the numbers show the jobs and engine
+ * round trips each mode needs rather than the poll interval of a real cluster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditComparisonBenchmark {
+
+	@Param({"MULTI_INSTANCE", "FAST"})
+	public ComparisonProperties.Mode mode;
+
+	private final Map<String, Object> applicant = ComparisonWorkers.applicant(
+			new BigDecimal("4200"), new BigDecimal("350000"), new BigDecimal("70000"));
+
+	private ZeebeTestEngine engine;
+	private ZeebeClient client;
+	private ComparisonWorkers workers;
+	private long instances;
+
+	@Setup
+	public void setUp() {
+		engine = EngineFactory.create();
+		engine.start();
+		client = engine.createClient();
+		workers = new ComparisonWorkers(client, Duration.ofMillis(1));
+	}
+
+	@TearDown
+	public void tearDown() {
+		workers.close();
+		client.close();
+		engine.stop();
+	}
+
+	@Benchmark
+	public Map<String, Object> compare() {
+		return ComparisonWorkers.compare(client, mode, "benchmark-" + instances++, applicant);
+	}
+}
@@ -0,0 +1,152 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
+
+import de.aschwartz.camunda8demo.realestatefinancing.config.ComparisonProperties;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.CreateProcessService;
+import de.aschwartz.camunda8demo.realestatefinancing.model.Offer;
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.process.test.extension.ZeebeProcessTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the multi-instance and the fast credit comparison on the in-process engine and compares their
+ * offers.
+ */
+@ZeebeProcessTest
+class CreditComparisonProcessTest {
+
+	// Injected by the extension.
+	private ZeebeClient client;
+
+	private ComparisonWorkers workers;
+
+	@BeforeEach
+	void openWorkers() {
+		workers = new ComparisonWorkers(client, Duration.ofMillis(10));
+	}
+
+	@AfterEach
+	void closeWorkers() {
+		workers.close();
+	}
+
+	@Test
+	void bothModesReturnTheSameOffers() {
+		Random random = new Random(0x17_2024L);
+		for (int i = 0; i < 10; i++) {
+			BigDecimal propertyValue = BigDecimal.valueOf(random.nextLong(10_000_000, 150_000_000), 2);
+			BigDecimal equity = BigDecimal.valueOf(random.nextLong(0, propertyValue.unscaledValue().longValue()), 2);
+			BigDecimal income = BigDecimal.valueOf(random.nextLong(150_000, 1_500_000), 2);
+			Map<String, Object> applicant = ComparisonWorkers.applicant(income, propertyValue, equity);
+
+			Map<String, Object> multiInstance = ComparisonWorkers.compare(
+					client, ComparisonProperties.Mode.MULTI_INSTANCE, "multi-" + i, applicant);
+			Map<String, Object> fast = ComparisonWorkers.compare(
+					client, ComparisonProperties.Mode.FAST, "fast-" + i, applicant);
+
+			assertThat(fast.get("creditOffers")).as("applicant %s", applicant).isEqualTo(multiInstance.get("creditOffers"));
+			assertSameOffers(
+					workers.processStateStore().getOffers("fast-" + i).orElseThrow(),
+					workers.processStateStore().getOffers("multi-" + i).orElseThrow());
+		}
+	}
+
+	@Test
+	void bothModesCompareOnlyTheRequestedBanks() {
+		Map<String, Object> applicant = new HashMap<>(ComparisonWorkers.applicant(
+				new BigDecimal("4200"), new BigDecimal("350000"), new BigDecimal("70000")));
+		applicant.put("bankIds", List.of("c", "a"));
+
+		List<Offer> multiInstance = offers(ComparisonProperties.Mode.MULTI_INSTANCE, "multi-subset", applicant);
+		List<Offer> fast = offers(ComparisonProperties.Mode.FAST, "fast-subset", applicant);
+
+		assertThat(multiInstance.stream().map(Offer::getBankName).toList()).containsExactly("Equity Bank", "Hyperbank");
+		assertSameOffers(fast, multiInstance);
+	}
+
+	@Test
+	void bothModesCompareAllBanksWhenTheApplicationStartsThemWithoutBankIds() {
+		Map<String, Object> applicant = new HashMap<>(ComparisonWorkers.applicant(
+				new BigDecimal("3000"), new BigDecimal("250000"), new BigDecimal("20000")));
+		applicant.remove("bankIds");
+
+		List<Offer> multiInstance = offersStartedByTheApplication(
+				ComparisonProperties.Mode.MULTI_INSTANCE.processId(), ComparisonProperties.Mode.MULTI_INSTANCE, "multi-default", applicant);
+		List<Offer> fast = offersStartedByTheApplication(
+				ComparisonProperties.Mode.FAST.processId(), ComparisonProperties.Mode.FAST, "fast-default", applicant);
+
+		assertThat(multiInstance.stream().map(Offer::getBankName).toList())
+				.containsExactly("Hyperbank", "Bank of Scottsdale", "Equity Bank");
+		assertSameOffers(fast, multiInstance);
+	}
+
+	@Test
+	void creditApplicationsRunTheConfiguredComparison() {
+		Map<String, Object> applicant = new HashMap<>(ComparisonWorkers.applicant(
+				new BigDecimal("3000"), new BigDecimal("250000"), new BigDecimal("20000")));
+		applicant.remove("bankIds");
+
+		List<Offer> multiInstance = offersStartedByTheApplication(
+				"RealEstateCreditApplication", ComparisonProperties.Mode.MULTI_INSTANCE, "application-multi", applicant);
+		List<Offer> fast = offersStartedByTheApplication(
+				"RealEstateCreditApplication", ComparisonProperties.Mode.FAST, "application-fast", applicant);
+
+		assertThat(multiInstance).hasSize(3);
+		assertSameOffers(fast, multiInstance);
+	}
+
+	@Test
+	void fastModeComparesAllBanksWhenStartedDirectlyWithoutBankIds() {
+		Map<String, Object> applicant = new HashMap<>(ComparisonWorkers.applicant(
+				new BigDecimal("3000"), new BigDecimal("250000"), new BigDecimal("20000")));
+		applicant.remove("bankIds");
+
+		List<Offer> fast = offers(ComparisonProperties.Mode.FAST, "fast-direct", applicant);
+
+		assertThat(fast.stream().map(Offer::getBankName).toList())
+				.containsExactly("Hyperbank", "Bank of Scottsdale", "Equity Bank");
+	}
+
+	/**
+	 * Starts the process like the application does, through {@link CreateProcessService}, and waits
+	 * for the offers.
+	 */
+	private List<Offer> offersStartedByTheApplication(
+			String processId,
+			ComparisonProperties.Mode mode,
+			String correlationId,
+			Map<String, Object> applicant
+	) {
+		Map<String, Object> start = new HashMap<>(applicant);
+		start.put("correlationId", correlationId);
+		workers.createProcessService(mode).createProcess(processId, start);
+		return workers.processStateStore().awaitOffers(correlationId, Duration.ofSeconds(30)).orElseThrow();
+	}
+
+	private List<Offer> offers(ComparisonProperties.Mode mode, String correlationId, Map<String, Object> applicant) {
+		ComparisonWorkers.compare(client, mode, correlationId, applicant);
+		return workers.processStateStore().getOffers(correlationId).orElseThrow();
+	}
+
+	/**
+	 * Same banks in the same order with the same rates; the multi-instance rates went through the
+	 * engine and may have lost trailing zeros.
+	 */
+	private static void assertSameOffers(List<Offer> actual, List<Offer> expected) {
+		assertThat(actual).hasSize(expected.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertThat(actual.get(i).getBankName()).isEqualTo(expected.get(i).getBankName());
+			assertThat(actual.get(i).getInterestRate()).isEqualByComparingTo(expected.get(i).getInterestRate());
+		}
+	}
+}
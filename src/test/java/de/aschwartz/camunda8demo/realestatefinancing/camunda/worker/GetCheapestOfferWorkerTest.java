@@ -0,0 +1,108 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
+
+import de.aschwartz.camunda8demo.realestatefinancing.logic.offer.CheapestOfferService;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.offer.OfferStore;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.offer.OffersUnavailableException;
+import de.aschwartz.camunda8demo.realestatefinancing.model.ContractOffer;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import io.camunda.zeebe.client.api.ZeebeFuture;
+import io.camunda.zeebe.client.api.command.CompleteJobCommandStep1;
+import io.camunda.zeebe.client.api.command.FailJobCommandStep1;
+import io.camunda.zeebe.client.api.response.ActivatedJob;
+import io.camunda.zeebe.client.api.worker.JobClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that {@link GetCheapestOfferWorker} completes jobs with the offer projection and how it fails
+ * jobs when the offer lookup fails.
+ */
+class GetCheapestOfferWorkerTest {
+
+	private final CheapestOfferService cheapestOfferService = mock(CheapestOfferService.class);
+	private final OfferStore offerStore = mock(OfferStore.class);
+	private final GetCheapestOfferWorker worker = new GetCheapestOfferWorker(cheapestOfferService, offerStore);
+
+	private final JobClient client = mock(JobClient.class);
+	private final ActivatedJob job = mock(ActivatedJob.class);
+	private final FailJobCommandStep1 fail = mock(FailJobCommandStep1.class);
+	private final FailJobCommandStep1.FailJobCommandStep2 failWithRetries =
+			mock(FailJobCommandStep1.FailJobCommandStep2.class, RETURNS_SELF);
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void mockJob() {
+		when(job.getKey()).thenReturn(1L);
+		when(job.getType()).thenReturn("get-cheapest-offer");
+		when(job.getRetries()).thenReturn(3);
+		when(job.getVariables()).thenReturn("{\"propertyValue\": 500000, \"equity\": 100000}");
+		when(client.newFailCommand(1L)).thenReturn(fail);
+		when(fail.retries(anyInt())).thenReturn(failWithRetries);
+		when(failWithRetries.send()).thenReturn(mock(ZeebeFuture.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void completesWithTheProjectionOfTheStoredOffer() throws IOException {
+		OffersResponse.Angebot offer = OffersResponse.Angebot.builder().vermittler("A").actionUrl("https://example.com").build();
+		ContractOffer projection = ContractOffer.of(offer, "sha256:offer");
+		when(cheapestOfferService.findCheapestOffer(any())).thenReturn(Mono.just(offer));
+		when(offerStore.store(offer)).thenReturn(projection);
+		CompleteJobCommandStep1 complete = mock(CompleteJobCommandStep1.class);
+		when(client.newCompleteCommand(1L)).thenReturn(complete);
+		when(complete.variables(anyMap())).thenReturn(complete);
+		when(complete.send()).thenReturn(mock(ZeebeFuture.class));
+
+		worker.handle(client, job);
+
+		verify(complete, timeout(5_000)).variables(Map.of("cheapestOffer", projection));
+	}
+
+	@Test
+	void neverBacksOffForLessThanOneSecondWithoutConsumingARetry() {
+		when(cheapestOfferService.findCheapestOffer(any()))
+				.thenReturn(Mono.error(new OffersUnavailableException("Circuit open", Duration.ZERO)));
+
+		worker.handle(client, job);
+
+		verify(fail).retries(3);
+		verify(failWithRetries).retryBackoff(Duration.ofSeconds(1));
+	}
+
+	@Test
+	void keepsLongerBackoffsOfUnavailableProviders() {
+		when(cheapestOfferService.findCheapestOffer(any()))
+				.thenReturn(Mono.error(new OffersUnavailableException("Circuit open", Duration.ofSeconds(30))));
+
+		worker.handle(client, job);
+
+		verify(fail).retries(3);
+		verify(failWithRetries).retryBackoff(Duration.ofSeconds(30));
+	}
+
+	@Test
+	void consumesARetryOnOtherErrors() {
+		when(cheapestOfferService.findCheapestOffer(any()))
+				.thenReturn(Mono.error(new RuntimeException("API not available")));
+
+		worker.handle(client, job);
+
+		verify(fail).retries(2);
+		verify(failWithRetries, never()).retryBackoff(any());
+	}
+}
@@ -0,0 +1,76 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the four variables of {@code request-bank-conditions} from variable documents of growing
+ * size: {@link JobVariables} against the full variable map ({@code getVariablesAsMap()}) and
+ * {@link VariableMapper}. Run with {@code -prof gc} to compare the allocations as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JobVariablesBenchmark {
+
+	private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+	};
+
+	/**
+	 * Variables of the process instance besides the ones the worker reads, e.g. offers and form values.
+	 */
+	@Param({"0", "20", "200"})
+	public int otherVariables;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private String json;
+
+	@Setup
+	public void setUp() {
+		StringBuilder variables = new StringBuilder("{");
+		for (int i = 0; i < otherVariables; i++) {
+			variables.append("\"offer").append(i).append("\":{\"bankName\":\"Bank ").append(i)
+					.append("\",\"interestRate\":3.").append(i % 100).append(",\"tags\":[\"a\",\"b\"]},");
+		}
+		variables.append("""
+				"bankId":"a","monthlyNetIncome":4200.50,"propertyValue":350000,"equity":70000}""");
+		json = variables.toString();
+	}
+
+	@Benchmark
+	public void jobVariables(Blackhole blackhole) {
+		JobVariables variables = JobVariables.read(json, "bankId", "monthlyNetIncome", "propertyValue", "equity");
+		blackhole.consume(variables.getString("bankId"));
+		blackhole.consume(variables.getBigDecimal("monthlyNetIncome"));
+		blackhole.consume(variables.getBigDecimal("propertyValue"));
+		blackhole.consume(variables.getBigDecimal("equity"));
+	}
+
+	@Benchmark
+	public void variablesAsMap(Blackhole blackhole) throws JsonProcessingException {
+		Map<String, Object> variables = objectMapper.readValue(json, MAP_TYPE);
+		blackhole.consume(VariableMapper.getString(variables, "bankId"));
+		blackhole.consume(VariableMapper.getBigDecimal(variables, "monthlyNetIncome"));
+		blackhole.consume(VariableMapper.getBigDecimal(variables, "propertyValue"));
+		blackhole.consume(VariableMapper.getBigDecimal(variables, "equity"));
+	}
+}
@@ -0,0 +1,151 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
+
+import io.camunda.zeebe.client.api.response.ActivatedJob;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that {@link JobVariables} reads the requested variables exactly, skips the others and records
+ * the payload size.
+ */
+class JobVariablesTest {
+
+	@Test
+	void readsOnlyRequestedVariables() {
+		JobVariables variables = JobVariables.read("""
+				{"bankId":"a","offers":[{"rate":1}],"equity":50000,"note":{"x":[1,2,{"y":null}]},"propertyValue":"300000"}
+				""", "bankId", "equity", "propertyValue", "missing");
+
+		assertThat(variables.getString("bankId")).isEqualTo("a");
+		assertThat(variables.getBigDecimal("equity")).isEqualTo(new BigDecimal("50000"));
+		assertThat(variables.getBigDecimal("propertyValue")).isEqualTo(new BigDecimal("300000"));
+		assertThat(variables.get("missing")).isNull();
+		assertThatThrownBy(() -> variables.get("offers"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("offers");
+	}
+
+	@Test
+	void readsNumbersExactly() {
+		JobVariables variables = JobVariables.read("""
+				{"rate":3.10,"tiny":0.1,"big":12345678901234567890.123456789,"exp":1.5e3,"negative":-0.005}
+				""", "rate", "tiny", "big", "exp", "negative");
+
+		assertThat(variables.getBigDecimal("rate")).isEqualTo(new BigDecimal("3.10"));
+		assertThat(variables.getBigDecimal("tiny")).isEqualTo(new BigDecimal("0.1"));
+		assertThat(variables.getBigDecimal("big")).isEqualTo(new BigDecimal("12345678901234567890.123456789"));
+		assertThat(variables.getBigDecimal("exp")).isEqualByComparingTo(new BigDecimal("1500"));
+		assertThat(variables.getBigDecimal("negative")).isEqualTo(new BigDecimal("-0.005"));
+	}
+
+	@Test
+	void readsStructuredAndTextValuesLikeTheVariableMap() {
+		JobVariables variables = JobVariables.read("""
+				{"offers":[{"bankName":"Hyperbank","interestRate":3.10}],"accepted":true,"rejected":false,
+				"nothing":null,"entered":" 4.000,50 ","blank":"  "}
+				""", "offers", "accepted", "rejected", "nothing", "entered", "blank");
+
+		assertThat(variables.get("offers"))
+				.isEqualTo(List.of(Map.of("bankName", "Hyperbank", "interestRate", new BigDecimal("3.10"))));
+		assertThat(variables.get("accepted")).isEqualTo(Boolean.TRUE);
+		assertThat(variables.get("rejected")).isEqualTo(Boolean.FALSE);
+		assertThat(variables.get("nothing")).isNull();
+		assertThat(variables.getBigDecimal("entered")).isEqualTo(new BigDecimal("4000.50"));
+		assertThat(variables.getBigDecimal("blank")).isNull();
+		assertThatThrownBy(() -> variables.getBigDecimal("accepted")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void stopsOnceAllRequestedVariablesWereRead() {
+		// Everything after the last requested key is never parsed.
+		JobVariables variables = JobVariables.read("{\"a\":1,\"b\":\"two\",\"c\":[not json", "b", "a");
+
+		assertThat(variables.getBigDecimal("a")).isEqualTo(BigDecimal.ONE);
+		assertThat(variables.getString("b")).isEqualTo("two");
+	}
+
+	@Test
+	void rejectsInvalidDocuments() {
+		assertThatThrownBy(() -> JobVariables.read("[1,2]", "a")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> JobVariables.read("{\"a\":", "a")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void readsRandomNumbersExactly() {
+		Random random = new Random(0x21_2024L);
+		for (int i = 0; i < 2_000; i++) {
+			StringBuilder json = new StringBuilder("{");
+			String[] texts = new String[20];
+			boolean[] quoted = new boolean[texts.length];
+			for (int k = 0; k < texts.length; k++) {
+				texts[k] = randomNumber(random);
+				quoted[k] = random.nextInt(4) == 0;
+				if (k > 0) {
+					json.append(',');
+				}
+				json.append("\"noise").append(k).append("\":{\"list\":[").append(texts[k]).append(",\"x\"]},");
+				json.append("\"v").append(k).append("\":").append(quoted[k] ? '"' + texts[k] + '"' : texts[k]);
+			}
+			json.append('}');
+
+			int key = random.nextInt(texts.length);
+			// Text is parsed as entered in the forms, numbers are taken as written.
+			BigDecimal expected = quoted[key]
+					? VariableMapper.getBigDecimal(Map.of("v", texts[key]), "v")
+					: new BigDecimal(texts[key]);
+			JobVariables variables = JobVariables.read(json.toString(), "v" + key);
+			assertThat(variables.getBigDecimal("v" + key))
+					.as("%s in %s", texts[key], json)
+					.isEqualTo(expected);
+		}
+	}
+
+	@Test
+	void recordsPayloadSizePerJobType() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		Metrics.addRegistry(registry);
+		try {
+			String json = "{\"name\":\"Müller € 😀\",\"equity\":1}";
+			ActivatedJob job = mock(ActivatedJob.class);
+			when(job.getType()).thenReturn("job-variables-test");
+			when(job.getVariables()).thenReturn(json);
+
+			JobVariables.read(job, "equity");
+			JobVariables.read(job, "name");
+
+			DistributionSummary summary = registry.get("zeebe.job.variables.size").tag("type", "job-variables-test").summary();
+			assertThat(summary.count()).isEqualTo(2L);
+			assertThat(summary.totalAmount()).isEqualTo(2.0 * json.getBytes(StandardCharsets.UTF_8).length);
+		} finally {
+			Metrics.removeRegistry(registry);
+		}
+	}
+
+	/**
+	 * Integer or decimal number text, often with more digits than a double keeps.
+	 */
+	private static String randomNumber(Random random) {
+		String integral = (random.nextBoolean() ? "-" : "") + random.nextLong(0, Long.MAX_VALUE) / (long) Math.pow(10, random.nextInt(19));
+		if (random.nextBoolean()) {
+			return integral;
+		}
+		StringBuilder fraction = new StringBuilder();
+		for (int i = random.nextInt(1, 12); i > 0; i--) {
+			fraction.append(random.nextInt(10));
+		}
+		return integral + "." + fraction;
+	}
+}
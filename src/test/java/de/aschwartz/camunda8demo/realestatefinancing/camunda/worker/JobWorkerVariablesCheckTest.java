@@ -0,0 +1,99 @@
+package de.aschwartz.camunda8demo.realestatefinancing.camunda.worker;
+
+import io.camunda.zeebe.client.api.response.ActivatedJob;
+import io.camunda.zeebe.spring.client.annotation.JobWorker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks {@link JobWorkerVariablesCheck} against the bundled process models and a model with every
+ * kind of mismatch.
+ */
+class JobWorkerVariablesCheckTest {
+
+	private static final String BUNDLED_MODELS = "classpath*:processes/**/*.bpmn";
+	private static final String TEST_MODEL = "classpath:job-workers/variables-check.bpmn";
+
+	@Test
+	void bundledWorkersMatchTheBundledProcessModels() {
+		Map<String, List<String>> workers = JobWorkerVariablesCheck.declaredWorkers(workerClasses());
+		Map<String, JobWorkerVariablesCheck.BpmnTask> tasks = JobWorkerVariablesCheck.bpmnTasks(BUNDLED_MODELS);
+
+		assertThat(tasks).containsKeys("request-bank-conditions", "collect-results", "compare-all-banks",
+				"review-credit-application", "create-contract-pdf", "send-contract");
+		assertThat(tasks.get("request-bank-conditions").inputElements()).containsExactly("bankId");
+		assertThat(tasks.get("request-bank-conditions").nulledVariables()).containsExactly("bankCondition");
+		assertThat(JobWorkerVariablesCheck.problems(workers, tasks)).isEmpty();
+	}
+
+	@Test
+	void readsMultiInstanceInputElementsAndNullMappings() {
+		Map<String, JobWorkerVariablesCheck.BpmnTask> tasks = JobWorkerVariablesCheck.bpmnTasks(TEST_MODEL);
+
+		assertThat(tasks).containsOnlyKeys("per-item", "without-worker", "matching");
+		assertThat(tasks.get("per-item").source()).isEqualTo("variables-check.bpmn#Task_PerItem");
+		assertThat(tasks.get("per-item").inputElements()).containsExactly("item");
+		assertThat(tasks.get("per-item").nulledVariables()).containsExactly("result");
+		assertThat(tasks.get("matching").inputElements()).isEmpty();
+	}
+
+	@Test
+	void reportsEveryMismatch() {
+		Map<String, List<String>> workers = Map.of(
+				"per-item", List.of("result"),
+				"matching", List.of("correlationId"),
+				"fetching-everything", List.of());
+
+		assertThat(JobWorkerVariablesCheck.problems(workers, JobWorkerVariablesCheck.bpmnTasks(TEST_MODEL)))
+				.containsExactlyInAnyOrder(
+						"Worker 'fetching-everything' declares no fetchVariables and receives all process variables",
+						"Worker 'per-item' does not fetch the multi-instance input element 'item' of variables-check.bpmn#Task_PerItem",
+						"Worker 'per-item' fetches 'result', which variables-check.bpmn#Task_PerItem maps to null",
+						"Job type 'without-worker' of variables-check.bpmn#Task_WithoutWorker has no worker");
+	}
+
+	@Test
+	void failsOrWarnsOnMismatchesDependingOnTheMode() {
+		ApplicationContext context = mock(ApplicationContext.class);
+		when(context.getBeansWithAnnotation(Component.class)).thenReturn(Map.of("worker", new FetchingEverythingWorker()));
+
+		assertThatThrownBy(() -> new JobWorkerVariablesCheck(context, "fail").afterSingletonsInstantiated())
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("Worker 'fetching-everything' declares no fetchVariables")
+				.hasMessageContaining("Job type 'send-contract' of credit-application.bpmn");
+		assertThatCode(() -> new JobWorkerVariablesCheck(context, "warn").afterSingletonsInstantiated())
+				.doesNotThrowAnyException();
+		assertThatCode(() -> new JobWorkerVariablesCheck(context, "off").afterSingletonsInstantiated())
+				.doesNotThrowAnyException();
+	}
+
+	private static List<Class<?>> workerClasses() {
+		ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+		scanner.addIncludeFilter(new AnnotationTypeFilter(Component.class));
+		return scanner.findCandidateComponents(JobWorkerVariablesCheck.class.getPackageName()).stream()
+				.map(BeanDefinition::getBeanClassName)
+				.<Class<?>>map(name -> ClassUtils.resolveClassName(name, null))
+				.toList();
+	}
+
+	static class FetchingEverythingWorker {
+
+		@JobWorker(type = "fetching-everything")
+		public void handle(final ActivatedJob job) {
+		}
+	}
+}
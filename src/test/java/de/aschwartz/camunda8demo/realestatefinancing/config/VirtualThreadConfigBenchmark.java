@@ -0,0 +1,76 @@
+package de.aschwartz.camunda8demo.realestatefinancing.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jobs per second of handlers that block on I/O for a few milliseconds, on the executor of
+ * {@link VirtualThreadConfig} against a scheduled pool of platform threads, as the Zeebe client uses
+ * without virtual threads ({@code camunda.client.zeebe.execution-threads}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadConfigBenchmark {
+
+	private static final int JOBS = 1_000;
+
+	@Param({"virtual", "platform-16", "platform-128"})
+	public String executor;
+
+	@Param({"5"})
+	public int blockingMillis;
+
+	private ScheduledExecutorService service;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		service = executor.equals("virtual")
+				? new VirtualThreadConfig().zeebeClientExecutorService(1).get()
+				: Executors.newScheduledThreadPool(Integer.parseInt(executor.substring("platform-".length())));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws InterruptedException {
+		service.shutdownNow();
+		service.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(JOBS)
+	public void handleJobs() throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(JOBS);
+		for (int i = 0; i < JOBS; i++) {
+			service.execute(() -> {
+				try {
+					Thread.sleep(blockingMillis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		done.await();
+	}
+}
@@ -0,0 +1,46 @@
+package de.aschwartz.camunda8demo.realestatefinancing.config;
+
+import io.camunda.zeebe.spring.client.jobhandling.ZeebeClientExecutorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the executor of {@link VirtualThreadConfig} runs job handlers on virtual threads.
+ */
+class VirtualThreadConfigTest {
+
+	private final ZeebeClientExecutorService executorService =
+			new VirtualThreadConfig().zeebeClientExecutorService(1);
+	private final ScheduledExecutorService executor = executorService.get();
+
+	@AfterEach
+	void shutDown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void runsHandlersOnNamedVirtualThreads() throws Exception {
+		Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+		assertThat(thread.isVirtual()).isTrue();
+		assertThat(thread.getName()).startsWith("zeebe-vt-");
+		assertThat(executorService.isOwnedByZeebeClient()).isTrue();
+	}
+
+	@Test
+	void runsDelayedTasks() throws Exception {
+		long start = System.nanoTime();
+
+		Boolean virtual = executor.schedule(() -> Thread.currentThread().isVirtual(), 20, TimeUnit.MILLISECONDS)
+				.get(5, TimeUnit.SECONDS);
+
+		assertThat(virtual).isTrue();
+		assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+	}
+}
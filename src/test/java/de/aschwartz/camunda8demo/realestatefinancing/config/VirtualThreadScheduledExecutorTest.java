@@ -0,0 +1,135 @@
+package de.aschwartz.camunda8demo.realestatefinancing.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that {@link VirtualThreadScheduledExecutor} starts a new virtual thread per task and keeps
+ * only its timers on platform threads.
+ */
+class VirtualThreadScheduledExecutorTest {
+
+	private final VirtualThreadScheduledExecutor executor = new VirtualThreadScheduledExecutor(1, "test-vt-");
+
+	@AfterEach
+	void shutDown() throws InterruptedException {
+		executor.shutdownNow();
+		executor.awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void runsEveryTaskOnItsOwnVirtualThread() throws Exception {
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		for (int i = 0; i < 100; i++) {
+			executor.submit(() -> threads.add(Thread.currentThread())).get(5, TimeUnit.SECONDS);
+		}
+
+		assertThat(threads).hasSize(100);
+		assertThat(threads.stream().allMatch(Thread::isVirtual)).isTrue();
+		assertThat(threads.stream().allMatch(thread -> thread.getName().startsWith("test-vt-"))).isTrue();
+	}
+
+	@Test
+	void runsBlockingTasksConcurrentlyWithoutPool() throws InterruptedException {
+		int tasks = 2_000;
+		CountDownLatch started = new CountDownLatch(tasks);
+		CountDownLatch release = new CountDownLatch(1);
+		for (int i = 0; i < tasks; i++) {
+			executor.execute(() -> {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+
+		// A pool would run only as many tasks as it has threads until they are released.
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		release.countDown();
+	}
+
+	@Test
+	void runsDelayedTasksOnVirtualThreadsAfterTheDelay() throws Exception {
+		CompletableFuture<Thread> thread = new CompletableFuture<>();
+		long start = System.nanoTime();
+
+		executor.schedule(() -> thread.complete(Thread.currentThread()), 50, TimeUnit.MILLISECONDS);
+
+		assertThat(thread.get(5, TimeUnit.SECONDS).isVirtual()).isTrue();
+		assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+	}
+
+	@Test
+	void completesDelayedCallablesWithTheirResult() throws Exception {
+		ScheduledFuture<Boolean> virtual = executor.schedule(() -> Thread.currentThread().isVirtual(), 10, TimeUnit.MILLISECONDS);
+		ScheduledFuture<Object> failing = executor.schedule(() -> {
+			throw new IllegalStateException("boom");
+		}, 10, TimeUnit.MILLISECONDS);
+
+		assertThat(virtual.get(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(virtual.isDone()).isTrue();
+		assertThatThrownBy(() -> failing.get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void cancelledDelayedTasksDoNotRun() throws InterruptedException {
+		AtomicInteger runs = new AtomicInteger();
+		ScheduledFuture<Integer> future = executor.schedule(runs::incrementAndGet, 200, TimeUnit.MILLISECONDS);
+
+		assertThat(future.getDelay(TimeUnit.MILLISECONDS)).isGreaterThan(0L);
+		assertThat(future.cancel(false)).isTrue();
+		assertThat(future.isCancelled()).isTrue();
+
+		Thread.sleep(400);
+		assertThat(runs.get()).isEqualTo(0);
+	}
+
+	@Test
+	void keepsPeriodicTasksOnTheScheduler() throws Exception {
+		CountDownLatch runs = new CountDownLatch(3);
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		ScheduledFuture<?> periodic = executor.scheduleAtFixedRate(() -> {
+			threads.add(Thread.currentThread());
+			runs.countDown();
+		}, 0, 10, TimeUnit.MILLISECONDS);
+
+		assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+		periodic.cancel(false);
+
+		assertThat(threads).hasSize(1);
+		Thread scheduler = threads.iterator().next();
+		assertThat(scheduler.isVirtual()).isFalse();
+		assertThat(scheduler.isDaemon()).isTrue();
+		assertThat(scheduler.getName()).startsWith("test-vt-scheduler-");
+	}
+
+	@Test
+	void rejectsTasksAfterShutdown() throws InterruptedException {
+		executor.shutdown();
+
+		assertThat(executor.isShutdown()).isTrue();
+		assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(executor.isTerminated()).isTrue();
+		assertThatThrownBy(() -> executor.execute(() -> {
+		})).isInstanceOf(RejectedExecutionException.class);
+		assertThatThrownBy(() -> executor.schedule(() -> {
+		}, 1, TimeUnit.MILLISECONDS)).isInstanceOf(RejectedExecutionException.class);
+	}
+}
@@ -0,0 +1,94 @@
+package de.aschwartz.camunda8demo.realestatefinancing.config;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the timeouts of the offers API client against a local HTTP server.
+ */
+class WebClientConfigTest {
+
+	private final List<Integer> clientPorts = new CopyOnWriteArrayList<>();
+	private final WebClientConfig config = new WebClientConfig();
+
+	private HttpServer server;
+	private ConnectionProvider connectionProvider;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/offers", exchange -> {
+			clientPorts.add(exchange.getRemoteAddress().getPort());
+			byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.createContext("/slow", exchange -> {
+			try {
+				Thread.sleep(1_000);
+				exchange.sendResponseHeaders(200, -1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				exchange.close();
+			}
+		});
+		server.start();
+		connectionProvider = config.offersConnectionProvider(10, 100, Duration.ofSeconds(5), Duration.ofSeconds(30));
+	}
+
+	@AfterEach
+	void stopServer() {
+		connectionProvider.dispose();
+		server.stop(0);
+	}
+
+	@Test
+	void reusesIdlePooledConnectionsLongerThanTheResponseTimeout() throws InterruptedException {
+		WebClient webClient = webClient(Duration.ofMillis(200));
+
+		get(webClient, "/offers");
+		Thread.sleep(500);
+		get(webClient, "/offers");
+
+		assertThat(clientPorts).hasSize(2);
+		assertThat(clientPorts.get(1)).isEqualTo(clientPorts.get(0));
+	}
+
+	@Test
+	void failsResponsesSlowerThanTheResponseTimeout() {
+		WebClient webClient = webClient(Duration.ofMillis(200));
+
+		assertThatThrownBy(() -> get(webClient, "/slow"))
+				.isInstanceOf(WebClientRequestException.class)
+				.hasRootCauseInstanceOf(io.netty.handler.timeout.ReadTimeoutException.class);
+	}
+
+	private WebClient webClient(Duration responseTimeout) {
+		return config.webClientBuilder(connectionProvider, Duration.ofSeconds(1), responseTimeout)
+				.baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+				.build();
+	}
+
+	private static String get(WebClient webClient, String path) {
+		return webClient.get().uri(path).retrieve().bodyToMono(String.class).block(Duration.ofSeconds(10));
+	}
+}
@@ -0,0 +1,82 @@
+package de.aschwartz.camunda8demo.realestatefinancing.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.CreateProcessService;
+import de.aschwartz.camunda8demo.realestatefinancing.model.ProcessBatchResult;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the batch endpoint passes each NDJSON line as the variables of one instance.
+ */
+class ProcessBatchControllerTest {
+
+	private final List<Map<String, Object>> started = Collections.synchronizedList(new ArrayList<>());
+	private final ProcessBatchController controller = new ProcessBatchController(service(), new ObjectMapper());
+
+	@Test
+	void startsOneInstancePerLine() {
+		List<ProcessBatchResult> results = controller.createProcesses("RealEstateDmnCredit", body("""
+						{"monthlyNetIncome":4200,"equity":70000}
+						{"monthlyNetIncome":3100,"correlationId":"order-2"}
+
+						{"monthlyNetIncome":5000}
+						"""))
+				.collectList()
+				.block(Duration.ofSeconds(10));
+
+		assertThat(results).extracting(ProcessBatchResult::getIndex).containsExactly(0, 1, 2);
+		assertThat(started).containsExactly(
+				Map.of("monthlyNetIncome", 4200, "equity", 70000),
+				Map.of("monthlyNetIncome", 3100, "correlationId", "order-2"),
+				Map.of("monthlyNetIncome", 5000));
+	}
+
+	@Test
+	void endsTheBatchAtAMalformedLine() {
+		List<ProcessBatchResult> results = Collections.synchronizedList(new ArrayList<>());
+
+		assertThatThrownBy(() -> controller.createProcesses("RealEstateDmnCredit", body("""
+						{"monthlyNetIncome":4200}
+						{"monthlyNetIncome":}
+						{"monthlyNetIncome":5000}
+						"""))
+				.doOnNext(results::add)
+				.blockLast(Duration.ofSeconds(10)))
+				.hasRootCauseInstanceOf(JsonProcessingException.class);
+		assertThat(results).extracting(ProcessBatchResult::getIndex).containsExactly(0);
+	}
+
+	@SuppressWarnings("unchecked")
+	private CreateProcessService service() {
+		CreateProcessService service = mock(CreateProcessService.class);
+		when(service.createProcesses(eq("RealEstateDmnCredit"), any())).thenAnswer(batch -> {
+			Flux<Map<String, Object>> variables = batch.getArgument(1);
+			return variables.doOnNext(started::add)
+					.index()
+					.map(entry -> new ProcessBatchResult(entry.getT1().intValue(), "id-" + entry.getT1(), true, null));
+		});
+		return service;
+	}
+
+	private static InputStream body(String lines) {
+		return new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,65 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic;
+
+import de.aschwartz.camunda8demo.realestatefinancing.model.ProcessBatchResult;
+import io.camunda.zeebe.client.api.response.ProcessInstanceEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Instances per second of a batch creation against a broker that answers after a fixed round trip,
+ * by the number of create commands in flight; 1 is the sequential start of the single-instance path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateProcessServiceBenchmark {
+
+	private static final int INSTANCES = 256;
+
+	@Param({"1", "8", "32", "128"})
+	public int maxInFlight;
+
+	@Param({"2"})
+	public int roundTripMillis;
+
+	private CreateProcessService service;
+
+	@Setup
+	public void setUp() {
+		ProcessInstanceEvent event = mock(ProcessInstanceEvent.class);
+		service = CreateProcessServiceTest.service(CreateProcessServiceTest.client(variables -> {
+			CompletableFuture<ProcessInstanceEvent> created = new CompletableFuture<>();
+			CompletableFuture.delayedExecutor(roundTripMillis, TimeUnit.MILLISECONDS).execute(() -> created.complete(event));
+			return created;
+		}), maxInFlight, 0);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(INSTANCES)
+	public List<ProcessBatchResult> createProcesses() {
+		return service.createProcesses("process", Flux.range(0, INSTANCES).map(i -> Map.<String, Object>of("amount", i)))
+				.collectList()
+				.block();
+	}
+}
@@ -0,0 +1,247 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic;
+
+import de.aschwartz.camunda8demo.realestatefinancing.config.ComparisonProperties;
+import de.aschwartz.camunda8demo.realestatefinancing.logic.credit.BankRegistry;
+import de.aschwartz.camunda8demo.realestatefinancing.model.ProcessBatchResult;
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.ZeebeFuture;
+import io.camunda.zeebe.client.api.command.ClientStatusException;
+import io.camunda.zeebe.client.api.command.CreateProcessInstanceCommandStep1;
+import io.camunda.zeebe.client.api.command.CreateProcessInstanceCommandStep1.CreateProcessInstanceCommandStep2;
+import io.camunda.zeebe.client.api.command.CreateProcessInstanceCommandStep1.CreateProcessInstanceCommandStep3;
+import io.camunda.zeebe.client.api.response.ProcessInstanceEvent;
+import io.grpc.Status;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks {@link CreateProcessService} against a mocked client: start variable defaults, and the
+ * in-flight limit, retries and correlation ids of batch creation.
+ */
+class CreateProcessServiceTest {
+
+	private static final Duration BACKOFF = Duration.ofMillis(1);
+
+	private final List<Map<String, Object>> started = Collections.synchronizedList(new ArrayList<>());
+	private final ZeebeClient recordingClient = client(variables -> {
+		started.add(variables);
+		return CompletableFuture.completedFuture(mock(ProcessInstanceEvent.class));
+	});
+
+	@Test
+	void generatesACorrelationIdIfNoneIsGiven() {
+		String correlationId = service(recordingClient, 4, 5).createProcess("RealEstateAutoCredit", Map.of("equity", 1));
+
+		assertThat(started).singleElement().satisfies(variables -> assertThat(variables)
+				.containsEntry("correlationId", correlationId)
+				.containsEntry("equity", 1)
+				.doesNotContainKeys("bankIds", "comparisonProcessId"));
+	}
+
+	@Test
+	void comparesAllConfiguredBanksWithoutBankIds() {
+		service(recordingClient, 4, 5).createProcess("RealEstateCreditApplication", Map.of("correlationId", "c-1"));
+
+		assertThat(started).singleElement().satisfies(variables -> assertThat(variables)
+				.containsEntry("correlationId", "c-1")
+				.containsEntry("bankIds", List.of("a", "b", "c"))
+				.containsEntry("comparisonProcessId", "RealEstateCreditComparisonFast"));
+	}
+
+	@Test
+	void keepsTheRequestedBanks() {
+		service(recordingClient, 4, 5).createProcess("RealEstateCreditComparison", Map.of("bankIds", List.of("c")));
+
+		assertThat(started).singleElement().satisfies(variables -> assertThat(variables)
+				.containsEntry("bankIds", List.of("c"))
+				.doesNotContainKey("comparisonProcessId"));
+	}
+
+	@Test
+	void appliesTheStartVariableDefaultsToBatches() {
+		List<ProcessBatchResult> results = service(recordingClient, 4, 5)
+				.createProcesses("RealEstateCreditApplication", Flux.just(Map.of(), Map.of("bankIds", List.of("b"))))
+				.collectList()
+				.block(Duration.ofSeconds(30));
+
+		assertThat(results).hasSize(2).allMatch(ProcessBatchResult::isCreated);
+		assertThat(started).extracting(variables -> variables.get("bankIds"))
+				.containsExactlyInAnyOrder(List.of("a", "b", "c"), List.of("b"));
+		assertThat(started).allSatisfy(variables -> assertThat(variables)
+				.containsEntry("comparisonProcessId", "RealEstateCreditComparisonFast")
+				.containsKey("correlationId"));
+	}
+
+	@Test
+	void keepsAtMostMaxInFlightCommandsPending() {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		ZeebeClient client = client(variables -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			CompletableFuture<ProcessInstanceEvent> created = new CompletableFuture<>();
+			CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS).execute(() -> {
+				inFlight.decrementAndGet();
+				created.complete(mock(ProcessInstanceEvent.class));
+			});
+			return created;
+		});
+		CreateProcessService service = service(client, 4, 5);
+
+		List<ProcessBatchResult> results = service.createProcesses("process", variables(200))
+				.collectList()
+				.block(Duration.ofSeconds(30));
+
+		assertThat(maxInFlight.get()).isBetween(1, 4);
+		assertThat(results).hasSize(200).allMatch(ProcessBatchResult::isCreated);
+		assertThat(results.stream().map(ProcessBatchResult::getIndex).sorted().toList())
+				.isEqualTo(IntStream.range(0, 200).boxed().toList());
+	}
+
+	@Test
+	void retriesOverloadedBrokerWithTheSameCorrelationId() {
+		List<Object> correlationIds = Collections.synchronizedList(new ArrayList<>());
+		ZeebeClient client = client(variables -> {
+			correlationIds.add(variables.get("correlationId"));
+			return correlationIds.size() < 3
+					? CompletableFuture.failedFuture(rejected(Status.RESOURCE_EXHAUSTED))
+					: CompletableFuture.completedFuture(mock(ProcessInstanceEvent.class));
+		});
+		CreateProcessService service = service(client, 4, 5);
+
+		ProcessBatchResult result = service.createProcesses("process", Flux.just(Map.of("amount", 1)))
+				.single()
+				.block(Duration.ofSeconds(30));
+
+		assertThat(result.isCreated()).isTrue();
+		assertThat(correlationIds).hasSize(3).containsOnly(result.getCorrelationId());
+	}
+
+	@Test
+	void keepsTheCorrelationIdOfTheInput() {
+		ProcessBatchResult result = service(recordingClient, 4, 5)
+				.createProcesses("process", Flux.just(Map.of("correlationId", "order-7")))
+				.single()
+				.block(Duration.ofSeconds(30));
+
+		assertThat(result).isEqualTo(new ProcessBatchResult(0, "order-7", true, null));
+	}
+
+	@Test
+	void failsOnlyTheEntryWhoseRetriesAreExhausted() {
+		AtomicInteger attempts = new AtomicInteger();
+		ZeebeClient client = client(variables -> "overloaded".equals(variables.get("name"))
+				? CompletableFuture.failedFuture(rejected(Status.RESOURCE_EXHAUSTED))
+				: CompletableFuture.completedFuture(mock(ProcessInstanceEvent.class)));
+		client = counting(client, attempts);
+		CreateProcessService service = service(client, 4, 2);
+
+		List<ProcessBatchResult> results = service.createProcesses("process",
+						Flux.just(Map.of("name", "overloaded"), Map.of("name", "fine")))
+				.collectList()
+				.block(Duration.ofSeconds(30));
+
+		assertThat(attempts).hasValue(1 + 2 + 1);
+		assertThat(results).hasSize(2);
+		ProcessBatchResult failed = results.stream().filter(result -> result.getIndex() == 0).findFirst().orElseThrow();
+		assertThat(failed.isCreated()).isFalse();
+		assertThat(failed.getCorrelationId()).isNotBlank();
+		assertThat(failed.getError()).contains("RESOURCE_EXHAUSTED");
+		assertThat(results).filteredOn(result -> result.getIndex() == 1).allMatch(ProcessBatchResult::isCreated);
+	}
+
+	@Test
+	void doesNotRetryUnavailableGateway() {
+		AtomicInteger attempts = new AtomicInteger();
+		ZeebeClient client = counting(
+				client(variables -> CompletableFuture.failedFuture(rejected(Status.UNAVAILABLE))), attempts);
+		CreateProcessService service = service(client, 4, 5);
+
+		ProcessBatchResult result = service.createProcesses("process", Flux.just(Map.of()))
+				.single()
+				.block(Duration.ofSeconds(30));
+
+		assertThat(attempts).hasValue(1);
+		assertThat(result.isCreated()).isFalse();
+		assertThat(result.getError()).contains("UNAVAILABLE");
+	}
+
+	/**
+	 * Service with the banks {@code a}, {@code b} and {@code c} and the fast comparison mode.
+	 */
+	static CreateProcessService service(ZeebeClient client, int maxInFlight, int maxRetries) {
+		ComparisonProperties properties = new ComparisonProperties();
+		properties.setBanks(List.of(bank("a"), bank("b"), bank("c")));
+		properties.setMode(ComparisonProperties.Mode.FAST);
+		return new CreateProcessService(
+				client, new BankRegistry(properties), properties, maxInFlight, maxRetries, BACKOFF, BACKOFF);
+	}
+
+	/**
+	 * Client whose create commands are answered by {@code created}, called with the variables of the
+	 * command.
+	 */
+	static ZeebeClient client(Function<Map<String, Object>, CompletableFuture<ProcessInstanceEvent>> created) {
+		ZeebeClient client = mock(ZeebeClient.class);
+		CreateProcessInstanceCommandStep1 step1 = mock(CreateProcessInstanceCommandStep1.class);
+		CreateProcessInstanceCommandStep2 step2 = mock(CreateProcessInstanceCommandStep2.class);
+		CreateProcessInstanceCommandStep3 step3 = mock(CreateProcessInstanceCommandStep3.class);
+		when(client.newCreateInstanceCommand()).thenReturn(step1);
+		when(step1.bpmnProcessId(anyString())).thenReturn(step2);
+		when(step2.latestVersion()).thenReturn(step3);
+		when(step3.variables(anyMap())).thenAnswer(variables -> {
+			Map<String, Object> values = variables.getArgument(0);
+			CreateProcessInstanceCommandStep3 command = mock(CreateProcessInstanceCommandStep3.class);
+			when(command.send()).thenAnswer(send -> future(created.apply(values)));
+			return command;
+		});
+		return client;
+	}
+
+	private static ZeebeFuture<ProcessInstanceEvent> future(CompletableFuture<ProcessInstanceEvent> created) {
+		@SuppressWarnings("unchecked")
+		ZeebeFuture<ProcessInstanceEvent> future = mock(ZeebeFuture.class);
+		when(future.toCompletableFuture()).thenReturn(created);
+		return future;
+	}
+
+	private static ZeebeClient counting(ZeebeClient client, AtomicInteger attempts) {
+		CreateProcessInstanceCommandStep1 step1 = client.newCreateInstanceCommand();
+		when(client.newCreateInstanceCommand()).thenAnswer(create -> {
+			attempts.incrementAndGet();
+			return step1;
+		});
+		return client;
+	}
+
+	private static ClientStatusException rejected(Status status) {
+		return new ClientStatusException(status.withDescription(status.getCode().name()), null);
+	}
+
+	private static Flux<Map<String, Object>> variables(int count) {
+		return Flux.range(0, count).map(i -> Map.of("amount", i));
+	}
+
+	private static ComparisonProperties.Bank bank(String id) {
+		ComparisonProperties.Bank bank = new ComparisonProperties.Bank();
+		bank.setId(id);
+		bank.setName("Bank " + id);
+		return bank;
+	}
+}
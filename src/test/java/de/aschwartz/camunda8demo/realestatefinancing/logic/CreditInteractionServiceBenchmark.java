@@ -0,0 +1,76 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic;
+
+import de.aschwartz.camunda8demo.realestatefinancing.model.CorrelationMessage;
+import io.camunda.zeebe.client.api.response.PublishMessageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Messages per second against a broker that acknowledges after a fixed round trip: one blocking
+ * publish after the other, as the credit controller published before, against
+ * {@link CreditInteractionService#publishAllAsync} with {@code maxInFlight} commands in flight.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditInteractionServiceBenchmark {
+
+	private static final int MESSAGES = 256;
+
+	@Param({"1", "64"})
+	public int maxInFlight;
+
+	@Param({"2"})
+	public int roundTripMillis;
+
+	private final List<CorrelationMessage> messages = IntStream.range(0, MESSAGES)
+			.mapToObj(i -> new CorrelationMessage(CreditInteractionService.BANK_SELECTED, "c-" + i,
+					Map.of("bankName", "Hyperbank")))
+			.toList();
+
+	private CreditInteractionService service;
+
+	@Setup
+	public void setUp() {
+		service = new CreditInteractionService(CreditInteractionServiceTest.client(message -> {
+			CompletableFuture<PublishMessageResponse> acknowledged = new CompletableFuture<>();
+			CompletableFuture.delayedExecutor(roundTripMillis, TimeUnit.MILLISECONDS).execute(() -> acknowledged.complete(null));
+			return acknowledged;
+		}), new SimpleMeterRegistry(), Duration.ofHours(1), maxInFlight);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(MESSAGES)
+	public void publishOneByOne() {
+		for (CorrelationMessage message : messages) {
+			service.publishAsync(message).join();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(MESSAGES)
+	public void publishAll() {
+		service.publishAllAsync(messages).join();
+	}
+}
@@ -0,0 +1,253 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic;
+
+import de.aschwartz.camunda8demo.realestatefinancing.model.CorrelationMessage;
+import io.camunda.zeebe.client.ZeebeClient;
+import io.camunda.zeebe.client.api.ZeebeFuture;
+import io.camunda.zeebe.client.api.command.ClientStatusException;
+import io.camunda.zeebe.client.api.command.PublishMessageCommandStep1;
+import io.camunda.zeebe.client.api.command.PublishMessageCommandStep1.PublishMessageCommandStep2;
+import io.camunda.zeebe.client.api.command.PublishMessageCommandStep1.PublishMessageCommandStep3;
+import io.camunda.zeebe.client.api.response.PublishMessageResponse;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks message ids, duplicate handling and publish timers of {@link CreditInteractionService}
+ * against a mocked client.
+ */
+class CreditInteractionServiceTest {
+
+	private static final Duration TIME_TO_LIVE = Duration.ofSeconds(30);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final List<Published> published = Collections.synchronizedList(new ArrayList<>());
+
+	@Test
+	void publishesRepeatedClicksWithTheSameMessageId() {
+		CreditInteractionService service = service(message -> CompletableFuture.completedFuture(null), 64);
+
+		service.publishBankSelected("c-1", "Hyperbank");
+		service.publishBankSelected("c-1", "Hyperbank");
+		service.publishBankSelected("c-1", "Equity Bank");
+		service.publishContractSigned("c-1");
+
+		String hyperbank = CreditInteractionService.messageId(
+				CreditInteractionService.BANK_SELECTED, "c-1", Map.of("bankName", "Hyperbank"));
+		String equityBank = CreditInteractionService.messageId(
+				CreditInteractionService.BANK_SELECTED, "c-1", Map.of("bankName", "Equity Bank"));
+		assertThat(hyperbank).startsWith("bank-selected:c-1:").isNotEqualTo(equityBank);
+		assertThat(published).extracting(Published::messageId)
+				.containsExactly(hyperbank, hyperbank, equityBank, "contract-signed:c-1");
+		assertThat(published).extracting(Published::timeToLive).containsOnly(TIME_TO_LIVE);
+		assertThat(published.get(0).variables()).isEqualTo(Map.of("bankName", "Hyperbank"));
+		assertThat(published.get(3).variables()).isEmpty();
+		assertThat(timerCount(CreditInteractionService.BANK_SELECTED, "published")).isEqualTo(3);
+		assertThat(timerCount(CreditInteractionService.CONTRACT_SIGNED, "published")).isEqualTo(1);
+	}
+
+	@Test
+	void messageIdDoesNotDependOnVariableOrder() {
+		Map<String, Object> ordered = new LinkedHashMap<>();
+		ordered.put("bankName", "Hyperbank");
+		ordered.put("interestRate", "3.10");
+		Map<String, Object> reversed = new LinkedHashMap<>();
+		reversed.put("interestRate", "3.10");
+		reversed.put("bankName", "Hyperbank");
+
+		assertThat(CreditInteractionService.messageId("bank-selected", "c-1", ordered))
+				.isEqualTo(CreditInteractionService.messageId("bank-selected", "c-1", reversed))
+				.isNotEqualTo(CreditInteractionService.messageId("bank-selected", "c-2", reversed));
+		assertThat(CreditInteractionService.messageId("application-submitted", "c-1", Map.of()))
+				.isEqualTo("application-submitted:c-1");
+	}
+
+	@Test
+	void messageIdHashesTheCanonicalJsonOfNestedVariables() {
+		Map<String, Object> offer = new LinkedHashMap<>();
+		offer.put("rate", 1088.02);
+		offer.put("bank", Map.of("name", "Hyperbank", "id", "hyp"));
+		Map<String, Object> reordered = new LinkedHashMap<>();
+		reordered.put("bank", new TreeMap<>(Map.of("name", "Hyperbank", "id", "hyp")));
+		reordered.put("rate", 1088.02);
+
+		String messageId = CreditInteractionService.messageId("offer-accepted", "c-1", Map.of("offer", offer));
+
+		assertThat(messageId).matches("offer-accepted:c-1:[0-9a-f]{64}")
+				.isEqualTo(CreditInteractionService.messageId("offer-accepted", "c-1", Map.of("offer", reordered)))
+				.isNotEqualTo(CreditInteractionService.messageId("offer-accepted", "c-1",
+						Map.of("offer", Map.of("rate", 1088.02, "bank", Map.of("name", "Equity Bank", "id", "eq")))));
+	}
+
+	@Test
+	void countsRejectedDuplicateAsPublished() {
+		CreditInteractionService service = service(
+				message -> CompletableFuture.failedFuture(rejected(Status.ALREADY_EXISTS)), 64);
+
+		service.publishApplicationSubmitted("c-1");
+
+		assertThat(timerCount(CreditInteractionService.APPLICATION_SUBMITTED, "duplicate")).isEqualTo(1);
+	}
+
+	@Test
+	void passesOtherFailuresOn() {
+		CreditInteractionService service = service(
+				message -> CompletableFuture.failedFuture(rejected(Status.UNAVAILABLE)), 64);
+
+		assertThatThrownBy(() -> service.publishApplicationSubmitted("c-1"))
+				.isInstanceOf(CompletionException.class)
+				.hasCauseInstanceOf(ClientStatusException.class);
+		assertThat(service.publishContractSignedAsync("c-1")).isCompletedExceptionally();
+		assertThat(timerCount(CreditInteractionService.APPLICATION_SUBMITTED, "failed")).isEqualTo(1);
+		assertThat(timerCount(CreditInteractionService.CONTRACT_SIGNED, "failed")).isEqualTo(1);
+	}
+
+	@Test
+	void publishesAllMessagesWithBoundedInFlightCommands() {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		CreditInteractionService service = service(message -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			CompletableFuture<PublishMessageResponse> acknowledged = new CompletableFuture<>();
+			CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS).execute(() -> {
+				inFlight.decrementAndGet();
+				acknowledged.complete(null);
+			});
+			return acknowledged;
+		}, 4);
+
+		service.publishAllAsync(messages(100)).join();
+
+		assertThat(maxInFlight.get()).isBetween(1, 4);
+		assertThat(published).extracting(Published::correlationKey).containsExactlyInAnyOrderElementsOf(
+				IntStream.range(0, 100).mapToObj(i -> "c-" + i).toList());
+		assertThat(timerCount(CreditInteractionService.CONTRACT_SIGNED, "published")).isEqualTo(100);
+	}
+
+	@Test
+	void publishesAllMessagesBeforeReportingAFailure() {
+		CreditInteractionService service = service(message -> message.correlationKey().equals("c-3")
+				? CompletableFuture.failedFuture(rejected(Status.UNAVAILABLE))
+				: CompletableFuture.completedFuture(null), 4);
+
+		CompletableFuture<Void> all = service.publishAllAsync(messages(20));
+
+		assertThatThrownBy(all::join).hasRootCauseInstanceOf(ClientStatusException.class);
+		assertThat(published).hasSize(20);
+		assertThat(timerCount(CreditInteractionService.CONTRACT_SIGNED, "published")).isEqualTo(19);
+		assertThat(timerCount(CreditInteractionService.CONTRACT_SIGNED, "failed")).isEqualTo(1);
+	}
+
+	/**
+	 * Service on a client that records every publish command and answers it with {@code acknowledged}.
+	 */
+	private CreditInteractionService service(
+			Function<Published, CompletableFuture<PublishMessageResponse>> acknowledged,
+			int maxInFlight
+	) {
+		return new CreditInteractionService(client(message -> {
+			published.add(message);
+			return acknowledged.apply(message);
+		}), meterRegistry, TIME_TO_LIVE, maxInFlight);
+	}
+
+	/**
+	 * Client whose publish commands are answered by {@code acknowledged}, called with the command.
+	 */
+	static ZeebeClient client(Function<Published, CompletableFuture<PublishMessageResponse>> acknowledged) {
+		ZeebeClient client = mock(ZeebeClient.class);
+		when(client.newPublishMessageCommand()).thenAnswer(create -> {
+			Published.Builder command = new Published.Builder();
+			PublishMessageCommandStep1 step1 = mock(PublishMessageCommandStep1.class);
+			PublishMessageCommandStep2 step2 = mock(PublishMessageCommandStep2.class);
+			PublishMessageCommandStep3 step3 = mock(PublishMessageCommandStep3.class);
+			when(step1.messageName(anyString())).thenAnswer(name -> {
+				command.name = name.getArgument(0);
+				return step2;
+			});
+			when(step2.correlationKey(anyString())).thenAnswer(key -> {
+				command.correlationKey = key.getArgument(0);
+				return step3;
+			});
+			when(step3.messageId(anyString())).thenAnswer(id -> {
+				command.messageId = id.getArgument(0);
+				return step3;
+			});
+			when(step3.timeToLive(any(Duration.class))).thenAnswer(ttl -> {
+				command.timeToLive = ttl.getArgument(0);
+				return step3;
+			});
+			when(step3.variables(anyMap())).thenAnswer(variables -> {
+				command.variables = variables.getArgument(0);
+				return step3;
+			});
+			when(step3.send()).thenAnswer(send -> {
+				@SuppressWarnings("unchecked")
+				ZeebeFuture<PublishMessageResponse> future = mock(ZeebeFuture.class);
+				when(future.toCompletableFuture()).thenReturn(acknowledged.apply(command.build()));
+				return future;
+			});
+			return step1;
+		});
+		return client;
+	}
+
+	private long timerCount(String name, String outcome) {
+		return meterRegistry.get("zeebe.message.publish").tag("name", name).tag("outcome", outcome).timer().count();
+	}
+
+	private static List<CorrelationMessage> messages(int count) {
+		return IntStream.range(0, count)
+				.mapToObj(i -> new CorrelationMessage(CreditInteractionService.CONTRACT_SIGNED, "c-" + i, Map.of()))
+				.toList();
+	}
+
+	private static ClientStatusException rejected(Status status) {
+		return new ClientStatusException(status.withDescription(status.getCode().name()), null);
+	}
+
+	/**
+	 * Publish command as sent to the client.
+	 */
+	record Published(
+			String name,
+			String correlationKey,
+			String messageId,
+			Duration timeToLive,
+			Map<String, Object> variables
+	) {
+		private static final class Builder {
+			private String name;
+			private String correlationKey;
+			private String messageId;
+			private Duration timeToLive;
+			private Map<String, Object> variables;
+
+			private Published build() {
+				return new Published(name, correlationKey, messageId, timeToLive, variables);
+			}
+		}
+	}
+}
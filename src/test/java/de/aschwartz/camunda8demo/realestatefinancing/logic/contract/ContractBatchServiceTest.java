@@ -0,0 +1,85 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.contract;
+
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that {@link ContractBatchService} stores the same contracts as the single-contract path, in
+ * the order of the offers.
+ */
+class ContractBatchServiceTest {
+
+	private static final LocalDate CREATED_AT = LocalDate.of(2024, 3, 7);
+
+	@TempDir
+	Path root;
+
+	private final ContractPdfRenderer renderer = new ContractPdfRenderer();
+	private LocalContractStore store;
+	private ContractBatchService service;
+
+	@BeforeEach
+	void createService() {
+		store = new LocalContractStore(root.toString());
+		service = new ContractBatchService(renderer, store, 2, 3);
+	}
+
+	@AfterEach
+	void shutdown() {
+		service.shutdown();
+	}
+
+	@Test
+	void storesEveryContractInTheOrderOfTheOffers() throws IOException {
+		Random random = new Random(0x13_2024L);
+		List<OffersResponse.Angebot> offers = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			offers.add(ContractPdfRendererTest.randomOffer(random));
+		}
+		offers.add(offers.get(2));
+
+		List<Integer> progress = new ArrayList<>();
+		List<String> contractIds = service.createContracts(offers, CREATED_AT, progress::add);
+
+		List<String> expected = new ArrayList<>();
+		for (OffersResponse.Angebot offer : offers) {
+			expected.add(store.store(out -> renderer.render(offer, CREATED_AT, out)));
+		}
+		assertThat(contractIds).isEqualTo(expected);
+		assertThat(contractIds.get(7)).isEqualTo(contractIds.get(2));
+		assertThat(progress).containsExactly(3, 6, 8);
+	}
+
+	@Test
+	void returnsNothingForNoOffers() throws IOException {
+		List<Integer> progress = new ArrayList<>();
+
+		assertThat(service.createContracts(List.of(), CREATED_AT, progress::add)).isEmpty();
+		assertThat(progress).isEmpty();
+	}
+
+	@Test
+	void failsTheBatchIfAContractCannotBeRendered() {
+		List<OffersResponse.Angebot> offers = List.of(
+				ContractPdfRendererTest.offer("Hyperbank AG", "HYP"),
+				ContractPdfRendererTest.offer("銀行", null));
+		List<Integer> progress = new ArrayList<>();
+
+		assertThatThrownBy(() -> service.createContracts(offers, CREATED_AT, progress::add))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(progress).isEmpty();
+	}
+}
@@ -0,0 +1,54 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.contract;
+
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contracts rendered per second from the {@link ContractTemplate} against the former page drawing, on
+ * all cores. Run with {@code -prof gc} for the allocation per contract.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class ContractPdfRendererBenchmark {
+
+	private static final LocalDate CREATED_AT = LocalDate.of(2024, 3, 7);
+
+	private ContractPdfRenderer renderer;
+	private OffersResponse.Angebot offer;
+
+	@Setup
+	public void setUp() {
+		renderer = new ContractPdfRenderer();
+		offer = ContractPdfRendererTest.offer("Hyperbank AG", "HYP");
+	}
+
+	@Benchmark
+	public void template() throws IOException {
+		renderer.render(offer, CREATED_AT, OutputStream.nullOutputStream());
+	}
+
+	@Benchmark
+	public void pageDrawing() throws IOException {
+		BaselineContractPdfRenderer.render(offer, CREATED_AT, OutputStream.nullOutputStream());
+	}
+}
@@ -0,0 +1,208 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.contract;
+
+import de.aschwartz.camunda8demo.realestatefinancing.model.ContractOffer;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Renders contracts from the template and with the former page drawing and compares the text of the
+ * resulting pages.
+ */
+class ContractPdfRendererTest {
+
+	private static final LocalDate CREATED_AT = LocalDate.of(2024, 3, 7);
+
+	private final ContractPdfRenderer renderer = new ContractPdfRenderer();
+
+	@Test
+	void rendersAllValues() throws IOException {
+		String text = text(render(offer("Hyperbank AG", "HYP")));
+
+		assertThat(text).contains(
+				"Kreditvertrag (Demo)",
+				"Erstellt am 07.03.2024",
+				"Vermittler: Müller & Söhne Finanz",
+				"Anbieter / Bank: Hyperbank AG",
+				"Kurzbezeichnung: HYP",
+				"Adresse: Hauptstraße 1, 10115 Berlin",
+				"Monatliche Rate (€): " + decimal("1088.02"),
+				"Zinsbindung (Jahre): 10",
+				"Gesamtlaufzeit (Monate): 360",
+				"Unterschrift Kunde:");
+	}
+
+	@Test
+	void matchesFormerRenderingWithAndWithoutShortName() throws IOException {
+		for (String shortName : new String[]{"HYP", "", "  ", null}) {
+			OffersResponse.Angebot offer = offer("Hyperbank AG", shortName);
+			assertThat(text(render(offer))).isEqualTo(text(renderBaseline(offer)));
+		}
+		assertThat(text(render(offer("Hyperbank AG", null)))).doesNotContain("Kurzbezeichnung");
+	}
+
+	@Test
+	void matchesFormerRenderingForMissingValues() throws IOException {
+		OffersResponse.Angebot empty = new OffersResponse.Angebot();
+		String text = text(render(empty));
+
+		assertThat(text).isEqualTo(text(renderBaseline(empty)));
+		assertThat(text).contains("Anbieter / Bank: —", "Adresse: —, — —", "Sollzins (%): —");
+	}
+
+	@Test
+	void matchesFormerRenderingForRandomOffers() throws IOException {
+		Random random = new Random(0x11_2024L);
+		for (int i = 0; i < 100; i++) {
+			OffersResponse.Angebot offer = randomOffer(random);
+			assertThat(text(render(offer))).as("offer %s", offer).isEqualTo(text(renderBaseline(offer)));
+		}
+	}
+
+	@Test
+	void rendersIdenticalContractsToIdenticalBytes() throws IOException {
+		byte[] first = render(offer("Hyperbank AG", "HYP"));
+
+		assertThat(render(offer("Hyperbank AG", "HYP"))).isEqualTo(first);
+		assertThat(render(offer("Equity Bank", "HYP"))).isNotEqualTo(first);
+	}
+
+	@Test
+	void rendersTheContractOfferProjectionLikeTheFullOffer() throws IOException {
+		Random random = new Random(0x23_2024L);
+		for (int i = 0; i < 200; i++) {
+			OffersResponse.Angebot offer = randomOffer(random);
+			OffersResponse.Angebot projected = ContractOffer.of(offer, "sha256:offer").toAngebot();
+			assertThat(render(projected)).as("offer %d", i).isEqualTo(render(offer));
+		}
+	}
+
+	@Test
+	void rejectsTextOutsideOfWinAnsi() {
+		OffersResponse.Angebot offer = offer("銀行", null);
+
+		assertThatThrownBy(() -> render(offer)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> renderBaseline(offer)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private byte[] render(OffersResponse.Angebot offer) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		renderer.render(offer, CREATED_AT, out);
+		return out.toByteArray();
+	}
+
+	private static byte[] renderBaseline(OffersResponse.Angebot offer) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BaselineContractPdfRenderer.render(offer, CREATED_AT, out);
+		return out.toByteArray();
+	}
+
+	private static String text(byte[] pdf) throws IOException {
+		try (PDDocument document = Loader.loadPDF(pdf)) {
+			assertThat(document.getNumberOfPages()).isEqualTo(1);
+			// Sorted by position: the template writes static and variable text in separate streams.
+			PDFTextStripper stripper = new PDFTextStripper();
+			stripper.setSortByPosition(true);
+			return stripper.getText(document);
+		}
+	}
+
+	/**
+	 * Formats like the contract, with the decimal separator of the default locale.
+	 */
+	private static String decimal(String value) {
+		return new java.text.DecimalFormat("0.00").format(new BigDecimal(value));
+	}
+
+	static OffersResponse.Angebot offer(String bankName, String shortName) {
+		return OffersResponse.Angebot.builder()
+				.vermittler("Müller & Söhne Finanz")
+				.anbieter(OffersResponse.Angebot.Anbieter.builder()
+						.name(bankName)
+						.kurzbezeichnung(shortName)
+						.anschrift(OffersResponse.Angebot.Anbieter.Anschrift.builder()
+								.strasseUndHausnummer("Hauptstraße 1")
+								.plz(" 10115 ")
+								.ort("Berlin")
+								.build())
+						.build())
+				.kondition(OffersResponse.Angebot.Kondition.builder()
+						.sollZins(new BigDecimal("3.25"))
+						.effektivZins(new BigDecimal("3.301"))
+						.monatlicheRate(new BigDecimal("1088.02"))
+						.anfaenglicheTilgung(new BigDecimal("2"))
+						.zinsbindungInJahren(10)
+						.darlehensbetrag(new BigDecimal("250000"))
+						.kaufpreis(new BigDecimal("312500.00"))
+						.restschuldAmEndeDerZinsbindung(new BigDecimal("189512.345"))
+						.zinskostenAmEndeDerZinsbindung(new BigDecimal("75074.755"))
+						.gesamtlaufzeitInMonaten(360)
+						.beleihungsauslauf(new BigDecimal("80"))
+						.gesamtkosten(new BigDecimal("391687.2"))
+						.build())
+				.build();
+	}
+
+	/**
+	 * Offer with random texts (umlauts and € included), amounts of any scale and sign, and missing
+	 * values.
+	 */
+	static OffersResponse.Angebot randomOffer(Random random) {
+		return OffersResponse.Angebot.builder()
+				.vermittler(randomText(random))
+				.anbieter(random.nextInt(10) == 0 ? null : OffersResponse.Angebot.Anbieter.builder()
+						.name(randomText(random))
+						.kurzbezeichnung(randomText(random))
+						.anschrift(random.nextInt(10) == 0 ? null : OffersResponse.Angebot.Anbieter.Anschrift.builder()
+								.strasseUndHausnummer(randomText(random))
+								.plz(randomText(random))
+								.ort(randomText(random))
+								.build())
+						.build())
+				.kondition(random.nextInt(10) == 0 ? null : OffersResponse.Angebot.Kondition.builder()
+						.sollZins(randomAmount(random))
+						.effektivZins(randomAmount(random))
+						.monatlicheRate(randomAmount(random))
+						.anfaenglicheTilgung(randomAmount(random))
+						.zinsbindungInJahren(random.nextInt(5) == 0 ? null : random.nextInt(1, 31))
+						.darlehensbetrag(randomAmount(random))
+						.kaufpreis(randomAmount(random))
+						.restschuldAmEndeDerZinsbindung(randomAmount(random))
+						.zinskostenAmEndeDerZinsbindung(randomAmount(random))
+						.gesamtlaufzeitInMonaten(random.nextInt(5) == 0 ? null : random.nextInt(1, 601))
+						.beleihungsauslauf(randomAmount(random))
+						.gesamtkosten(randomAmount(random))
+						.build())
+				.build();
+	}
+
+	private static String randomText(Random random) {
+		if (random.nextInt(8) == 0) {
+			return null;
+		}
+		String alphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 äöüÄÖÜß€&-.,/()'";
+		StringBuilder text = new StringBuilder();
+		for (int i = random.nextInt(0, 40); i > 0; i--) {
+			text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return text.toString();
+	}
+
+	private static BigDecimal randomAmount(Random random) {
+		if (random.nextInt(8) == 0) {
+			return null;
+		}
+		return BigDecimal.valueOf(random.nextLong(-1_000_000_000L, 100_000_000_000L), random.nextInt(0, 6));
+	}
+}
@@ -0,0 +1,101 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.contract;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the bounded queue and the deadline check of {@link ContractRenderExecutor}.
+ */
+class ContractRenderExecutorTest {
+
+	private static final Instant NO_DEADLINE = Instant.now().plus(Duration.ofHours(1));
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ContractRenderExecutor executor = new ContractRenderExecutor(1, 1, meterRegistry);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@AfterEach
+	void shutdown() {
+		release.countDown();
+		executor.shutdown();
+	}
+
+	@Test
+	void rendersOnItsOwnThreads() throws Exception {
+		String thread = executor.submit(() -> Thread.currentThread().getName(), NO_DEADLINE).get(5, TimeUnit.SECONDS);
+
+		assertThat(thread).startsWith("contract-render-");
+		assertThat(meterRegistry.get("contract.render").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsTasksWhileTheQueueIsFull() throws Exception {
+		CompletableFuture<String> blocked = executor.submit(this::awaitRelease, NO_DEADLINE);
+		CompletableFuture<String> queued = submitOnceRunning(blocked);
+
+		CompletableFuture<String> rejected = executor.submit(() -> "rejected", NO_DEADLINE);
+		assertThatThrownBy(() -> rejected.get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(RejectedExecutionException.class);
+		assertThat(meterRegistry.get("contract.render.rejected").counter().count()).isEqualTo(1);
+
+		release.countDown();
+		assertThat(blocked.get(5, TimeUnit.SECONDS)).isEqualTo("released");
+		assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+		assertThat(executor.submit(() -> "accepted", NO_DEADLINE).get(5, TimeUnit.SECONDS)).isEqualTo("accepted");
+	}
+
+	@Test
+	void dropsTasksWhoseDeadlinePassedInTheQueue() throws Exception {
+		CompletableFuture<String> blocked = executor.submit(this::awaitRelease, NO_DEADLINE);
+		AtomicInteger rendered = new AtomicInteger();
+		waitUntilRunning(blocked);
+		CompletableFuture<Integer> late = executor.submit(rendered::incrementAndGet, Instant.now().plusMillis(50));
+
+		Thread.sleep(100);
+		release.countDown();
+
+		assertThatThrownBy(() -> late.get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(TimeoutException.class);
+		assertThat(rendered).hasValue(0);
+		assertThat(meterRegistry.get("contract.render.timeouts").counter().count()).isEqualTo(1);
+	}
+
+	private String awaitRelease() throws InterruptedException {
+		release.await();
+		return "released";
+	}
+
+	private CompletableFuture<String> submitOnceRunning(CompletableFuture<String> blocked) throws InterruptedException {
+		waitUntilRunning(blocked);
+		return executor.submit(() -> "queued", NO_DEADLINE);
+	}
+
+	/**
+	 * Waits until the blocking task has left the queue, so the next task takes the only queue slot.
+	 */
+	private void waitUntilRunning(CompletableFuture<String> blocked) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (meterRegistry.get("contract.render.active").gauge().value() < 1 && !blocked.isDone()) {
+			if (System.nanoTime() > deadline) {
+				throw new IllegalStateException("Render task did not start");
+			}
+			Thread.sleep(1);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.contract;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the content addressing and deduplication of {@link LocalContractStore}.
+ */
+class LocalContractStoreTest {
+
+	private static final String UNKNOWN_HASH = "0".repeat(64);
+
+	@TempDir
+	Path root;
+
+	@Test
+	void storesDocumentsUnderTheirHash() throws IOException {
+		LocalContractStore store = new LocalContractStore(root.toString());
+
+		String contractId = store.store(out -> out.write(bytes("contract")));
+
+		assertThat(contractId).matches("sha256:[0-9a-f]{64}");
+		String hash = contractId.substring("sha256:".length());
+		assertThat(root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + ".pdf"))
+				.hasBinaryContent(bytes("contract"));
+		assertThat(read(store.open(contractId))).isEqualTo(bytes("contract"));
+	}
+
+	@Test
+	void storesIdenticalDocumentsOnce() throws IOException {
+		LocalContractStore store = new LocalContractStore(root.toString());
+
+		String first = store.store(out -> out.write(bytes("contract")));
+		String second = store.store(out -> out.write(bytes("contract")));
+		String other = store.store(out -> out.write(bytes("other contract")));
+
+		assertThat(second).isEqualTo(first);
+		assertThat(other).isNotEqualTo(first);
+		assertThat(documents()).isEqualTo(2);
+		assertThat(root.resolve("tmp")).isEmptyDirectory();
+	}
+
+	@Test
+	void dropsTheTempFileWhenWritingFails() throws IOException {
+		LocalContractStore store = new LocalContractStore(root.toString());
+
+		assertThatThrownBy(() -> store.store(out -> {
+			out.write(bytes("partial"));
+			throw new IOException("render failed");
+		})).hasMessage("render failed");
+
+		assertThat(documents()).isZero();
+		assertThat(root.resolve("tmp")).isEmptyDirectory();
+	}
+
+	@Test
+	void opensOnlyKnownAndValidIds() throws IOException {
+		LocalContractStore store = new LocalContractStore(root.toString());
+
+		assertThat(store.open("sha256:" + UNKNOWN_HASH)).isEmpty();
+		assertThatThrownBy(() -> store.open("sha256:../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> store.open(UNKNOWN_HASH)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> store.open(null)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private long documents() throws IOException {
+		try (Stream<Path> files = Files.walk(root)) {
+			return files.filter(file -> file.toString().endsWith(".pdf")).count();
+		}
+	}
+
+	private static byte[] read(Optional<InputStream> content) throws IOException {
+		assertThat(content).isPresent();
+		try (InputStream in = content.get()) {
+			return in.readAllBytes();
+		}
+	}
+
+	private static byte[] bytes(String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+}
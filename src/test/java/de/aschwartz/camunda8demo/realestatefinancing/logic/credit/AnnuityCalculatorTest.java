@@ -0,0 +1,92 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.credit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks {@link AnnuityCalculator} against the original exact formula of the credit review.
+ */
+class AnnuityCalculatorTest {
+
+	private static final long SEED = 0x5eed_2024L;
+	private static final int SAMPLES = 2_000;
+
+	@Test
+	void matchesBaselineFormulaForRandomLoansAndRates() {
+		AnnuityCalculator calculator = new AnnuityCalculator(1024);
+		Random random = new Random(SEED);
+
+		for (int i = 0; i < SAMPLES; i++) {
+			BigDecimal loan = BigDecimal.valueOf(random.nextLong(1_000_000, 500_000_000), 2);
+			// Mostly realistic rates with two decimals, some with more digits than the monthly rate keeps.
+			BigDecimal rate = random.nextInt(4) == 0
+					? BigDecimal.valueOf(random.nextLong(1, 2_000_000_000L), 8)
+					: BigDecimal.valueOf(random.nextInt(1, 2_000), 2);
+			int months = random.nextInt(8) == 0 ? random.nextInt(1, 601) : 360;
+
+			assertThat(calculator.monthlyPayment(loan, rate, months))
+					.as("loan %s, rate %s, %d months", loan, rate, months)
+					.isEqualTo(baselinePayment(loan, rate, months));
+		}
+	}
+
+	@Test
+	void cachedDenominatorGivesTheSamePayment() {
+		AnnuityCalculator calculator = new AnnuityCalculator(1024);
+		BigDecimal rate = new BigDecimal("3.25");
+
+		Optional<BigDecimal> first = calculator.monthlyPayment(new BigDecimal("250000"), rate, 360);
+		Optional<BigDecimal> cached = calculator.monthlyPayment(new BigDecimal("250000"), rate, 360);
+
+		assertThat(first).contains(new BigDecimal("1088.02"));
+		assertThat(cached).isEqualTo(first);
+	}
+
+	@Test
+	void worksWithoutCache() {
+		AnnuityCalculator calculator = new AnnuityCalculator(0);
+		BigDecimal loan = new BigDecimal("180000.00");
+		BigDecimal rate = new BigDecimal("4.10");
+
+		assertThat(calculator.monthlyPayment(loan, rate, 360)).isEqualTo(baselinePayment(loan, rate, 360));
+		assertThat(calculator.monthlyPayment(loan, rate, 360)).isEqualTo(baselinePayment(loan, rate, 360));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"0", "0.00000001", "-1.5"})
+	void rejectsRatesWithoutPlausibleAnnuity(String rate) {
+		AnnuityCalculator calculator = new AnnuityCalculator(1024);
+
+		assertThat(baselinePayment(new BigDecimal("200000"), new BigDecimal(rate), 360)).isEmpty();
+		assertThat(calculator.monthlyPayment(new BigDecimal("200000"), new BigDecimal(rate), 360)).isEmpty();
+	}
+
+	/**
+	 * Payment as calculated by the review before the calculator was introduced: the power is
+	 * multiplied out exactly.
+	 */
+	private static Optional<BigDecimal> baselinePayment(BigDecimal loanAmount, BigDecimal interestRate, int months) {
+		BigDecimal annualRate = interestRate.divide(new BigDecimal("100"), 10, RoundingMode.HALF_UP);
+		BigDecimal monthlyRate = annualRate.divide(new BigDecimal("12"), 10, RoundingMode.HALF_UP);
+
+		BigDecimal onePlusR = BigDecimal.ONE.add(monthlyRate);
+		BigDecimal pow = BigDecimal.ONE;
+		for (int i = 0; i < months; i++) {
+			pow = pow.multiply(onePlusR);
+		}
+
+		BigDecimal denominator = BigDecimal.ONE.subtract(BigDecimal.ONE.divide(pow, 20, RoundingMode.HALF_UP));
+		if (denominator.compareTo(BigDecimal.ZERO) <= 0) {
+			return Optional.empty();
+		}
+		return Optional.of(loanAmount.multiply(monthlyRate).divide(denominator, 2, RoundingMode.HALF_UP));
+	}
+}
@@ -0,0 +1,83 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.credit;
+
+import de.aschwartz.camunda8demo.realestatefinancing.config.ComparisonProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rates of all configured banks for one applicant: {@link BankRateEngine} against the original
+ * {@code BigDecimal} formula. Run with {@code -prof gc} to compare the allocations as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BankRateEngineBenchmark {
+
+	private static final int APPLICANTS = 1024;
+
+	private List<ComparisonProperties.Bank> banks;
+	private BankRateEngine engine;
+	private BigDecimal[] incomes;
+	private BigDecimal[] propertyValues;
+	private BigDecimal[] equities;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		banks = List.of(
+				BankRateEngineTest.bank("a", "3.10"),
+				BankRateEngineTest.bank("b", "3.40"),
+				BankRateEngineTest.bank("c", "3.25"));
+		engine = BankRateEngineTest.engine(banks);
+
+		Random random = new Random(42);
+		incomes = new BigDecimal[APPLICANTS];
+		propertyValues = new BigDecimal[APPLICANTS];
+		equities = new BigDecimal[APPLICANTS];
+		for (int i = 0; i < APPLICANTS; i++) {
+			propertyValues[i] = BigDecimal.valueOf(random.nextLong(10_000_000, 150_000_000), 2);
+			equities[i] = BigDecimal.valueOf(random.nextLong(0, propertyValues[i].unscaledValue().longValue()), 2);
+			incomes[i] = BigDecimal.valueOf(random.nextLong(150_000, 1_500_000), 2);
+		}
+	}
+
+	@Benchmark
+	public void engine(Blackhole blackhole) {
+		int i = nextApplicant();
+		BankRateEngine.RateInput input = engine.input(incomes[i], propertyValues[i], equities[i]);
+		for (ComparisonProperties.Bank bank : banks) {
+			blackhole.consume(engine.interestRate(bank.getId(), input));
+		}
+	}
+
+	@Benchmark
+	public void baseline(Blackhole blackhole) {
+		int i = nextApplicant();
+		for (ComparisonProperties.Bank bank : banks) {
+			blackhole.consume(BankRateEngineTest.baselineRate(bank, incomes[i], propertyValues[i], equities[i]));
+		}
+	}
+
+	private int nextApplicant() {
+		int i = next;
+		next = (i + 1) % APPLICANTS;
+		return i;
+	}
+}
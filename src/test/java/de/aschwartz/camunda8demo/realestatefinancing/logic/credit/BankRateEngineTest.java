@@ -0,0 +1,148 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.credit;
+
+import de.aschwartz.camunda8demo.realestatefinancing.config.ComparisonProperties;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks {@link BankRateEngine} against the original {@code BigDecimal} formula of the bank
+ * conditions worker, including the scale of the result.
+ */
+class BankRateEngineTest {
+
+	private static final long SEED = 0x15_2024L;
+	private static final int SAMPLES = 100_000;
+
+	@Test
+	void matchesBaselineFormulaForDefaultBanks() {
+		List<ComparisonProperties.Bank> banks = List.of(
+				bank("a", "3.10"),
+				bank("b", "3.40"),
+				bank("c", "3.25"));
+		assertMatchesBaseline(banks, new Random(SEED));
+	}
+
+	@Test
+	void matchesBaselineFormulaForUnusualBankConstants() {
+		ComparisonProperties.Bank precise = bank("precise", "4.125");
+		precise.setEquityDiscountFactor(new BigDecimal("0.875"));
+		precise.setIncomeBonusThreshold(new BigDecimal("3999.995"));
+		precise.setIncomeBonus(new BigDecimal("0.125"));
+		precise.setFloor(new BigDecimal("0.9"));
+
+		ComparisonProperties.Bank integral = bank("integral", "5");
+		integral.setEquityDiscountFactor(new BigDecimal("2"));
+		integral.setIncomeBonusThreshold(new BigDecimal("2500"));
+		integral.setIncomeBonus(BigDecimal.ONE);
+		integral.setFloor(new BigDecimal("2"));
+
+		// Beyond the scaled long range: always calculated with BigDecimal.
+		ComparisonProperties.Bank fallback = bank("fallback", "3.5");
+		fallback.setEquityDiscountFactor(new BigDecimal("1.123456789012345"));
+
+		assertMatchesBaseline(List.of(precise, integral, fallback), new Random(SEED + 1));
+	}
+
+	@Test
+	void fallsBackForValuesOutsideTheScaledRange() {
+		List<ComparisonProperties.Bank> banks = List.of(bank("a", "3.10"));
+		BankRateEngine engine = engine(banks);
+
+		assertSameRate(engine, banks.get(0), new BigDecimal("4000.001"), new BigDecimal("300000.125"), new BigDecimal("60000.3333"));
+		assertSameRate(engine, banks.get(0), new BigDecimal("5000"), new BigDecimal("9E+17"), new BigDecimal("8E+16"));
+		assertSameRate(engine, banks.get(0), null, null, null);
+		assertSameRate(engine, banks.get(0), new BigDecimal("3999.99"), BigDecimal.ZERO, new BigDecimal("10000"));
+		assertSameRate(engine, banks.get(0), new BigDecimal("4000"), new BigDecimal("-250000"), new BigDecimal("50000"));
+	}
+
+	@Test
+	void rejectsUnknownBank() {
+		BankRateEngine engine = engine(List.of(bank("a", "3.10")));
+		BankRateEngine.RateInput input = engine.input(BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ONE);
+
+		assertThatThrownBy(() -> engine.interestRate("x", input))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("x");
+	}
+
+	private static void assertMatchesBaseline(List<ComparisonProperties.Bank> banks, Random random) {
+		BankRateEngine engine = engine(banks);
+		for (int i = 0; i < SAMPLES; i++) {
+			BigDecimal income = random.nextInt(50) == 0 ? null : money(random, 0, 1_500_000);
+			BigDecimal property = random.nextInt(50) == 0 ? null : money(random, -100_000, 200_000_000);
+			BigDecimal equity = random.nextInt(50) == 0 ? null : money(random, -1_000_000, 150_000_000);
+			if (random.nextInt(20) == 0 && property != null) {
+				// More than two decimals are not representable in cents.
+				property = property.add(BigDecimal.valueOf(random.nextInt(1, 1000), 5));
+			}
+			for (ComparisonProperties.Bank bank : banks) {
+				assertSameRate(engine, bank, income, property, equity);
+			}
+		}
+	}
+
+	private static void assertSameRate(
+			BankRateEngine engine,
+			ComparisonProperties.Bank bank,
+			BigDecimal income,
+			BigDecimal property,
+			BigDecimal equity
+	) {
+		assertThat(engine.interestRate(bank.getId(), engine.input(income, property, equity)))
+				.as("bank %s, income %s, property %s, equity %s", bank.getId(), income, property, equity)
+				.isEqualTo(baselineRate(bank, income, property, equity));
+	}
+
+	/**
+	 * Rate as calculated by the bank conditions worker before the engine was introduced, with the
+	 * bank constants taken from the definition instead of literals.
+	 */
+	static BigDecimal baselineRate(
+			ComparisonProperties.Bank bank,
+			BigDecimal monthlyNetIncome,
+			BigDecimal propertyValue,
+			BigDecimal equity
+	) {
+		BigDecimal equityRatio =
+				(propertyValue != null && propertyValue.signum() > 0 && equity != null)
+						? equity.divide(propertyValue, 6, RoundingMode.HALF_UP)
+						: BigDecimal.ZERO;
+
+		BigDecimal equityDiscount = equityRatio.multiply(bank.getEquityDiscountFactor());
+		BigDecimal incomeBonus =
+				(monthlyNetIncome != null && monthlyNetIncome.compareTo(bank.getIncomeBonusThreshold()) >= 0)
+						? bank.getIncomeBonus()
+						: BigDecimal.ZERO;
+
+		return bank.getBaseRate()
+				.subtract(equityDiscount)
+				.subtract(incomeBonus)
+				.max(bank.getFloor())
+				.setScale(2, RoundingMode.HALF_UP);
+	}
+
+	static ComparisonProperties.Bank bank(String id, String baseRate) {
+		ComparisonProperties.Bank bank = new ComparisonProperties.Bank();
+		bank.setId(id);
+		bank.setName("Bank " + id);
+		bank.setBaseRate(new BigDecimal(baseRate));
+		return bank;
+	}
+
+	static BankRateEngine engine(List<ComparisonProperties.Bank> banks) {
+		ComparisonProperties properties = new ComparisonProperties();
+		properties.setBanks(banks);
+		return new BankRateEngine(new BankRegistry(properties));
+	}
+
+	private static BigDecimal money(Random random, long minCents, long maxCents) {
+		return BigDecimal.valueOf(random.nextLong(minCents, maxCents), 2);
+	}
+}
@@ -0,0 +1,53 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.credit;
+
+import de.aschwartz.camunda8demo.realestatefinancing.config.ComparisonProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the validation and lookup of {@link BankRegistry}.
+ */
+class BankRegistryTest {
+
+	@Test
+	void keepsTheConfigurationOrder() {
+		BankRegistry registry = registry(bank("c"), bank("a"), bank("b"));
+
+		assertThat(registry.bankIds()).containsExactly("c", "a", "b");
+		assertThat(registry.banks()).extracting(ComparisonProperties.Bank::getId).containsExactly("c", "a", "b");
+		assertThat(registry.get("a").getName()).isEqualTo("Bank a");
+	}
+
+	@Test
+	void rejectsUnknownBanks() {
+		BankRegistry registry = registry(bank("a"));
+
+		assertThatThrownBy(() -> registry.get("z"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("z");
+	}
+
+	@Test
+	void rejectsInvalidConfigurations() {
+		assertThatThrownBy(() -> registry()).isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> registry(bank("a"), bank("a"))).hasMessageContaining("Duplicate bank id: a");
+		assertThatThrownBy(() -> registry(bank(" "))).hasMessageContaining("Bank without id");
+	}
+
+	private static BankRegistry registry(ComparisonProperties.Bank... banks) {
+		ComparisonProperties properties = new ComparisonProperties();
+		properties.setBanks(List.of(banks));
+		return new BankRegistry(properties);
+	}
+
+	private static ComparisonProperties.Bank bank(String id) {
+		ComparisonProperties.Bank bank = new ComparisonProperties.Bank();
+		bank.setId(id);
+		bank.setName("Bank " + id);
+		return bank;
+	}
+}
@@ -0,0 +1,37 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.credit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks {@link CredibilityCheck} against the rules of the deployed {@code check-credibility.dmn}.
+ */
+class CredibilityCheckTest {
+
+	private final CredibilityCheck check = new CredibilityCheck(
+			new DefaultResourceLoader(), "classpath:processes/dmncredit/check-credibility.dmn");
+
+	@Test
+	void decidesLikeTheBusinessRuleTask() {
+		assertThat(check.decide(new BigDecimal("2500"), new BigDecimal("300000"), new BigDecimal("50000"))).isTrue();
+		assertThat(check.decide(new BigDecimal("1500"), new BigDecimal("300000"), new BigDecimal("50000"))).isFalse();
+	}
+
+	@Test
+	void returnsNullIfNoRuleMatches() {
+		assertThat(check.decide(new BigDecimal("2000"), new BigDecimal("300000"), new BigDecimal("50000"))).isNull();
+		assertThat(check.decide(new BigDecimal("2500"), new BigDecimal("1000000"), new BigDecimal("50000"))).isNull();
+	}
+
+	@Test
+	void failsOnAMissingDecision() {
+		assertThatThrownBy(() -> new CredibilityCheck(new DefaultResourceLoader(), "classpath:rules/credit-review.dmn"))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining(CredibilityCheck.DECISION_ID);
+	}
+}
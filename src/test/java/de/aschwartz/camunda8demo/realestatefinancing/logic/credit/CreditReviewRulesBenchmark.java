@@ -0,0 +1,69 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.credit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Review of one application with the compiled {@code credit-review.dmn} against the former if-chain.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditReviewRulesBenchmark {
+
+	private static final int APPLICATIONS = 1024;
+
+	private CreditReviewRules rules;
+	private BigDecimal[][] applications;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		rules = new CreditReviewRules(new DefaultResourceLoader(), "classpath:rules/credit-review.dmn");
+		Random random = new Random(42);
+		applications = new BigDecimal[APPLICATIONS][];
+		for (int i = 0; i < APPLICATIONS; i++) {
+			BigDecimal equityRatio = BigDecimal.valueOf(random.nextInt(50_000, 600_000), 6);
+			applications[i] = new BigDecimal[]{
+					equityRatio,
+					BigDecimal.ONE.subtract(equityRatio),
+					BigDecimal.valueOf(random.nextInt(100_000, 400_000), 6),
+					BigDecimal.valueOf(random.nextInt(150, 700), 2)
+			};
+		}
+	}
+
+	@Benchmark
+	public CreditReviewRules.Review rules() {
+		BigDecimal[] a = nextApplication();
+		return rules.review(a[0], a[1], a[2], a[3]);
+	}
+
+	@Benchmark
+	public CreditReviewRules.Review ifChain() {
+		BigDecimal[] a = nextApplication();
+		return CreditReviewRulesTest.baselineReview(a[0], a[1], a[2], a[3]);
+	}
+
+	private BigDecimal[] nextApplication() {
+		BigDecimal[] application = applications[next];
+		next = (next + 1) % APPLICATIONS;
+		return application;
+	}
+}
@@ -0,0 +1,147 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.credit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the rules of {@code rules/credit-review.dmn} against the if-chain the review used before the
+ * rules were moved to DMN.
+ */
+class CreditReviewRulesTest {
+
+	private static final String RULES = "classpath:rules/credit-review.dmn";
+	private static final long SEED = 0x19_2024L;
+	private static final int SAMPLES = 200_000;
+
+	private static final BigDecimal[] RATIO_BOUNDARIES = {
+			new BigDecimal("0.10"), new BigDecimal("0.1"), new BigDecimal("0.20"), new BigDecimal("0.90")};
+	private static final BigDecimal[] DTI_BOUNDARIES = {
+			new BigDecimal("0.25"), new BigDecimal("0.250000"), new BigDecimal("0.35")};
+	private static final BigDecimal[] RATE_BOUNDARIES = {
+			new BigDecimal("4.5"), new BigDecimal("4.50"), new BigDecimal("6.0"), new BigDecimal("6")};
+
+	@Test
+	void matchesBaselineIfChain() {
+		CreditReviewRules rules = new CreditReviewRules(new DefaultResourceLoader(), RULES);
+		Random random = new Random(SEED);
+
+		for (int i = 0; i < SAMPLES; i++) {
+			BigDecimal equityRatio = value(random, RATIO_BOUNDARIES, 1_000_000, 6);
+			BigDecimal ltv = value(random, RATIO_BOUNDARIES, 1_000_000, 6);
+			BigDecimal dti = value(random, DTI_BOUNDARIES, 600_000, 6);
+			BigDecimal interestRate = value(random, RATE_BOUNDARIES, 900, 2);
+
+			CreditReviewRules.Review review = rules.review(equityRatio, ltv, dti, interestRate);
+			CreditReviewRules.Review expected = baselineReview(equityRatio, ltv, dti, interestRate);
+
+			String inputs = "equityRatio %s, ltv %s, dti %s, rate %s".formatted(equityRatio, ltv, dti, interestRate);
+			assertThat(review.accepted()).as(inputs).isEqualTo(expected.accepted());
+			assertThat(review.rejectionReason()).as(inputs).isEqualTo(expected.rejectionReason());
+			if (expected.score() == null) {
+				assertThat(review.score()).as(inputs).isNull();
+			} else {
+				assertThat(review.score()).as(inputs).isEqualByComparingTo(expected.score());
+			}
+		}
+	}
+
+	@Test
+	void reloadsChangedRulesAndKeepsThemWhenTheFileIsBroken(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("credit-review.dmn");
+		String dmn = classpathRules();
+		Files.writeString(file, dmn);
+		CreditReviewRules rules = new CreditReviewRules(new DefaultResourceLoader(), file.toUri().toString());
+
+		// Score 2 + 1 + 2 = 5
+		BigDecimal equityRatio = new BigDecimal("0.30");
+		BigDecimal ltv = new BigDecimal("0.70");
+		BigDecimal dti = new BigDecimal("0.20");
+		BigDecimal rate = new BigDecimal("5.00");
+		assertThat(rules.review(equityRatio, ltv, dti, rate).accepted()).isTrue();
+
+		rewrite(file, dmn.replace("<text>&gt;= 4</text>", "<text>&gt;= 6</text>"), 10);
+		rules.reloadIfModified();
+		assertThat(rules.review(equityRatio, ltv, dti, rate).accepted()).isFalse();
+
+		rewrite(file, dmn.replace("hitPolicy=\"FIRST\"", "hitPolicy=\"UNIQUE\""), 20);
+		rules.reloadIfModified();
+		assertThat(rules.review(equityRatio, ltv, dti, rate).accepted()).isFalse();
+	}
+
+	@Test
+	void rejectsRulesWithUnexpectedColumns(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("credit-review.dmn");
+		Files.writeString(file, classpathRules().replace("<text>dti</text>", "<text>debtToIncome</text>"));
+
+		assertThatThrownBy(() -> new CreditReviewRules(new DefaultResourceLoader(), file.toUri().toString()))
+				.isInstanceOf(IllegalStateException.class)
+				.hasRootCauseInstanceOf(IllegalArgumentException.class);
+	}
+
+	/**
+	 * Knockout criteria, score and approval as hard-coded in the review before the rules were moved
+	 * to DMN.
+	 */
+	static CreditReviewRules.Review baselineReview(
+			BigDecimal equityRatio,
+			BigDecimal ltv,
+			BigDecimal dti,
+			BigDecimal interestRate
+	) {
+		if (equityRatio.compareTo(new BigDecimal("0.10")) < 0)
+			return new CreditReviewRules.Review(false, "Equity ratio too low (< 10%)", null);
+		if (ltv.compareTo(new BigDecimal("0.90")) > 0)
+			return new CreditReviewRules.Review(false, "Loan-to-value too high (> 90%)", null);
+		if (dti.compareTo(new BigDecimal("0.35")) > 0)
+			return new CreditReviewRules.Review(false, "Monthly payment too high (> 35% of net income)", null);
+
+		int score = 0;
+
+		if (equityRatio.compareTo(new BigDecimal("0.20")) >= 0) score += 2;
+		else score += 1;
+
+		if (interestRate.compareTo(new BigDecimal("4.5")) <= 0) score += 2;
+		else if (interestRate.compareTo(new BigDecimal("6.0")) <= 0) score += 1;
+
+		if (dti.compareTo(new BigDecimal("0.25")) <= 0) score += 2;
+		else score += 1;
+
+		boolean accepted = score >= 4;
+		return new CreditReviewRules.Review(accepted, accepted ? null : "Score too low (risk too high)", BigDecimal.valueOf(score));
+	}
+
+	/**
+	 * Random value, in one of eight cases exactly on a rule boundary.
+	 */
+	static BigDecimal value(Random random, BigDecimal[] boundaries, int maxUnscaled, int scale) {
+		if (random.nextInt(8) == 0) {
+			return boundaries[random.nextInt(boundaries.length)];
+		}
+		return BigDecimal.valueOf(random.nextInt(maxUnscaled + 1), scale);
+	}
+
+	private static String classpathRules() throws IOException {
+		try (InputStream in = new DefaultResourceLoader().getResource(RULES).getInputStream()) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static void rewrite(Path file, String content, int secondsLater) throws IOException {
+		FileTime before = Files.getLastModifiedTime(file);
+		Files.writeString(file, content);
+		Files.setLastModifiedTime(file, FileTime.fromMillis(before.toMillis() + secondsLater * 1000L));
+	}
+}
@@ -0,0 +1,71 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.dmn;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of a compiled decision table against a rule-by-rule scan of the same table, for growing
+ * rule counts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecisionTableBenchmark {
+
+	private static final int INPUTS = 1024;
+
+	@Param({"16", "256", "4096"})
+	public int rules;
+
+	@Param({"FIRST", "COLLECT_SUM"})
+	public DecisionTable.HitPolicy hitPolicy;
+
+	private DmnCompilerTest.RandomTable table;
+	private DecisionTable compiled;
+	private BigDecimal[][] inputs;
+	private int next;
+
+	@Setup
+	public void setUp() throws IOException {
+		Random random = new Random(42);
+		table = DmnCompilerTest.randomTable(random, rules, 3, hitPolicy);
+		compiled = DmnCompilerTest.compile(table.dmn()).get(DmnCompilerTest.RandomTable.DECISION_ID);
+		inputs = new BigDecimal[INPUTS][];
+		for (int i = 0; i < INPUTS; i++) {
+			inputs[i] = table.randomInputs(random);
+		}
+	}
+
+	@Benchmark
+	public Object compiled() {
+		return compiled.evaluate(nextInputs());
+	}
+
+	@Benchmark
+	public Object ruleByRule() {
+		return table.evaluate(nextInputs());
+	}
+
+	private BigDecimal[] nextInputs() {
+		BigDecimal[] values = inputs[next];
+		next = (next + 1) % INPUTS;
+		return values;
+	}
+}
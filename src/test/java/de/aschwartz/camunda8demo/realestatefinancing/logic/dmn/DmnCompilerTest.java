@@ -0,0 +1,282 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.dmn;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Compiles random decision tables and checks every evaluation against a rule-by-rule scan of the same
+ * unary tests.
+ */
+class DmnCompilerTest {
+
+	private static final long SEED = 0xd3_2024L;
+
+	@ParameterizedTest
+	@EnumSource(DecisionTable.HitPolicy.class)
+	void matchesRuleByRuleEvaluation(DecisionTable.HitPolicy hitPolicy) throws IOException {
+		Random random = new Random(SEED + hitPolicy.ordinal());
+		for (int table = 0; table < 50; table++) {
+			// Up to 150 rules, so the rule sets span several bitset words.
+			RandomTable randomTable = randomTable(random, random.nextInt(1, 151), random.nextInt(1, 4), hitPolicy);
+			DecisionTable compiled = compile(randomTable.dmn()).get(RandomTable.DECISION_ID);
+
+			assertThat(compiled.hitPolicy()).isEqualTo(hitPolicy);
+			assertThat(compiled.ruleCount()).isEqualTo(randomTable.rules().size());
+			for (int i = 0; i < 500; i++) {
+				BigDecimal[] values = randomTable.randomInputs(random);
+				Object expected = randomTable.evaluate(values);
+				Object actual = compiled.evaluate(values);
+				if (expected instanceof BigDecimal sum) {
+					assertThat((BigDecimal) actual).as(randomTable.describe(values)).isEqualByComparingTo(sum);
+				} else {
+					assertThat(actual).as(randomTable.describe(values)).isEqualTo(expected);
+				}
+			}
+		}
+	}
+
+	@Test
+	void evaluatesNamedInputsOfAnyNumberType() throws IOException {
+		DecisionTable table = compile(dmn("FIRST", "", "x", "y",
+				rule("&gt;= 10", "[1..2]", "\"high\""),
+				rule("not(&gt;= 10)", "-", "\"low\""))).get(RandomTable.DECISION_ID);
+
+		Map<String, Object> variables = new HashMap<>();
+		variables.put("x", 10);
+		variables.put("y", 1.5d);
+		assertThat(table.evaluate(variables)).isEqualTo("high");
+
+		variables.put("x", "9.99");
+		variables.put("y", null);
+		assertThat(table.evaluate(variables)).isEqualTo("low");
+
+		variables.put("x", 12L);
+		assertThat(table.evaluate(variables)).isNull();
+
+		variables.put("x", true);
+		assertThatThrownBy(() -> table.evaluate(variables)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> table.evaluate(BigDecimal.ONE)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsUnsupportedFeatures() {
+		assertUnsupported(dmn("UNIQUE", "", "x", "y", rule("1", "2", "true")), "hit policy");
+		assertUnsupported(dmn("COLLECT", "MAX", "x", "y", rule("1", "2", "1")), "hit policy");
+		assertUnsupported(dmn("FIRST", "", "x + 1", "y", rule("1", "2", "true")), "input expression");
+		assertUnsupported(dmn("FIRST", "", "x", "y", rule("&gt; limit", "2", "true")), "input entry");
+		assertUnsupported(dmn("FIRST", "", "x", "y", rule("[1..", "2", "true")), "input entry");
+		assertUnsupported(dmn("FIRST", "", "x", "y", rule("1", "2", "date(\"2024-01-01\")")), "output entry");
+		assertUnsupported(dmn("COLLECT", "SUM", "x", "y", rule("1", "2", "\"a\"")), "SUM");
+		assertUnsupported("<definitions xmlns=\"https://www.omg.org/spec/DMN/20191111/MODEL/\"/>", "no decisions");
+		assertUnsupported("<definitions", "Invalid DMN");
+	}
+
+	private static void assertUnsupported(String dmn, String message) {
+		assertThatThrownBy(() -> compile(dmn))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining(message);
+	}
+
+	static Map<String, DecisionTable> compile(String dmn) throws IOException {
+		return DmnCompiler.compile(new ByteArrayInputStream(dmn.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static String rule(String x, String y, String output) {
+		return "<rule id=\"r\"><inputEntry id=\"rx\"><text>%s</text></inputEntry><inputEntry id=\"ry\"><text>%s</text></inputEntry><outputEntry id=\"ro\"><text>%s</text></outputEntry></rule>"
+				.formatted(x, y, output);
+	}
+
+	private static String dmn(String hitPolicy, String aggregation, String x, String y, String... rules) {
+		StringBuilder xml = new StringBuilder(RandomTable.HEADER.formatted(hitPolicy,
+				aggregation.isEmpty() ? "" : " aggregation=\"%s\"".formatted(aggregation)));
+		xml.append(RandomTable.input(0, x)).append(RandomTable.input(1, y)).append(RandomTable.OUTPUT);
+		for (String rule : rules) {
+			xml.append(rule);
+		}
+		return xml.append(RandomTable.FOOTER).toString();
+	}
+
+	/**
+	 * Generates a random decision table over a grid of boundaries, so entries often share, touch or
+	 * overlap boundaries.
+	 */
+	static RandomTable randomTable(Random random, int ruleCount, int inputCount, DecisionTable.HitPolicy hitPolicy) {
+		List<RandomTable.Rule> rules = new ArrayList<>(ruleCount);
+		for (int r = 0; r < ruleCount; r++) {
+			List<UnaryTest> tests = new ArrayList<>(inputCount);
+			for (int c = 0; c < inputCount; c++) {
+				tests.add(randomTest(random));
+			}
+			Object output = switch (hitPolicy) {
+				case FIRST, COLLECT -> "rule " + r;
+				case COLLECT_SUM -> random.nextInt(10) == 0 ? null : BigDecimal.valueOf(random.nextInt(-5, 20));
+			};
+			rules.add(new RandomTable.Rule(tests, output));
+		}
+		return new RandomTable(hitPolicy, inputCount, rules);
+	}
+
+	private static UnaryTest randomTest(Random random) {
+		return switch (random.nextInt(6)) {
+			case 0 -> new UnaryTest("-", value -> true);
+			case 1, 2 -> simpleTest(random);
+			case 3 -> {
+				UnaryTest first = simpleTest(random);
+				UnaryTest second = simpleTest(random);
+				yield new UnaryTest(first.text() + ", " + second.text(),
+						value -> value != null && (first.predicate().test(value) || second.predicate().test(value)));
+			}
+			default -> {
+				UnaryTest inner = simpleTest(random);
+				yield new UnaryTest("not(" + inner.text() + ")", value -> value != null && !inner.predicate().test(value));
+			}
+		};
+	}
+
+	private static UnaryTest simpleTest(Random random) {
+		BigDecimal a = gridValue(random);
+		return switch (random.nextInt(7)) {
+			case 0 -> new UnaryTest("&lt; " + a, value -> value != null && value.compareTo(a) < 0);
+			case 1 -> new UnaryTest("&lt;= " + a, value -> value != null && value.compareTo(a) <= 0);
+			case 2 -> new UnaryTest("&gt; " + a, value -> value != null && value.compareTo(a) > 0);
+			case 3 -> new UnaryTest("&gt;= " + a, value -> value != null && value.compareTo(a) >= 0);
+			case 4 -> new UnaryTest("= " + a, value -> value != null && value.compareTo(a) == 0);
+			case 5 -> new UnaryTest(a.toPlainString(), value -> value != null && value.compareTo(a) == 0);
+			default -> {
+				BigDecimal b = gridValue(random);
+				BigDecimal low = a.min(b);
+				BigDecimal high = a.max(b);
+				boolean lowInclusive = random.nextBoolean();
+				boolean highInclusive = random.nextBoolean();
+				String open = lowInclusive ? "[" : random.nextBoolean() ? "(" : "]";
+				String close = highInclusive ? "]" : random.nextBoolean() ? ")" : "[";
+				yield new UnaryTest(open + low + ".." + high + close, value -> {
+					if (value == null) {
+						return false;
+					}
+					int cLow = value.compareTo(low);
+					int cHigh = value.compareTo(high);
+					return (cLow > 0 || (cLow == 0 && lowInclusive)) && (cHigh < 0 || (cHigh == 0 && highInclusive));
+				});
+			}
+		};
+	}
+
+	/**
+	 * Multiples of 0.5 in [0, 10], sometimes with a trailing zero.
+	 */
+	private static BigDecimal gridValue(Random random) {
+		BigDecimal value = BigDecimal.valueOf(random.nextInt(21) * 5L, 1);
+		return random.nextBoolean() ? value.setScale(2) : value;
+	}
+
+	record UnaryTest(String text, Predicate<BigDecimal> predicate) {
+	}
+
+	/**
+	 * Random table as DMN text and as a list of predicates evaluated rule by rule.
+	 */
+	record RandomTable(DecisionTable.HitPolicy hitPolicy, int inputCount, List<Rule> rules) {
+
+		static final String DECISION_ID = "table";
+		static final String HEADER = """
+				<definitions xmlns="https://www.omg.org/spec/DMN/20191111/MODEL/" id="random" name="Random" namespace="http://example.com/dmn">
+				<decision id="table" name="Table"><decisionTable id="dt" hitPolicy="%s"%s>
+				""";
+		static final String OUTPUT = "<output id=\"out\" name=\"result\"/>\n";
+		static final String FOOTER = "</decisionTable></decision></definitions>\n";
+
+		record Rule(List<UnaryTest> tests, Object output) {
+
+			boolean matches(BigDecimal[] values) {
+				for (int c = 0; c < values.length; c++) {
+					if (!tests.get(c).predicate().test(values[c])) {
+						return false;
+					}
+				}
+				return true;
+			}
+		}
+
+		static String input(int column, String expression) {
+			return "<input id=\"in%d\"><inputExpression id=\"expr%d\" typeRef=\"number\"><text>%s</text></inputExpression></input>\n"
+					.formatted(column, column, expression);
+		}
+
+		String dmn() {
+			StringBuilder xml = new StringBuilder(HEADER.formatted(
+					hitPolicy == DecisionTable.HitPolicy.FIRST ? "FIRST" : "COLLECT",
+					hitPolicy == DecisionTable.HitPolicy.COLLECT_SUM ? " aggregation=\"SUM\"" : ""));
+			for (int c = 0; c < inputCount; c++) {
+				xml.append(input(c, "x" + c));
+			}
+			xml.append(OUTPUT);
+			for (int r = 0; r < rules.size(); r++) {
+				Rule rule = rules.get(r);
+				xml.append("<rule id=\"rule").append(r).append("\">");
+				for (UnaryTest test : rule.tests()) {
+					xml.append("<inputEntry><text>").append(test.text()).append("</text></inputEntry>");
+				}
+				Object output = rule.output();
+				String outputText = output == null ? "null" : output instanceof String text ? "\"" + text + "\"" : output.toString();
+				xml.append("<outputEntry><text>").append(outputText).append("</text></outputEntry></rule>\n");
+			}
+			return xml.append(FOOTER).toString();
+		}
+
+		/**
+		 * Evaluates the rules one by one, the way the DMN hit policies are specified.
+		 */
+		Object evaluate(BigDecimal[] values) {
+			List<Object> outputs = new ArrayList<>();
+			for (Rule rule : rules) {
+				if (rule.matches(values)) {
+					if (hitPolicy == DecisionTable.HitPolicy.FIRST) {
+						return rule.output();
+					}
+					outputs.add(rule.output());
+				}
+			}
+			return switch (hitPolicy) {
+				case FIRST -> null;
+				case COLLECT -> outputs;
+				case COLLECT_SUM -> outputs.stream()
+						.filter(BigDecimal.class::isInstance)
+						.map(BigDecimal.class::cast)
+						.reduce(BigDecimal::add)
+						.orElse(null);
+			};
+		}
+
+		/**
+		 * Inputs on the grid, between grid values, outside of it or missing.
+		 */
+		BigDecimal[] randomInputs(Random random) {
+			BigDecimal[] values = new BigDecimal[inputCount];
+			for (int c = 0; c < inputCount; c++) {
+				values[c] = random.nextInt(20) == 0 ? null : BigDecimal.valueOf(random.nextInt(-2, 43) * 25L, 2);
+			}
+			return values;
+		}
+
+		String describe(BigDecimal[] values) {
+			return "inputs %s of %d rules".formatted(Arrays.toString(values), rules.size());
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.offer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the additive increase and multiplicative decrease of {@link AdaptiveConcurrencyLimiter}.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long FAST = Duration.ofMillis(10).toNanos();
+	private static final long SLOW = Duration.ofSeconds(3).toNanos();
+
+	private final AdaptiveConcurrencyLimiter limiter =
+			new AdaptiveConcurrencyLimiter(4, 1, 8, Duration.ofSeconds(2), 0.5);
+
+	@Test
+	void rejectsCallsBeyondTheLimit() {
+		for (int i = 0; i < 4; i++) {
+			assertThat(limiter.tryAcquire()).isTrue();
+		}
+
+		assertThat(limiter.tryAcquire()).isFalse();
+		assertThat(limiter.inFlight()).isEqualTo(4);
+
+		limiter.onIgnored();
+		assertThat(limiter.inFlight()).isEqualTo(3);
+		assertThat(limiter.limit()).isEqualTo(4);
+		assertThat(limiter.tryAcquire()).isTrue();
+	}
+
+	@Test
+	void growsByAboutOnePerRoundOfFastCalls() {
+		succeed(4, FAST);
+		assertThat(limiter.limit()).isEqualTo(4);
+
+		// 1/limit per success: a few more calls than the limit push it over the next integer.
+		succeed(1, FAST);
+		assertThat(limiter.limit()).isEqualTo(5);
+	}
+
+	@Test
+	void neverGrowsBeyondTheMaximum() {
+		succeed(200, FAST);
+
+		assertThat(limiter.limit()).isEqualTo(8);
+	}
+
+	@Test
+	void halvesOnFailuresAndSlowCalls() {
+		assertThat(limiter.tryAcquire()).isTrue();
+		limiter.onDropped();
+		assertThat(limiter.limit()).isEqualTo(2);
+
+		succeed(1, SLOW);
+		assertThat(limiter.limit()).isEqualTo(1);
+
+		assertThat(limiter.tryAcquire()).isTrue();
+		limiter.onDropped();
+		assertThat(limiter.limit()).isEqualTo(1);
+		assertThat(limiter.inFlight()).isZero();
+	}
+
+	private void succeed(int calls, long latencyNanos) {
+		for (int i = 0; i < calls; i++) {
+			assertThat(limiter.tryAcquire()).isTrue();
+			limiter.onSuccess(latencyNanos);
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.offer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that {@link CheapestOfferParser} picks the same offer as binding the full response, however the
+ * response is split into chunks.
+ */
+class CheapestOfferParserTest {
+
+	private static final String RESPONSE = """
+			{
+			  "meta": {"angebote": [{"kondition": {"monatlicheRate": 1}}]},
+			  "angebote": [
+			    {"vermittler": "A", "kondition": {"monatlicheRate": 1500.10}},
+			    {"vermittler": "B", "produktinformation": {}, "kondition": {"monatlicheRate": "1200.50"}},
+			    {"vermittler": "C", "kondition": {}},
+			    {"vermittler": "D", "kondition": {"sollZins": 3.1, "monatlicheRate": 1200.5}, "actionUrl": "https://d"},
+			    {"vermittler": "E"}
+			  ],
+			  "total": 5
+			}
+			""";
+
+	private final CheapestOfferParser parser = new CheapestOfferParser(new ObjectMapper());
+
+	@Test
+	void picksTheLowestMonthlyRateAndKeepsTheFirstOnTies() throws IOException {
+		Optional<OffersResponse.Angebot> cheapest = parser.parse(body(RESPONSE));
+
+		assertThat(cheapest).hasValueSatisfying(offer -> {
+			assertThat(offer.getVermittler()).isEqualTo("B");
+			assertThat(offer.getKondition().getMonatlicheRate()).isEqualByComparingTo(new BigDecimal("1200.50"));
+		});
+	}
+
+	@Test
+	void returnsEmptyWithoutRatedOffers() throws IOException {
+		assertThat(parser.parse(body("{\"angebote\": []}"))).isEmpty();
+		assertThat(parser.parse(body("{\"angebote\": [{\"kondition\": {}}]}"))).isEmpty();
+		assertThat(parser.parse(body("{}"))).isEmpty();
+	}
+
+	@Test
+	void findsTheSameOfferForEveryChunkBoundary() throws IOException {
+		byte[] response = RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+		for (int split = 1; split < response.length; split++) {
+			try (CheapestOfferParser.Session session = parser.open(response.length)) {
+				session.feed(ByteBuffer.wrap(response, 0, split));
+				session.feed(ByteBuffer.wrap(response, split, response.length - split));
+
+				assertThat(session.finish()).as("split at %d", split)
+						.hasValueSatisfying(offer -> assertThat(offer.getVermittler()).isEqualTo("B"));
+			}
+		}
+	}
+
+	@Test
+	void parsesSingleByteChunks() throws IOException {
+		byte[] response = RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+		try (CheapestOfferParser.Session session = parser.open(response.length)) {
+			for (byte b : response) {
+				session.feed(ByteBuffer.wrap(new byte[]{b}));
+			}
+
+			assertThat(session.finish()).hasValueSatisfying(offer -> {
+				assertThat(offer.getVermittler()).isEqualTo("B");
+				assertThat(offer.getProduktinformation()).isNotNull();
+			});
+		}
+	}
+
+	@Test
+	void rejectsMalformedResponses() {
+		assertThatThrownBy(() -> parser.parse(body("[]"))).isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> parser.parse(body(""))).isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> parser.parse(body("{\"angebote\": [{\"kondition\": "))).isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> parser.parse(body("{\"angebote\": [{\"kondition\": {\"monatlicheRate\": \"n/a\"}}]}")))
+				.isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> parser.parse(body("{\"angebote\": [}"))).isInstanceOf(IOException.class);
+	}
+
+	@Test
+	void rejectsResponsesLargerThanTheLimit() throws IOException {
+		byte[] response = RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+		try (CheapestOfferParser.Session session = parser.open(response.length - 1)) {
+			session.feed(ByteBuffer.wrap(response, 0, response.length / 2));
+
+			assertThatThrownBy(() -> session.feed(ByteBuffer.wrap(response, response.length / 2, response.length - response.length / 2)))
+					.isInstanceOf(IOException.class)
+					.hasMessageContaining("exceeds %d bytes", response.length - 1);
+		}
+	}
+
+	private static ByteArrayInputStream body(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,359 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.offer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.aschwartz.camunda8demo.realestatefinancing.config.AutoCreditProperties;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks {@link CheapestOfferService} against offer providers served by a local HTTP server.
+ */
+class CheapestOfferServiceTest {
+
+	/**
+	 * Answer of a provider to its n-th request (starting at 1).
+	 */
+	private interface Answer {
+		void respond(HttpExchange exchange, int attempt) throws Exception;
+	}
+
+	private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final AutoCreditProperties properties = new AutoCreditProperties();
+
+	private HttpServer server;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		// Slow providers must not hold up the others.
+		server.setExecutor(executor);
+		server.start();
+		properties.setHedgeDelay(Duration.ZERO);
+		properties.setProviderDeadline(Duration.ofSeconds(5));
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	@Test
+	void streamingAndBindingPickTheSameOffer() {
+		// Large enough to arrive in many buffers, small enough for the codec limit of the binding path.
+		String response = offers(1_000, 567);
+		provider("a", (exchange, attempt) -> respond(exchange, 200, response));
+
+		assertThat(service(true, DataSize.ofMegabytes(16)).findCheapestOffer(request()).block().getVermittler())
+				.isEqualTo("V567");
+		assertThat(service(false, DataSize.ofMegabytes(16)).findCheapestOffer(request()).block().getVermittler())
+				.isEqualTo("V567");
+	}
+
+	@Test
+	void failsOnResponsesLargerThanTheLimit() {
+		String response = offers(5_000, 1_234);
+		provider("a", (exchange, attempt) -> respond(exchange, 200, response));
+
+		assertThatThrownBy(() -> service(true, DataSize.ofKilobytes(64)).findCheapestOffer(request()).block())
+				.hasMessageContaining("API not available")
+				.hasRootCauseMessage("Offers response exceeds %d bytes".formatted(DataSize.ofKilobytes(64).toBytes()))
+				.cause().isInstanceOf(UncheckedIOException.class);
+	}
+
+	@Test
+	void failsOnMalformedResponses() {
+		provider("a", (exchange, attempt) -> respond(exchange, 200, "{\"angebote\": [{\"kondition\": {\"monatlicheRate\": 1200}}"));
+
+		assertThatThrownBy(() -> service(true, DataSize.ofMegabytes(16)).findCheapestOffer(request()).block())
+				.hasMessageContaining("API not available")
+				.cause().isInstanceOf(UncheckedIOException.class).hasMessageContaining("Invalid offers response");
+	}
+
+	@Test
+	void failsWithoutRatedOffers() {
+		provider("a", (exchange, attempt) -> respond(exchange, 200, "{\"angebote\": []}"));
+
+		assertThatThrownBy(() -> service(true, DataSize.ofMegabytes(16)).findCheapestOffer(request()).block())
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("No offers returned");
+	}
+
+	@Test
+	void picksTheCheapestOfferAcrossProviders() {
+		provider("a", (exchange, attempt) -> offer(exchange, "A", "1500"));
+		provider("b", (exchange, attempt) -> offer(exchange, "B", "1200"));
+		provider("c", (exchange, attempt) -> offer(exchange, "C", "1300"));
+
+		assertThat(service().findCheapestOffer(request()).block().getVermittler()).isEqualTo("B");
+	}
+
+	@Test
+	void dropsProvidersMissingTheirDeadline() {
+		provider("a", (exchange, attempt) -> offer(exchange, "A", "1500"));
+		provider("slow", (exchange, attempt) -> {
+			Thread.sleep(2_000);
+			offer(exchange, "SLOW", "900");
+		}).setDeadline(Duration.ofMillis(300));
+
+		long start = System.nanoTime();
+		assertThat(service().findCheapestOffer(request()).block().getVermittler()).isEqualTo("A");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1_500));
+	}
+
+	@Test
+	void dropsFailingProviders() {
+		provider("a", (exchange, attempt) -> offer(exchange, "A", "1500"));
+		provider("broken", (exchange, attempt) -> respond(exchange, 500, ""));
+
+		assertThat(service().findCheapestOffer(request()).block().getVermittler()).isEqualTo("A");
+	}
+
+	@Test
+	void cachesCompleteResults() {
+		provider("a", (exchange, attempt) -> offer(exchange, "A", "1500"));
+		provider("b", (exchange, attempt) -> offer(exchange, "B", "1200"));
+		CheapestOfferService service = service();
+
+		service.findCheapestOffer(request()).block();
+		service.findCheapestOffer(request()).block();
+
+		assertThat(requests.get("/a")).hasValue(1);
+		assertThat(requests.get("/b")).hasValue(1);
+	}
+
+	@Test
+	void doesNotCacheResultsWithDroppedProviders() {
+		provider("a", (exchange, attempt) -> offer(exchange, "A", "1500"));
+		provider("flaky", (exchange, attempt) -> {
+			if (attempt == 1) {
+				respond(exchange, 500, "");
+			} else {
+				offer(exchange, "FLAKY", "1200");
+			}
+		});
+		CheapestOfferService service = service();
+
+		assertThat(service.findCheapestOffer(request()).block().getVermittler()).isEqualTo("A");
+		assertThat(service.findCheapestOffer(request()).block().getVermittler()).isEqualTo("FLAKY");
+		assertThat(service.findCheapestOffer(request()).block().getVermittler()).isEqualTo("FLAKY");
+
+		assertThat(requests.get("/a")).hasValue(2);
+		assertThat(requests.get("/flaky")).hasValue(2);
+	}
+
+	@Test
+	void failsWhenEveryProviderFails() {
+		provider("a", (exchange, attempt) -> respond(exchange, 503, ""));
+		provider("b", (exchange, attempt) -> respond(exchange, 500, ""));
+
+		assertThatThrownBy(() -> service().findCheapestOffer(request()).block())
+				.hasMessageContaining("API not available");
+	}
+
+	@Test
+	void stopsCallingAProviderWhileItsCircuitIsOpen() {
+		properties.getResilience().setSlidingWindowSize(2);
+		properties.getResilience().setMinimumCalls(2);
+		properties.getResilience().setOpenDuration(Duration.ofMinutes(1));
+		provider("a", (exchange, attempt) -> respond(exchange, 503, ""));
+		CheapestOfferService service = service();
+
+		for (int i = 0; i < 2; i++) {
+			assertThatThrownBy(() -> service.findCheapestOffer(request()).block())
+					.hasMessageContaining("API not available");
+		}
+		assertThatThrownBy(() -> service.findCheapestOffer(request()).block())
+				.isInstanceOfSatisfying(OffersUnavailableException.class, e ->
+						assertThat(e.getRetryBackoff()).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(1)));
+
+		assertThat(requests.get("/a")).hasValue(2);
+	}
+
+	@Test
+	void hedgedRequestWinsAgainstASlowPrimary() {
+		properties.setHedgeDelay(Duration.ofMillis(100));
+		provider("a", (exchange, attempt) -> {
+			if (attempt == 1) {
+				Thread.sleep(3_000);
+			}
+			offer(exchange, "attempt-" + attempt, "1200");
+		});
+
+		long start = System.nanoTime();
+		assertThat(service().findCheapestOffer(request()).block().getVermittler()).isEqualTo("attempt-2");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+		assertThat(requests.get("/a")).hasValue(2);
+	}
+
+	@Test
+	void primaryWinsAgainstASlowerHedgedRequest() {
+		properties.setHedgeDelay(Duration.ofMillis(100));
+		provider("a", (exchange, attempt) -> {
+			Thread.sleep(attempt == 1 ? 300 : 3_000);
+			offer(exchange, "attempt-" + attempt, "1200");
+		});
+
+		long start = System.nanoTime();
+		assertThat(service().findCheapestOffer(request()).block().getVermittler()).isEqualTo("attempt-1");
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+		assertThat(requests.get("/a")).hasValue(2);
+	}
+
+	@Test
+	void hedgedRequestAnswersWhenThePrimaryFailsFast() {
+		properties.setHedgeDelay(Duration.ofMillis(100));
+		provider("a", (exchange, attempt) -> {
+			if (attempt == 1) {
+				respond(exchange, 500, "");
+			} else {
+				offer(exchange, "attempt-" + attempt, "1200");
+			}
+		});
+
+		assertThat(service().findCheapestOffer(request()).block().getVermittler()).isEqualTo("attempt-2");
+	}
+
+	@Test
+	void reportsThePrimaryErrorWhenBothRequestsFail() {
+		properties.setHedgeDelay(Duration.ofMillis(100));
+		provider("a", (exchange, attempt) -> respond(exchange, attempt == 1 ? 503 : 500, ""));
+
+		assertThatThrownBy(() -> service().findCheapestOffer(request()).block())
+				.hasMessageContaining("API not available")
+				.rootCause().hasMessageContaining("503");
+		assertThat(requests.get("/a")).hasValue(2);
+	}
+
+	@Test
+	void skipsTheHedgedRequestAtTheConcurrencyLimit() {
+		properties.setHedgeDelay(Duration.ofMillis(100));
+		properties.getResilience().setInitialLimit(1);
+		properties.getResilience().setMaxLimit(1);
+		provider("a", (exchange, attempt) -> {
+			Thread.sleep(300);
+			offer(exchange, "attempt-" + attempt, "1200");
+		});
+
+		assertThat(service().findCheapestOffer(request()).block().getVermittler()).isEqualTo("attempt-1");
+		assertThat(requests.get("/a")).hasValue(1);
+	}
+
+	@Test
+	void doesNotHedgeFastProviders() {
+		properties.setHedgeDelay(Duration.ofMillis(500));
+		provider("a", (exchange, attempt) -> offer(exchange, "A", "1200"));
+
+		service().findCheapestOffer(request()).block();
+
+		assertThat(requests.get("/a")).hasValue(1);
+	}
+
+	private AutoCreditProperties.Provider provider(String name, Answer answer) {
+		String path = "/" + name;
+		AtomicInteger count = requests.computeIfAbsent(path, p -> new AtomicInteger());
+		server.createContext(path, exchange -> {
+			try {
+				answer.respond(exchange, count.incrementAndGet());
+			} catch (Exception e) {
+				// The client gave up on the request (deadline or lost hedge).
+			} finally {
+				exchange.close();
+			}
+		});
+
+		AutoCreditProperties.Provider provider = new AutoCreditProperties.Provider();
+		provider.setName(name);
+		provider.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+		provider.setApiPath(path);
+		List<AutoCreditProperties.Provider> providers = new ArrayList<>(properties.getProviders());
+		providers.add(provider);
+		properties.setProviders(providers);
+		return provider;
+	}
+
+	private CheapestOfferService service() {
+		return service(true, DataSize.ofMegabytes(16));
+	}
+
+	private CheapestOfferService service(boolean streamingParse, DataSize maxResponseSize) {
+		return new CheapestOfferService(
+				WebClient.builder(),
+				properties,
+				new OfferLookupCache(10, Duration.ofMinutes(5), new SimpleMeterRegistry()),
+				new CheapestOfferParser(new ObjectMapper()),
+				streamingParse,
+				maxResponseSize,
+				new SimpleMeterRegistry());
+	}
+
+	private static void offer(HttpExchange exchange, String vermittler, String monatlicheRate) throws IOException {
+		respond(exchange, 200, """
+				{"angebote": [{"vermittler": "%s", "kondition": {"monatlicheRate": %s}}]}"""
+				.formatted(vermittler, monatlicheRate));
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Offers with descending rates, except for the cheapest one at the given index.
+	 */
+	private static String offers(int count, int cheapest) {
+		StringJoiner angebote = new StringJoiner(",", "{\"angebote\": [", "]}");
+		for (int i = 0; i < count; i++) {
+			int rate = i == cheapest ? 100 : 100_000 - i;
+			angebote.add("""
+					{"vermittler": "V%d", "anbieter": {"name": "Bank %d"}, "kondition": {"monatlicheRate": %d.50}}"""
+					.formatted(i, i, rate));
+		}
+		return angebote.toString();
+	}
+
+	private static OffersRequest request() {
+		return OffersRequest.builder()
+				.immobilie(OffersRequest.Immobilie.builder()
+						.kaufPreis(new BigDecimal("500000"))
+						.postleitzahl("10115")
+						.build())
+				.finanzierung(OffersRequest.Finanzierung.builder()
+						.kreditbetrag(new BigDecimal("400000"))
+						.zinsBindungInJahren(10)
+						.tilgungsSatz(new BigDecimal("2"))
+						.build())
+				.build();
+	}
+}
@@ -0,0 +1,124 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.offer;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the state transitions of {@link CircuitBreaker}.
+ */
+class CircuitBreakerTest {
+
+	private final CircuitBreaker breaker = new CircuitBreaker(
+			4, 4, 0.5, 2, Duration.ofMillis(50), Duration.ofMillis(150));
+
+	@Test
+	void staysClosedBelowTheMinimumCalls() {
+		for (int i = 0; i < 3; i++) {
+			call(false);
+		}
+
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+	}
+
+	@Test
+	void staysClosedBelowTheFailureRate() {
+		call(true);
+		call(false);
+		call(false);
+		call(false);
+		// The first failure leaves the window when this one enters it.
+		call(true);
+
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	void opensHalfOpensAndClosesAgain() throws InterruptedException {
+		openBreaker();
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+		assertThat(breaker.retryAfter()).isPositive().isLessThanOrEqualTo(Duration.ofMillis(50));
+
+		Thread.sleep(80);
+
+		// Two probes are let through while half-open, a third call has to wait for their outcome.
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+
+		breaker.onSuccess();
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		breaker.onSuccess();
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+		// The window starts over: three failures are below the minimum calls again.
+		for (int i = 0; i < 3; i++) {
+			call(true);
+		}
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	void failedProbeReopensWithDoubledDurationUpToTheMaximum() throws InterruptedException {
+		openBreaker();
+		Thread.sleep(80);
+
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		breaker.onError();
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(breaker.retryAfter()).isGreaterThan(Duration.ofMillis(50));
+
+		Thread.sleep(130);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		breaker.onError();
+		assertThat(breaker.retryAfter()).isGreaterThan(Duration.ofMillis(100))
+				.isLessThanOrEqualTo(Duration.ofMillis(150));
+	}
+
+	@Test
+	void rejectedCallersWaitForTheOpenDurationWhileProbesAreRunning() throws InterruptedException {
+		assertThat(breaker.retryAfter()).isZero();
+		openBreaker();
+		Thread.sleep(80);
+
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		assertThat(breaker.retryAfter()).isEqualTo(Duration.ofMillis(50));
+	}
+
+	@Test
+	void ignoredProbeReturnsItsPermission() throws InterruptedException {
+		openBreaker();
+		Thread.sleep(80);
+
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		breaker.onIgnored();
+
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+	}
+
+	private void openBreaker() {
+		for (int i = 0; i < 4; i++) {
+			call(i % 2 == 1);
+		}
+	}
+
+	private void call(boolean failure) {
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		if (failure) {
+			breaker.onError();
+		} else {
+			breaker.onSuccess();
+		}
+	}
+}
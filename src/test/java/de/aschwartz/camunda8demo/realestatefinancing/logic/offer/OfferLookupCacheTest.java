@@ -0,0 +1,165 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.offer;
+
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersRequest;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the TTL, size bound and single-flight behaviour of {@link OfferLookupCache}.
+ */
+class OfferLookupCacheTest {
+
+	private static final OffersResponse.Angebot OFFER = new OffersResponse.Angebot();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+	@Test
+	void servesIdenticalRequestsFromTheCache() {
+		OfferLookupCache cache = new OfferLookupCache(10, Duration.ofMinutes(5), meterRegistry);
+
+		assertThat(cache.get(request("400000", "12345"), this::load).block()).isSameAs(OFFER);
+		// Same amounts with a different scale and padded postal code hit the same entry.
+		assertThat(cache.get(request("400000.00", " 12345 "), this::load).block()).isSameAs(OFFER);
+
+		assertThat(upstreamCalls).hasValue(1);
+		assertThat(cache.hitRatio()).isEqualTo(0.5);
+		assertThat(requests("hit")).isEqualTo(1);
+		assertThat(requests("miss")).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentLookupsShareOneUpstreamCall() {
+		OfferLookupCache cache = new OfferLookupCache(10, Duration.ofMinutes(5), meterRegistry);
+		Sinks.One<OffersResponse.Angebot> upstream = Sinks.one();
+
+		Mono<OffersResponse.Angebot> first = cache.get(request("400000", "12345"), () -> loadFrom(upstream));
+		Mono<OffersResponse.Angebot> second = cache.get(request("400000", "12345"), () -> loadFrom(upstream));
+		upstream.tryEmitValue(OFFER);
+
+		assertThat(first.block()).isSameAs(OFFER);
+		assertThat(second.block()).isSameAs(OFFER);
+		assertThat(upstreamCalls).hasValue(1);
+		assertThat(requests("coalesced")).isEqualTo(1);
+	}
+
+	@Test
+	void doesNotCacheFailedLookups() {
+		OfferLookupCache cache = new OfferLookupCache(10, Duration.ofMinutes(5), meterRegistry);
+
+		assertThatThrownBy(() -> cache.get(request("400000", "12345"), () -> {
+			upstreamCalls.incrementAndGet();
+			return Mono.error(new IllegalStateException("API not available"));
+		}).block()).hasMessageContaining("API not available");
+
+		assertThat(cache.get(request("400000", "12345"), this::load).block()).isSameAs(OFFER);
+		assertThat(upstreamCalls).hasValue(2);
+	}
+
+	@Test
+	void sharesButDoesNotCacheIncompleteLookups() {
+		OfferLookupCache cache = new OfferLookupCache(10, Duration.ofMinutes(5), meterRegistry);
+		Sinks.One<OffersResponse.Angebot> upstream = Sinks.one();
+		Supplier<Mono<OfferLookupCache.Lookup>> partial = () -> {
+			upstreamCalls.incrementAndGet();
+			return upstream.asMono().map(offer -> new OfferLookupCache.Lookup(offer, false));
+		};
+
+		Mono<OffersResponse.Angebot> first = cache.get(request("400000", "12345"), partial);
+		Mono<OffersResponse.Angebot> second = cache.get(request("400000", "12345"), partial);
+		upstream.tryEmitValue(OFFER);
+
+		assertThat(first.block()).isSameAs(OFFER);
+		assertThat(second.block()).isSameAs(OFFER);
+		assertThat(upstreamCalls).hasValue(1);
+
+		cache.get(request("400000", "12345"), this::load).block();
+		assertThat(upstreamCalls).hasValue(2);
+		assertThat(meterRegistry.get("offers.cache.incomplete").functionCounter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void reloadsAfterTheTimeToLive() throws InterruptedException {
+		OfferLookupCache cache = new OfferLookupCache(10, Duration.ofMillis(50), meterRegistry);
+		cache.get(request("400000", "12345"), this::load).block();
+
+		Thread.sleep(100);
+		cache.get(request("400000", "12345"), this::load).block();
+
+		assertThat(upstreamCalls).hasValue(2);
+		assertThat(evictions()).isEqualTo(1);
+	}
+
+	@Test
+	void evictsExpiredEntriesBehindAnInFlightLoad() throws InterruptedException {
+		OfferLookupCache cache = new OfferLookupCache(10, Duration.ofMillis(50), meterRegistry);
+		Sinks.One<OffersResponse.Angebot> slowUpstream = Sinks.one();
+		Mono<OffersResponse.Angebot> slow = cache.get(request("400000", "10115"), () -> loadFrom(slowUpstream));
+		cache.get(request("400000", "20095"), this::load).block();
+
+		Thread.sleep(100);
+		cache.get(request("400000", "80331"), this::load).block();
+
+		assertThat(evictions()).isEqualTo(1);
+		assertThat(meterRegistry.get("offers.cache.entries").gauge().value()).isEqualTo(2);
+
+		slowUpstream.tryEmitValue(OFFER);
+		assertThat(slow.block()).isSameAs(OFFER);
+	}
+
+	@Test
+	void evictsTheEldestEntryBeyondMaxEntries() {
+		OfferLookupCache cache = new OfferLookupCache(2, Duration.ofMinutes(5), meterRegistry);
+		cache.get(request("400000", "10115"), this::load).block();
+		cache.get(request("400000", "20095"), this::load).block();
+		cache.get(request("400000", "80331"), this::load).block();
+
+		cache.get(request("400000", "10115"), this::load).block();
+
+		assertThat(upstreamCalls).hasValue(4);
+		assertThat(meterRegistry.get("offers.cache.entries").gauge().value()).isEqualTo(2);
+	}
+
+	private Mono<OfferLookupCache.Lookup> load() {
+		upstreamCalls.incrementAndGet();
+		return Mono.just(new OfferLookupCache.Lookup(OFFER, true));
+	}
+
+	private Mono<OfferLookupCache.Lookup> loadFrom(Sinks.One<OffersResponse.Angebot> upstream) {
+		upstreamCalls.incrementAndGet();
+		return upstream.asMono().map(offer -> new OfferLookupCache.Lookup(offer, true));
+	}
+
+	private double requests(String result) {
+		return meterRegistry.get("offers.cache.requests").tag("result", result).functionCounter().count();
+	}
+
+	private double evictions() {
+		return meterRegistry.get("offers.cache.evictions").functionCounter().count();
+	}
+
+	private static OffersRequest request(String kreditbetrag, String postleitzahl) {
+		return OffersRequest.builder()
+				.immobilie(OffersRequest.Immobilie.builder()
+						.kaufPreis(new BigDecimal("500000"))
+						.postleitzahl(postleitzahl)
+						.build())
+				.finanzierung(OffersRequest.Finanzierung.builder()
+						.kreditbetrag(new BigDecimal(kreditbetrag))
+						.zinsBindungInJahren(10)
+						.tilgungsSatz(new BigDecimal("2"))
+						.build())
+				.build();
+	}
+}
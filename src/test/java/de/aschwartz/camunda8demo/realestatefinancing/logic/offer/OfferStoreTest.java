@@ -0,0 +1,102 @@
+package de.aschwartz.camunda8demo.realestatefinancing.logic.offer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.aschwartz.camunda8demo.realestatefinancing.model.ContractOffer;
+import de.aschwartz.camunda8demo.realestatefinancing.model.OffersResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that {@link OfferStore} keeps full offers and resolves every form of the
+ * {@code cheapestOffer} variable.
+ */
+class OfferStoreTest {
+
+	private static final String UNKNOWN_REF = "sha256:" + "0".repeat(64);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@TempDir
+	Path root;
+
+	@Test
+	void storesTheFullOfferAndReturnsItsProjection() throws IOException {
+		OfferStore store = new OfferStore(root.toString(), objectMapper);
+		OffersResponse.Angebot offer = offer();
+
+		ContractOffer projection = store.store(offer);
+
+		assertThat(projection.getOfferRef()).startsWith("sha256:");
+		assertThat(projection.getBankName()).isEqualTo("Hyperbank AG");
+		assertThat(projection.getMonatlicheRate()).isEqualByComparingTo("1088.02");
+		assertThat(store.load(projection.getOfferRef())).contains(offer);
+		assertThat(store.store(offer)).isEqualTo(projection);
+		assertThat(store.load(UNKNOWN_REF)).isEmpty();
+	}
+
+	@Test
+	void resolvesProjectionsReferencesAndFullOffers() throws IOException {
+		OfferStore store = new OfferStore(root.toString(), objectMapper);
+		OffersResponse.Angebot offer = offer();
+		ContractOffer projection = store.store(offer);
+
+		assertThat(store.resolve(variable(projection))).isEqualTo(projection.toAngebot());
+		assertThat(store.resolve(Map.of("offerRef", projection.getOfferRef()))).isEqualTo(offer);
+		assertThat(store.resolve(variable(offer))).isEqualTo(offer);
+		assertThat(store.resolve(offer)).isSameAs(offer);
+	}
+
+	@Test
+	void rejectsEmptyOffersAndUnknownReferences() {
+		OfferStore store = new OfferStore(root.toString(), objectMapper);
+
+		assertThatThrownBy(() -> store.resolve(Map.of()))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("neither contract values nor an offerRef");
+		assertThatThrownBy(() -> store.resolve(Map.of("offerRef", UNKNOWN_REF)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining(UNKNOWN_REF);
+	}
+
+	/**
+	 * Converts a value like the job client does when it reads the process variable.
+	 */
+	private Map<String, Object> variable(Object value) {
+		return objectMapper.convertValue(value, new TypeReference<>() {
+		});
+	}
+
+	private static OffersResponse.Angebot offer() {
+		return OffersResponse.Angebot.builder()
+				.vermittler("Müller & Söhne Finanz")
+				.actionUrl("https://example.com/offers/1")
+				.anbieter(OffersResponse.Angebot.Anbieter.builder()
+						.id("hyp")
+						.name("Hyperbank AG")
+						.kurzbezeichnung("HYP")
+						.informationstext("Not printed on the contract")
+						.anschrift(OffersResponse.Angebot.Anbieter.Anschrift.builder()
+								.strasseUndHausnummer("Hauptstraße 1")
+								.plz("10115")
+								.ort("Berlin")
+								.build())
+						.build())
+				.kondition(OffersResponse.Angebot.Kondition.builder()
+						.sollZins(new BigDecimal("3.25"))
+						.monatlicheRate(new BigDecimal("1088.02"))
+						.zinsbindungInJahren(10)
+						.darlehensbetrag(new BigDecimal("250000"))
+						.grundbuchkosten(new BigDecimal("1500"))
+						.build())
+				.build();
+	}
+}